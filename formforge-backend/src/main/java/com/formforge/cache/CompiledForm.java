@@ -0,0 +1,61 @@
+package com.formforge.cache;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.validation.FieldValidator;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, pre-compiled view of a PUBLISHED form used on the submit path.
+ *
+ * WHY NOT THE ENTITY:
+ * - Published forms never change (edits go through a new draft version)
+ * - Holding detached, immutable data avoids lazy loading and per-request
+ * re-filtering of soft-deleted fields
+ * - Safe to share across request threads without a persistence context
+ *
+ * @param formId             primary key of the published form version
+ * @param formGroupId        group linking all versions of the form
+ * @param slug               public slug
+ * @param version            form version at compile time
+ * @param fields             active fields in display order
+ * @param fieldIndex         fieldKey -> field lookup
+ * @param requiredFieldCount number of required active fields
+ * @param schemaSnapshot     pre-serialized schema snapshot JSON
+ * @param schemaHash         content hash of schemaSnapshot (schema_snapshots key)
+ */
+public record CompiledForm(
+        Long formId,
+        String formGroupId,
+        String slug,
+        Integer version,
+        List<CompiledField> fields,
+        Map<String, CompiledField> fieldIndex,
+        int requiredFieldCount,
+        String schemaSnapshot,
+        String schemaHash) {
+
+    public CompiledField field(String fieldKey) {
+        return fieldIndex.get(fieldKey);
+    }
+
+    /**
+     * Immutable copy of an active FormField.
+     *
+     * @param position  zero-based index within {@link CompiledForm#fields()}
+     * @param validator pre-compiled validator for this field's rules
+     */
+    public record CompiledField(
+            Long id,
+            String fieldKey,
+            FieldType fieldType,
+            String label,
+            boolean required,
+            Integer displayOrder,
+            String validationRules,
+            String fieldConfig,
+            int position,
+            FieldValidator validator) {
+    }
+}
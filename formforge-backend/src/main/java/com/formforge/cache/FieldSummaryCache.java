@@ -0,0 +1,429 @@
+package com.formforge.cache;
+
+import com.formforge.dto.response.FormSummaryResponse;
+import com.formforge.dto.response.FormSummaryResponse.Bucket;
+import com.formforge.dto.response.FormSummaryResponse.DateHistogram;
+import com.formforge.dto.response.FormSummaryResponse.FieldSummary;
+import com.formforge.dto.response.FormSummaryResponse.NumberSummary;
+import com.formforge.dto.response.FormSummaryResponse.OptionCount;
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.ingest.PreparedSubmission;
+import com.formforge.repository.FieldSummaryRepository;
+import com.formforge.repository.FormFieldRepository;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.ContentVersion;
+import com.formforge.util.TransactionCallbacks;
+import com.formforge.util.TypedValueMapper.TypedValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-form field summaries (counts, null rates, number statistics, date
+ * histograms, option frequencies), keyed by form id.
+ *
+ * LOAD: one read-only transaction of grouped aggregates over field_values
+ * (FieldSummaryRepository), one statement per column kind plus one
+ * histogram query per DATE field. Nothing reads response_json.
+ *
+ * INCREMENTAL UPDATES instead of recomputation:
+ * - ResponseWriter reports new responses and (sync mode) their typed values;
+ * EavProjector reports values as it projects them (async mode)
+ * - Both are applied after commit, and only to forms already cached
+ * - Each summary keeps the newest response and the newest projected
+ * response it was loaded with as FIXED cut-offs: reports at or below them
+ * are already counted and are skipped, so a load racing a write never
+ * counts it twice
+ * - The cut-offs never advance: every id is reported exactly once, after
+ * its commit, so any id above them is new even when commits finish out of
+ * id order
+ * - Number statistics are merged with Welford's update (count, mean, M2)
+ *
+ * INVALIDATION:
+ * - Deleting a response evicts the form (again after commit)
+ * - A changed field set, or a date value outside its histogram's
+ * granularity, recomputes on the next read
+ * - {@code cache.field-summaries.ttl} bounds drift from what increments
+ * cannot see (other nodes, writes still in flight while a summary loads)
+ */
+@Slf4j
+@Component
+public class FieldSummaryCache {
+
+    private final FieldSummaryRepository summaryRepository;
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final FormFieldRepository formFieldRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Long, FormSummary> cache;
+
+    public FieldSummaryCache(FieldSummaryRepository summaryRepository,
+            FormResponseJdbcRepository jdbcRepository,
+            FormFieldRepository formFieldRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${cache.field-summaries.max-size:1000}") long maxSize,
+            @Value("${cache.field-summaries.ttl:1h}") Duration ttl) {
+        this.summaryRepository = summaryRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.formFieldRepository = formFieldRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "field_summaries");
+    }
+
+    /**
+     * Current summary of a form; loads it on a miss or when stale.
+     *
+     * @param complete whether field_values covers every response (EavProjector)
+     */
+    public FormSummaryResponse get(Long formId, boolean complete) {
+        List<FormField> fields = formFieldRepository.findByFormIdAndIsDeletedFalseOrderByDisplayOrderAsc(formId);
+        FormSummary summary = cache.get(formId, id -> load(id, fields));
+        if (summary.isStale(fields)) {
+            cache.asMap().remove(formId, summary);
+            summary = cache.get(formId, id -> load(id, fields));
+        }
+        return summary.toResponse(complete);
+    }
+
+    /**
+     * Count new responses once the current transaction commits.
+     */
+    public void recordResponses(Long formId, Collection<Long> responseIds) {
+        TransactionCallbacks.afterCommit(() -> cache.asMap().computeIfPresent(formId, (id, summary) -> {
+            summary.addResponses(responseIds);
+            return summary;
+        }));
+    }
+
+    /**
+     * Add newly written field_values once the current transaction commits.
+     *
+     * @param valuesByResponse response id -> its typed values
+     */
+    public void recordValues(Long formId, Map<Long, List<PreparedSubmission.Value>> valuesByResponse) {
+        TransactionCallbacks.afterCommit(() -> cache.asMap().computeIfPresent(formId, (id, summary) -> {
+            summary.addValues(valuesByResponse);
+            return summary;
+        }));
+    }
+
+    /**
+     * Evict a form now and again once the surrounding transaction commits.
+     */
+    public void invalidate(Long formId) {
+        cache.invalidate(formId);
+        TransactionCallbacks.afterCommit(() -> cache.invalidate(formId));
+    }
+
+    private FormSummary load(Long formId, List<FormField> fields) {
+        long started = System.nanoTime();
+        // One snapshot: counts and aggregates must describe the same rows
+        FormSummary summary = readOnlyTransaction.execute(tx -> {
+            ContentVersion version = jdbcRepository.findContentVersion(List.of(formId));
+            FormSummary loaded = new FormSummary(formId, fields, version.responseCount(), version.maxId(),
+                    summaryRepository.findValuesThroughId(formId));
+            loaded.loadAggregates();
+            return loaded;
+        });
+        log.debug("Computed field summary of form {} ({} fields) in {}ms", formId, fields.size(),
+                (System.nanoTime() - started) / 1_000_000);
+        return summary;
+    }
+
+    /**
+     * Date histogram bucket width, picked so a histogram stays within a few
+     * dozen buckets.
+     */
+    enum Granularity {
+        DAY("%Y-%m-%d", 62),
+        MONTH("%Y-%m-01", 36 * 31),
+        YEAR("%Y-01-01", Long.MAX_VALUE);
+
+        private final String sqlFormat;
+        private final long maxRangeDays;
+
+        Granularity(String sqlFormat, long maxRangeDays) {
+            this.sqlFormat = sqlFormat;
+            this.maxRangeDays = maxRangeDays;
+        }
+
+        static Granularity of(LocalDateTime min, LocalDateTime max) {
+            long days = ChronoUnit.DAYS.between(min.toLocalDate(), max.toLocalDate());
+            for (Granularity granularity : values()) {
+                if (days <= granularity.maxRangeDays) {
+                    return granularity;
+                }
+            }
+            return YEAR;
+        }
+
+        LocalDate bucketOf(LocalDateTime value) {
+            LocalDate date = value.toLocalDate();
+            return switch (this) {
+                case DAY -> date;
+                case MONTH -> date.withDayOfMonth(1);
+                case YEAR -> date.withDayOfYear(1);
+            };
+        }
+    }
+
+    /**
+     * Mutable summary of one form; every access holds its monitor.
+     */
+    private final class FormSummary {
+
+        private final Long formId;
+        private final Map<Long, FieldStats> fields = new LinkedHashMap<>();
+        private final LocalDateTime computedAt = LocalDateTime.now();
+        private long responseCount;
+        /** Responses up to this id were counted at load */
+        private final long responsesThroughId;
+        /** Values of responses up to this id were counted at load */
+        private final long valuesThroughId;
+        private boolean histogramsOutdated;
+
+        private FormSummary(Long formId, List<FormField> formFields, long responseCount, long responsesThroughId,
+                long valuesThroughId) {
+            this.formId = formId;
+            for (FormField field : formFields) {
+                fields.put(field.getId(), new FieldStats(field));
+            }
+            this.responseCount = responseCount;
+            this.responsesThroughId = responsesThroughId;
+            this.valuesThroughId = valuesThroughId;
+        }
+
+        private void loadAggregates() {
+            summaryRepository.findAnswered(fields.keySet(),
+                    (fieldId, answered) -> fields.get(fieldId).answered = answered);
+
+            summaryRepository.findNumberStats(idsOf(FieldType.NUMBER), (fieldId, count, min, max, mean, stddev) -> {
+                FieldStats stats = fields.get(fieldId);
+                stats.count = count;
+                stats.min = min;
+                stats.max = max;
+                stats.mean = mean;
+                stats.m2 = stddev * stddev * count;
+            });
+
+            summaryRepository.findDateRanges(idsOf(FieldType.DATE), (fieldId, min, max) -> {
+                FieldStats stats = fields.get(fieldId);
+                stats.minDate = min;
+                stats.maxDate = max;
+                stats.granularity = Granularity.of(min, max);
+            });
+            for (FieldStats stats : fields.values()) {
+                if (stats.granularity != null) {
+                    summaryRepository.findDateHistogram(stats.id, stats.granularity.sqlFormat,
+                            (bucket, count) -> stats.buckets.put(bucket, count));
+                }
+            }
+
+            summaryRepository.findTextOptions(idsOf(FieldType.DROPDOWN, FieldType.RADIO),
+                    (fieldId, option, count) -> fields.get(fieldId).options.put(option, count));
+            summaryRepository.findBooleanOptions(idsOf(FieldType.CHECKBOX),
+                    (fieldId, option, count) -> fields.get(fieldId).options.put(option, count));
+        }
+
+        private List<Long> idsOf(FieldType... types) {
+            List<Long> ids = new ArrayList<>();
+            for (FieldStats stats : fields.values()) {
+                for (FieldType type : types) {
+                    if (stats.fieldType == type) {
+                        ids.add(stats.id);
+                    }
+                }
+            }
+            return ids;
+        }
+
+        private synchronized boolean isStale(List<FormField> current) {
+            if (histogramsOutdated || current.size() != fields.size()) {
+                return true;
+            }
+            for (FormField field : current) {
+                FieldStats stats = fields.get(field.getId());
+                if (stats == null || stats.fieldType != field.getFieldType()) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private synchronized void addResponses(Collection<Long> responseIds) {
+            for (Long responseId : responseIds) {
+                if (responseId > responsesThroughId) {
+                    responseCount++;
+                }
+            }
+        }
+
+        private synchronized void addValues(Map<Long, List<PreparedSubmission.Value>> valuesByResponse) {
+            for (Map.Entry<Long, List<PreparedSubmission.Value>> entry : valuesByResponse.entrySet()) {
+                if (entry.getKey() <= valuesThroughId) {
+                    continue;
+                }
+                for (PreparedSubmission.Value value : entry.getValue()) {
+                    FieldStats stats = fields.get(value.fieldId());
+                    if (stats != null) {
+                        histogramsOutdated |= !stats.add(value.typed());
+                    }
+                }
+            }
+        }
+
+        private synchronized FormSummaryResponse toResponse(boolean complete) {
+            List<FieldSummary> summaries = new ArrayList<>(fields.size());
+            for (FieldStats stats : fields.values()) {
+                summaries.add(stats.toSummary(responseCount));
+            }
+            return FormSummaryResponse.builder()
+                    .formId(formId)
+                    .responseCount(responseCount)
+                    .complete(complete)
+                    .computedAt(computedAt)
+                    .fields(summaries)
+                    .build();
+        }
+    }
+
+    /**
+     * Accumulators of one field; only those of its type are used.
+     */
+    private static final class FieldStats {
+
+        private final Long id;
+        private final String fieldKey;
+        private final String label;
+        private final FieldType fieldType;
+        private long answered;
+
+        // NUMBER: Welford state
+        private long count;
+        private double mean;
+        private double m2;
+        private double min;
+        private double max;
+
+        // DATE
+        private LocalDateTime minDate;
+        private LocalDateTime maxDate;
+        private Granularity granularity;
+        private final TreeMap<LocalDate, Long> buckets = new TreeMap<>();
+
+        // DROPDOWN / RADIO / CHECKBOX
+        private final Map<String, Long> options = new HashMap<>();
+
+        private FieldStats(FormField field) {
+            this.id = field.getId();
+            this.fieldKey = field.getFieldKey();
+            this.label = field.getLabel();
+            this.fieldType = field.getFieldType();
+        }
+
+        /**
+         * @return false if a date fell outside what the histogram's
+         *         granularity covers (the summary must be recomputed)
+         */
+        private boolean add(TypedValue value) {
+            answered++;
+            switch (fieldType) {
+                case NUMBER -> {
+                    if (value.hasNumber()) {
+                        addNumber(value.number());
+                    }
+                }
+                case DATE -> {
+                    if (value.hasDate()) {
+                        return addDate(value.date());
+                    }
+                }
+                case DROPDOWN, RADIO -> {
+                    if (value.hasText()) {
+                        options.merge(value.text(), 1L, Long::sum);
+                    }
+                }
+                case CHECKBOX -> {
+                    if (value.hasBoolean()) {
+                        options.merge(value.bool().toString(), 1L, Long::sum);
+                    }
+                }
+                default -> {
+                }
+            }
+            return true;
+        }
+
+        private void addNumber(double x) {
+            count++;
+            double delta = x - mean;
+            mean += delta / count;
+            m2 += delta * (x - mean);
+            min = count == 1 ? x : Math.min(min, x);
+            max = count == 1 ? x : Math.max(max, x);
+        }
+
+        private boolean addDate(LocalDateTime date) {
+            minDate = minDate == null || date.isBefore(minDate) ? date : minDate;
+            maxDate = maxDate == null || date.isAfter(maxDate) ? date : maxDate;
+            Granularity needed = Granularity.of(minDate, maxDate);
+            if (granularity == null) {
+                granularity = needed;
+            } else if (needed.compareTo(granularity) > 0) {
+                return false;
+            }
+            buckets.merge(granularity.bucketOf(date), 1L, Long::sum);
+            return true;
+        }
+
+        private FieldSummary toSummary(long responseCount) {
+            double nullRate = responseCount > 0 ? Math.max(0, 1 - (double) answered / responseCount) : 0;
+            NumberSummary number = null;
+            DateHistogram histogram = null;
+            List<OptionCount> optionCounts = null;
+            switch (fieldType) {
+                case NUMBER -> number = count > 0
+                        ? new NumberSummary(count, min, max, mean, Math.sqrt(m2 / count))
+                        : new NumberSummary(0, null, null, null, null);
+                case DATE -> histogram = new DateHistogram(minDate, maxDate,
+                        granularity != null ? granularity.name() : null,
+                        buckets.entrySet().stream().map(e -> new Bucket(e.getKey(), e.getValue())).toList());
+                case DROPDOWN, RADIO, CHECKBOX -> optionCounts = options.entrySet().stream()
+                        .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                                .thenComparing(Map.Entry.comparingByKey()))
+                        .map(e -> new OptionCount(e.getKey(), e.getValue()))
+                        .collect(Collectors.toList());
+                default -> {
+                }
+            }
+            return new FieldSummary(fieldKey, label, fieldType, answered, nullRate, number, histogram, optionCounts);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.formforge.cache;
+
+import com.formforge.dto.response.SubmissionSuccessResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, in-memory record of recent Idempotency-Key submissions.
+ *
+ * FAST PATH:
+ * - A retried key returns the original SubmissionSuccessResponse from memory,
+ * with no DB read
+ * - Entries are futures, so a retry racing the original (client timeout while
+ * the first request is still running) waits for it instead of inserting again
+ *
+ * BACKSTOP:
+ * - Evicted keys, restarts and other nodes are covered by the
+ * uk_responses_form_idempotency unique constraint (see ResponseService)
+ *
+ * METRICS: formforge.idempotency.requests{result=hit|miss|backstop}
+ */
+@Component
+public class IdempotencyKeyCache {
+
+    private final Cache<String, CompletableFuture<SubmissionSuccessResponse>> recentKeys;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter backstops;
+
+    public IdempotencyKeyCache(MeterRegistry meterRegistry,
+            @Value("${idempotency.cache.max-size:100000}") long maxSize,
+            @Value("${idempotency.cache.ttl:24h}") Duration ttl) {
+        this.recentKeys = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+        this.backstops = counter(meterRegistry, "backstop");
+        CaffeineCacheMetrics.monitor(meterRegistry, recentKeys, "idempotency_keys");
+    }
+
+    /**
+     * Run {@code submit} once per (form, key); later calls get the first result.
+     * Failed submissions are forgotten so the client can retry them.
+     */
+    public SubmissionSuccessResponse execute(Long formId, String idempotencyKey,
+            Supplier<SubmissionSuccessResponse> submit) {
+        String cacheKey = formId + ":" + idempotencyKey;
+        CompletableFuture<SubmissionSuccessResponse> mine = new CompletableFuture<>();
+        CompletableFuture<SubmissionSuccessResponse> existing = recentKeys.asMap().putIfAbsent(cacheKey, mine);
+
+        if (existing != null) {
+            hits.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+        }
+
+        misses.increment();
+        try {
+            SubmissionSuccessResponse result = submit.get();
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            recentKeys.asMap().remove(cacheKey, mine);
+            mine.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Record that the DB unique constraint, not the cache, caught a retry.
+     */
+    public void recordBackstop() {
+        backstops.increment();
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("formforge.idempotency.requests")
+                .description("Idempotency-Key lookups by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+}
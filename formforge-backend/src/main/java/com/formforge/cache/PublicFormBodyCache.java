@@ -0,0 +1,234 @@
+package com.formforge.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formforge.dto.response.PublicFormResponse;
+import com.formforge.entity.Form;
+import com.formforge.entity.enums.FormStatus;
+import com.formforge.exception.ResourceNotFoundException;
+import com.formforge.repository.FormRepository;
+import com.formforge.service.SchemaSnapshotService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-encoded GET /api/public/forms/{slug} bodies, keyed by slug.
+ *
+ * WHY:
+ * - A published form version is immutable, yet every page view used to load
+ * the entities and re-serialize PublicFormResponse
+ * - Here the JSON (and its gzip encoding) is produced once per slug+version
+ * and served as bytes with a strong ETag, so revalidations are 304s
+ *
+ * OFF-HEAP (cache.public-forms.off-heap):
+ * - Bodies are copied into direct ByteBuffers, so thousands of hot forms do
+ * not add long-lived byte[] to the heap the GC has to trace and copy
+ *
+ * INVALIDATION: same contract as PublishedFormCache (publish / archive /
+ * delete evict the slug, again after commit; other nodes pick up changes
+ * within {@code cache.public-forms.expire-after-write}).
+ *
+ * ETAGS: one strong tag per content-coding (RFC 9110), the gzip tag being
+ * the identity tag with a "-gz" suffix.
+ */
+@Slf4j
+@Component
+public class PublicFormBodyCache {
+
+    private final FormRepository formRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean offHeap;
+    private final LoadingCache<String, CachedBody> cache;
+
+    public PublicFormBodyCache(FormRepository formRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cache.public-forms.max-bytes:67108864}") long maxBytes,
+            @Value("${cache.public-forms.off-heap:false}") boolean offHeap,
+            @Value("${cache.public-forms.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        this.formRepository = formRepository;
+        this.objectMapper = objectMapper;
+        this.offHeap = offHeap;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String slug, CachedBody body) -> body.weight())
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "public_form_bodies");
+        Gauge.builder("formforge.cache.public_form_bodies.bytes", cache,
+                c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .description("Encoded bytes held by the public form body cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws ResourceNotFoundException if no published form exists
+     */
+    public CachedBody get(String slug) {
+        CachedBody body = cache.get(slug);
+        if (body == null) {
+            throw new ResourceNotFoundException("Form", "slug", slug);
+        }
+        return body;
+    }
+
+    /**
+     * Evict a slug now and again once the surrounding transaction commits.
+     */
+    public void invalidate(String slug) {
+        cache.invalidate(slug);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(slug);
+                }
+            });
+        }
+    }
+
+    /**
+     * Loader: returns null when no published form exists (not cached).
+     */
+    private CachedBody load(String slug) {
+        return formRepository.findBySlugAndStatusWithFields(slug, FormStatus.PUBLISHED)
+                .map(this::encode)
+                .orElse(null);
+    }
+
+    private CachedBody encode(Form form) {
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(PublicFormResponse.from(form));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize public form " + form.getSlug(), e);
+        }
+        byte[] gzip = gzip(json);
+
+        // Strong validator: changes with the version and with the exact bytes
+        String etag = "\"v" + form.getVersion() + "-"
+                + SchemaSnapshotService.contentHash(new String(json, StandardCharsets.UTF_8))
+                        .substring(0, 16)
+                + "\"";
+        log.debug("Encoded public form {} (v{}): {} bytes, {} gzipped",
+                form.getSlug(), form.getVersion(), json.length, gzip.length);
+
+        return new CachedBody(form.getVersion(), etag, store(json), store(gzip));
+    }
+
+    private ByteBuffer store(byte[] bytes) {
+        if (!offHeap) {
+            return ByteBuffer.wrap(bytes);
+        }
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        return direct.asReadOnlyBuffer();
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * One encoded form version.
+     *
+     * @param etag quoted strong entity tag of the identity (uncompressed) body
+     */
+    public record CachedBody(Integer version, String etag, ByteBuffer json, ByteBuffer gzip) {
+
+        /**
+         * Quoted strong entity tag of one content-coding.
+         */
+        public String etag(boolean gzipped) {
+            return gzipped ? etag.substring(0, etag.length() - 1) + "-gz\"" : etag;
+        }
+
+        /**
+         * Body as a Resource, without copying the cached bytes.
+         * Callers must not modify heap-backed arrays.
+         */
+        public Resource resource(boolean gzipped) {
+            ByteBuffer source = gzipped ? gzip : json;
+            if (source.hasArray()) {
+                return new ByteArrayResource(source.array());
+            }
+            return new ByteBufferResource(source.duplicate());
+        }
+
+        private int weight() {
+            return json.capacity() + gzip.capacity();
+        }
+    }
+
+    /**
+     * Streams a (direct) buffer without materializing it as a byte[].
+     */
+    private static final class ByteBufferResource extends AbstractResource {
+
+        private final ByteBuffer buffer;
+
+        private ByteBufferResource(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            ByteBuffer view = buffer.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return view.hasRemaining() ? view.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    if (!view.hasRemaining()) {
+                        return -1;
+                    }
+                    int n = Math.min(len, view.remaining());
+                    view.get(b, off, n);
+                    return n;
+                }
+            };
+        }
+
+        @Override
+        public String getDescription() {
+            return "Cached public form body";
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.formforge.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formforge.entity.Form;
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FormStatus;
+import com.formforge.exception.ResourceNotFoundException;
+import com.formforge.repository.FormRepository;
+import com.formforge.service.SchemaSnapshotService;
+import com.formforge.validation.FieldValidator;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory cache of compiled PUBLISHED forms, keyed by slug.
+ *
+ * SUBMIT PATH COST (before):
+ * - 1 query for the form + 1 lazy load for fields on every submission
+ * - Re-filtering soft-deleted fields and rebuilding the fieldKey map
+ *
+ * With the cache, a hot form costs zero DB round trips to resolve.
+ *
+ * INVALIDATION:
+ * - publishForm / archiveForm / deleteForm evict the slug
+ * - Eviction is repeated after commit so a concurrent reader cannot
+ * re-populate the entry with pre-commit state
+ * - Single-instance only; multi-node deployments rely on the TTL, which
+ * counts from load (expire-after-write), so a form that keeps receiving
+ * submissions is still re-read within it
+ */
+@Slf4j
+@Component
+public class PublishedFormCache {
+
+    private final FormRepository formRepository;
+    private final ObjectMapper objectMapper;
+    private final LoadingCache<String, CompiledForm> cache;
+    private final Counter invalidations;
+
+    public PublishedFormCache(FormRepository formRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cache.published-forms.max-size:10000}") long maxSize,
+            @Value("${cache.published-forms.expire-after-write:PT30M}") Duration expireAfterWrite) {
+        this.formRepository = formRepository;
+        this.objectMapper = objectMapper;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build(this::load);
+        this.invalidations = Counter.builder("formforge.cache.published_forms.invalidations")
+                .description("Explicit invalidations caused by publish/archive/delete")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "published_forms");
+    }
+
+    /**
+     * Resolve the compiled published form for a slug.
+     *
+     * @throws ResourceNotFoundException if no published form exists
+     */
+    public CompiledForm get(String slug) {
+        CompiledForm form = cache.get(slug);
+        if (form == null) {
+            throw new ResourceNotFoundException("Form", "slug", slug);
+        }
+        return form;
+    }
+
+    /**
+     * Evict a slug now and again once the surrounding transaction commits.
+     */
+    public void invalidate(String slug) {
+        cache.invalidate(slug);
+        invalidations.increment();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(slug);
+                }
+            });
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Loader: returns null when no published form exists (not cached).
+     */
+    private CompiledForm load(String slug) {
+        return formRepository.findBySlugAndStatusWithFields(slug, FormStatus.PUBLISHED)
+                .map(this::compile)
+                .orElse(null);
+    }
+
+    private CompiledForm compile(Form form) {
+        List<CompiledForm.CompiledField> fields = new ArrayList<>();
+        Map<String, CompiledForm.CompiledField> index = new LinkedHashMap<>();
+        int required = 0;
+
+        for (FormField f : form.getFields()) {
+            if (f.getIsDeleted()) {
+                continue;
+            }
+            CompiledForm.CompiledField field = new CompiledForm.CompiledField(
+                    f.getId(),
+                    f.getFieldKey(),
+                    f.getFieldType(),
+                    f.getLabel(),
+                    Boolean.TRUE.equals(f.getIsRequired()),
+                    f.getDisplayOrder(),
+                    f.getValidationRules(),
+                    f.getFieldConfig(),
+                    fields.size(),
+                    FieldValidator.compile(
+                            f.getFieldKey(),
+                            f.getLabel(),
+                            f.getFieldType(),
+                            Boolean.TRUE.equals(f.getIsRequired()),
+                            f.getValidationRules(),
+                            f.getFieldConfig(),
+                            objectMapper));
+            fields.add(field);
+            index.put(field.fieldKey(), field);
+            if (field.required()) {
+                required++;
+            }
+        }
+
+        String schemaSnapshot = createSchemaSnapshot(fields);
+        log.debug("Compiled published form {} (v{}) with {} fields", form.getSlug(), form.getVersion(), fields.size());
+
+        return new CompiledForm(
+                form.getId(),
+                form.getFormGroupId(),
+                form.getSlug(),
+                form.getVersion(),
+                Collections.unmodifiableList(fields),
+                Collections.unmodifiableMap(index),
+                required,
+                schemaSnapshot,
+                SchemaSnapshotService.contentHash(schemaSnapshot));
+    }
+
+    /**
+     * SCHEMA SNAPSHOTTING:
+     * Serialized once per compiled form instead of once per submission.
+     * Key order is fixed so identical schemas produce identical JSON.
+     */
+    private String createSchemaSnapshot(List<CompiledForm.CompiledField> fields) {
+        try {
+            List<Map<String, Object>> snapshot = new ArrayList<>(fields.size());
+            for (CompiledForm.CompiledField f : fields) {
+                Map<String, Object> fieldSnapshot = new LinkedHashMap<>();
+                fieldSnapshot.put("fieldKey", f.fieldKey());
+                fieldSnapshot.put("fieldType", f.fieldType().name());
+                fieldSnapshot.put("label", f.label());
+                fieldSnapshot.put("isRequired", f.required());
+                fieldSnapshot.put("validationRules", f.validationRules());
+                fieldSnapshot.put("fieldConfig", f.fieldConfig());
+                snapshot.add(fieldSnapshot);
+            }
+            return objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to create schema snapshot", e);
+            return "[]";
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.formforge.columnar;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.query.FilterOperator;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * CHECKBOX values as a BitSet of true rows next to the null bitmap; every
+ * filter is a word-wise combination of the two. Groups: false = 0, true = 1.
+ */
+final class BooleanColumn extends Column {
+
+    private final BitSet trues = new BitSet();
+
+    BooleanColumn(String fieldKey, FieldType fieldType) {
+        super(fieldKey, fieldType);
+    }
+
+    @Override
+    void set(int row, TypedValue value) {
+        if (value.hasBoolean()) {
+            trues.set(row, value.bool());
+            present.set(row);
+        }
+    }
+
+    @Override
+    void grow(int capacity) {
+        // BitSets grow on demand
+    }
+
+    @Override
+    BitSet match(FilterOperator op, List<Object> operands, int rows) {
+        return switch (op) {
+            case EQ -> rows((Boolean) operands.get(0));
+            case NE -> rows(!(Boolean) operands.get(0));
+            case IN -> {
+                BitSet matched = new BitSet();
+                for (Object candidate : (List<?>) operands.get(0)) {
+                    matched.or(rows((Boolean) candidate));
+                }
+                yield matched;
+            }
+            default -> throw new IllegalArgumentException(op + " does not apply to " + fieldKey);
+        };
+    }
+
+    private BitSet rows(boolean value) {
+        if (value) {
+            return (BitSet) trues.clone();
+        }
+        BitSet falses = (BitSet) present.clone();
+        falses.andNot(trues);
+        return falses;
+    }
+
+    @Override
+    boolean isGroupable() {
+        return true;
+    }
+
+    @Override
+    int code(int row) {
+        if (!present.get(row)) {
+            return -1;
+        }
+        return trues.get(row) ? 1 : 0;
+    }
+
+    @Override
+    int cardinality() {
+        return 2;
+    }
+
+    @Override
+    String label(int code) {
+        return code == 1 ? "true" : "false";
+    }
+
+    @Override
+    long sizeInBytes() {
+        return bitmapBytes(trues) + bitmapBytes(present);
+    }
+}
@@ -0,0 +1,97 @@
+package com.formforge.columnar;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.query.FilterOperator;
+import com.formforge.query.ValueColumn;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * One field of a ColumnarTable: a primitive array indexed by row plus a
+ * null bitmap ({@code present}: set where the row has a value).
+ *
+ * - NUMBER: double[]; DATE: epoch seconds (UTC) in long[]; CHECKBOX: BitSet;
+ * text kinds: dictionary codes in int[]
+ * - Filters are evaluated a whole column at a time into a BitSet of
+ * matching rows; rows without a value never match, as in SQL
+ * - Not thread-safe; ColumnarTable guards every access
+ */
+abstract class Column {
+
+    protected final String fieldKey;
+    protected final FieldType fieldType;
+    protected final BitSet present = new BitSet();
+
+    protected Column(String fieldKey, FieldType fieldType) {
+        this.fieldKey = fieldKey;
+        this.fieldType = fieldType;
+    }
+
+    static Column create(String fieldKey, FieldType fieldType, int capacity) {
+        return switch (ValueColumn.of(fieldType)) {
+            case NUMBER -> new NumberColumn(fieldKey, fieldType, capacity);
+            case DATE, SUBMITTED_AT -> new DateColumn(fieldKey, fieldType, capacity);
+            case BOOLEAN -> new BooleanColumn(fieldKey, fieldType);
+            case TEXT -> new DictionaryColumn(fieldKey, fieldType, capacity);
+        };
+    }
+
+    /**
+     * Store a row's value. A value of another type (e.g. unparseable text in
+     * a NUMBER field) leaves the row null, like the typed columns.
+     */
+    abstract void set(int row, TypedValue value);
+
+    abstract void grow(int capacity);
+
+    /**
+     * @param operands parsed by ResponseQueryPlanner.operands
+     * @return matching rows among the first {@code rows}
+     */
+    abstract BitSet match(FilterOperator op, List<Object> operands, int rows);
+
+    /**
+     * Approximate heap held by this column.
+     */
+    abstract long sizeInBytes();
+
+    boolean isPresent(int row) {
+        return present.get(row);
+    }
+
+    BitSet present() {
+        return present;
+    }
+
+    /**
+     * Whether rows can be grouped by this column (dense codes, see {@link #code(int)}).
+     */
+    boolean isGroupable() {
+        return false;
+    }
+
+    /**
+     * @return group code of a row in [0, cardinality), -1 when null
+     */
+    int code(int row) {
+        throw new UnsupportedOperationException(fieldKey + " cannot be grouped");
+    }
+
+    int cardinality() {
+        throw new UnsupportedOperationException(fieldKey + " cannot be grouped");
+    }
+
+    String label(int code) {
+        throw new UnsupportedOperationException(fieldKey + " cannot be grouped");
+    }
+
+    protected static long[] words(int rows) {
+        return new long[(rows + 63) >>> 6];
+    }
+
+    protected static long bitmapBytes(BitSet bits) {
+        return bits.size() / 8;
+    }
+}
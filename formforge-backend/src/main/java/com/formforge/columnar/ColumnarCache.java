@@ -0,0 +1,230 @@
+package com.formforge.columnar;
+
+import com.formforge.columnar.ColumnarTable.Row;
+import com.formforge.dto.response.ColumnarQueryResponse;
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.exception.ValidationException;
+import com.formforge.ingest.PreparedSubmission;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.ColumnRow;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.util.TransactionCallbacks;
+import com.formforge.util.TypedValueMapper;
+import com.formforge.util.TypedValueMapper.TypedValue;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opt-in in-memory columnar copy of large forms' responses for ad-hoc
+ * filter / group-by / aggregate queries (ColumnarQuery) without EAV joins.
+ *
+ * LOAD: on a form's first query, its responses are read in id order
+ * (form_responses payloads, no field_values) into a ColumnarTable.
+ * Columns are presized from the form's response count; a form that would
+ * not fit in {@code cache.columnar.max-bytes} is refused up front.
+ *
+ * LIVE: ResponseWriter reports new submissions and deletions; after commit
+ * they are appended to (or masked in) tables already cached. Appends do
+ * not read the database.
+ *
+ * MEMORY: tables are weighed by their column arrays and dictionaries.
+ * Caffeine evicts the least valuable tables (recency and frequency) once
+ * the total exceeds {@code max-bytes}, and any table idle for
+ * {@code idle-timeout}.
+ *
+ * DRIFT: writes this instance never sees (other nodes) show up as a row
+ * count different from form_stats; such a table is reloaded on the next
+ * query once it is older than {@code reload-after}.
+ */
+@Slf4j
+@Component
+public class ColumnarCache {
+
+    @Value("${cache.columnar.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cache.columnar.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    @Value("${cache.columnar.reload-after:10m}")
+    private Duration reloadAfter;
+
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final ResponsePayloadCodec payloadCodec;
+    private final long maxBytes;
+    private final Cache<Long, ColumnarTable> cache;
+
+    public ColumnarCache(FormResponseJdbcRepository jdbcRepository,
+            ResponsePayloadCodec payloadCodec,
+            MeterRegistry meterRegistry,
+            @Value("${cache.columnar.max-bytes:268435456}") long maxBytes,
+            @Value("${cache.columnar.idle-timeout:30m}") Duration idleTimeout) {
+        this.jdbcRepository = jdbcRepository;
+        this.payloadCodec = payloadCodec;
+        this.maxBytes = maxBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Long formId, ColumnarTable table) -> (int) Math.min(table.sizeInBytes(), Integer.MAX_VALUE))
+                .expireAfterAccess(idleTimeout)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "columnar_tables");
+        Gauge.builder("formforge.cache.columnar_tables.bytes", cache,
+                c -> c.policy().eviction().map(e -> e.weightedSize().orElse(0)).orElse(0L))
+                .description("Estimated heap held by the columnar analytics cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run a query against the form's cached columns, loading them first if needed.
+     *
+     * @param fields        the form's current fields
+     * @param responseCount the form's maintained response count (completeness check)
+     * @throws ValidationException if the cache is disabled or the form does not fit
+     */
+    public ColumnarQueryResponse query(Long formId, List<FormField> fields, ColumnarQuery query,
+            long responseCount) {
+        if (!enabled) {
+            throw new ValidationException("Columnar analytics are disabled (cache.columnar.enabled)");
+        }
+        ColumnarTable table = table(formId, fields, responseCount);
+        ColumnarQuery.Result result = table.read(query::execute);
+        if (result.rows() != responseCount
+                && table.loadedBefore(System.currentTimeMillis() - reloadAfter.toMillis())) {
+            log.info("Reloading columns of form {}: {} cached rows, {} responses", formId, result.rows(),
+                    responseCount);
+            cache.asMap().remove(formId, table);
+            table = table(formId, fields, responseCount);
+            result = table.read(query::execute);
+        }
+        return ColumnarQueryResponse.from(formId, query, result, result.rows() == responseCount);
+    }
+
+    private ColumnarTable table(Long formId, List<FormField> fields, long responseCount) {
+        ColumnarTable table = cache.get(formId, id -> new ColumnarTable(id, fields, responseCount));
+        if (!table.hasFields(fields)) {
+            cache.asMap().remove(formId, table);
+            table = cache.get(formId, id -> new ColumnarTable(id, fields, responseCount));
+        }
+        try {
+            if (table.ensureLoaded(this::load)) {
+                // Weighed empty when inserted; weigh again now that it is full
+                cache.asMap().replace(formId, table, table);
+            }
+        } catch (RuntimeException e) {
+            cache.asMap().remove(formId, table);
+            throw e;
+        }
+        return table;
+    }
+
+    private void load(ColumnarTable table) {
+        long started = System.currentTimeMillis();
+        checkSize(table);
+        long lastId = 0;
+        List<ColumnRow> batch;
+        do {
+            batch = jdbcRepository.findForColumns(table.formId(), lastId, loadBatchSize);
+            List<Row> rows = new ArrayList<>(batch.size());
+            for (ColumnRow row : batch) {
+                rows.add(new Row(row.id(), row.submittedAt(), decode(table, row)));
+                lastId = row.id();
+            }
+            table.appendLoaded(rows);
+            checkSize(table);
+        } while (batch.size() == loadBatchSize);
+        log.info("Loaded columns of form {}: {} rows, {} KB in {} ms", table.formId(), table.rows(),
+                table.sizeInBytes() / 1024, System.currentTimeMillis() - started);
+    }
+
+    private void checkSize(ColumnarTable table) {
+        if (table.sizeInBytes() > maxBytes) {
+            throw new ValidationException("Form " + table.formId()
+                    + " has too many responses for the columnar cache (cache.columnar.max-bytes)");
+        }
+    }
+
+    private Map<String, TypedValue> decode(ColumnarTable table, ColumnRow row) {
+        Map<String, TypedValue> values = new HashMap<>();
+        try {
+            payloadCodec.forEachValue(row.payload(), (key, value) -> {
+                FieldType fieldType = table.fieldType(key);
+                if (fieldType == null || value == null) {
+                    return;
+                }
+                TypedValue typed = TypedValueMapper.mapValue(fieldType, value);
+                if (typed != null) {
+                    values.put(key, typed);
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Caching response {} without field values: unreadable payload", row.id());
+        }
+        return values;
+    }
+
+    /**
+     * Append submissions to the form's table, if cached, once the current
+     * transaction commits.
+     *
+     * @param byResponseId form_responses.id -> submission
+     */
+    public void append(Long formId, Map<Long, PreparedSubmission> byResponseId) {
+        if (!enabled || byResponseId.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                cache.asMap().computeIfPresent(formId, (id, table) -> {
+                    List<Row> rows = new ArrayList<>(byResponseId.size());
+                    byResponseId.forEach((responseId, submission) -> {
+                        Map<String, TypedValue> values = new HashMap<>();
+                        for (PreparedSubmission.Value value : submission.values()) {
+                            String key = table.fieldKey(value.fieldId());
+                            if (key != null && value.typed() != null) {
+                                values.put(key, value.typed());
+                            }
+                        }
+                        rows.add(new Row(responseId, submission.submittedAt(), values));
+                    });
+                    table.append(rows);
+                    return table;
+                });
+            } catch (RuntimeException e) {
+                // The responses are committed; drop the table rather than serve it short
+                log.warn("Could not append {} responses to the columns of form {}: {}", byResponseId.size(),
+                        formId, e.getMessage());
+                cache.invalidate(formId);
+            }
+        });
+    }
+
+    /**
+     * Mask a deleted response in the form's table, if cached, once the
+     * current transaction commits.
+     */
+    public void remove(Long formId, Long responseId) {
+        if (!enabled) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> cache.asMap().computeIfPresent(formId, (id, table) -> {
+            table.delete(responseId);
+            return table;
+        }));
+    }
+}
@@ -0,0 +1,345 @@
+package com.formforge.columnar;
+
+import com.formforge.dto.request.ColumnarQueryRequest;
+import com.formforge.dto.request.ColumnarQueryRequest.AggregateFunction;
+import com.formforge.dto.request.ResponseSearchRequest;
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.exception.ValidationException;
+import com.formforge.query.FilterOperator;
+import com.formforge.query.ResponseQueryPlanner;
+import com.formforge.query.ValueColumn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A filter / group-by / aggregate query over a ColumnarTable.
+ *
+ * COMPILE (before any data is touched): keys are the form's field keys or
+ * "submittedAt"; filter values are parsed like the SQL search
+ * (ResponseQueryPlanner.operands), so a bad query is a 400 either way.
+ *
+ * EXECUTE, a column at a time:
+ * - Each filter scans its column into a bitmap; bitmaps are ANDed word-wise
+ * - Group-by columns (text / choice / checkbox) map each selected row to a
+ * dense group index: an array lookup over the combined codes when the key
+ * space is small, a hash map otherwise
+ * - Each aggregate is one pass over its column for the selected rows
+ */
+public final class ColumnarQuery {
+
+    public static final int DEFAULT_LIMIT = 100;
+
+    /** Combined group keys below this are resolved with an array, not a map */
+    private static final long DENSE_KEY_SPACE = 1 << 20;
+
+    private final List<Filter> filters;
+    private final List<String> groupBy;
+    private final List<Aggregate> aggregates;
+    private final int limit;
+
+    private ColumnarQuery(List<Filter> filters, List<String> groupBy, List<Aggregate> aggregates, int limit) {
+        this.filters = filters;
+        this.groupBy = groupBy;
+        this.aggregates = aggregates;
+        this.limit = limit;
+    }
+
+    /**
+     * @throws ValidationException on unknown fields or inapplicable operators / functions
+     */
+    public static ColumnarQuery compile(ColumnarQueryRequest request, List<FormField> formFields) {
+        Map<String, FieldType> types = new HashMap<>();
+        for (FormField field : formFields) {
+            types.put(field.getFieldKey(), field.getFieldType());
+        }
+
+        List<Filter> filters = new ArrayList<>();
+        if (request.getFilters() != null) {
+            for (ResponseSearchRequest.Filter filter : request.getFilters()) {
+                ValueColumn column = ResponseQueryPlanner.SUBMITTED_AT.equals(filter.getField())
+                        ? ValueColumn.SUBMITTED_AT
+                        : ValueColumn.of(resolve(types, filter.getField()));
+                filters.add(new Filter(filter.getField(), filter.getOp(),
+                        ResponseQueryPlanner.operands(filter, column)));
+            }
+        }
+
+        List<String> groupBy = request.getGroupBy() != null ? request.getGroupBy() : List.of();
+        for (String key : groupBy) {
+            ValueColumn column = ResponseQueryPlanner.SUBMITTED_AT.equals(key)
+                    ? ValueColumn.SUBMITTED_AT
+                    : ValueColumn.of(resolve(types, key));
+            if (column != ValueColumn.TEXT && column != ValueColumn.BOOLEAN) {
+                throw new ValidationException("Only text, choice and checkbox fields can be grouped: " + key);
+            }
+        }
+        if (groupBy.stream().distinct().count() < groupBy.size()) {
+            throw new ValidationException("groupBy fields must be distinct");
+        }
+
+        List<Aggregate> aggregates = new ArrayList<>();
+        if (request.getAggregates() != null) {
+            for (ColumnarQueryRequest.Aggregate aggregate : request.getAggregates()) {
+                aggregates.add(aggregate(aggregate, types));
+            }
+        }
+
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_LIMIT;
+        return new ColumnarQuery(filters, groupBy, aggregates, limit);
+    }
+
+    private static Aggregate aggregate(ColumnarQueryRequest.Aggregate requested, Map<String, FieldType> types) {
+        AggregateFunction function = requested.getFunction();
+        String key = requested.getField();
+        if (key == null || key.isEmpty()) {
+            if (function != AggregateFunction.COUNT) {
+                throw new ValidationException(function + " needs a field");
+            }
+            return new Aggregate(function, null);
+        }
+        if (!ResponseQueryPlanner.SUBMITTED_AT.equals(key)) {
+            FieldType type = resolve(types, key);
+            if (function != AggregateFunction.COUNT && type != FieldType.NUMBER) {
+                throw new ValidationException(function + " applies to number fields only: " + key);
+            }
+        } else if (function != AggregateFunction.COUNT) {
+            throw new ValidationException(function + " applies to number fields only: " + key);
+        }
+        return new Aggregate(function, key);
+    }
+
+    private static FieldType resolve(Map<String, FieldType> types, String key) {
+        FieldType type = types.get(key);
+        if (type == null) {
+            throw new ValidationException("Unknown field: " + key);
+        }
+        return type;
+    }
+
+    public List<String> groupBy() {
+        return groupBy;
+    }
+
+    /**
+     * Column labels of the aggregates, e.g. "avg(age)".
+     */
+    public List<String> labels() {
+        return aggregates.stream().map(Aggregate::label).toList();
+    }
+
+    /**
+     * Run against a table; call through ColumnarTable.read.
+     */
+    Result execute(ColumnarTable table) {
+        int rows = table.rows();
+        BitSet selected = table.live();
+        int live = selected.cardinality();
+        for (Filter filter : filters) {
+            if (selected.isEmpty()) {
+                break;
+            }
+            Column column = table.column(filter.key());
+            selected.and(column != null ? column.match(filter.op(), filter.operands(), rows) : new BitSet());
+        }
+        int matched = selected.cardinality();
+
+        Column[] keys = groupBy.stream().map(table::column).toArray(Column[]::new);
+        Grouping grouping = group(keys, selected, rows);
+        int groups = grouping.groupCount();
+
+        long[] counts = new long[groups];
+        int[] groupOf = grouping.groupOf();
+        for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+            counts[groupOf[row]]++;
+        }
+        List<Double[]> values = new ArrayList<>(aggregates.size());
+        for (Aggregate aggregate : aggregates) {
+            values.add(aggregate(aggregate, table, selected, groupOf, groups));
+        }
+
+        // Largest groups first; only the returned ones are materialized
+        List<Integer> order = new ArrayList<>(groups);
+        for (int group = 0; group < groups; group++) {
+            order.add(group);
+        }
+        order.sort(Comparator.comparingLong((Integer group) -> counts[group]).reversed());
+
+        List<Group> top = new ArrayList<>(Math.min(limit, groups));
+        for (int group : order.subList(0, Math.min(limit, groups))) {
+            List<Double> aggregated = new ArrayList<>(aggregates.size());
+            for (Double[] column : values) {
+                aggregated.add(column[group]);
+            }
+            top.add(new Group(grouping.labels(group, keys), counts[group], aggregated));
+        }
+        return new Result(live, matched, groups, top);
+    }
+
+    /**
+     * Dense group index per selected row; a single group without groupBy.
+     */
+    private static Grouping group(Column[] keys, BitSet selected, int rows) {
+        int[] groupOf = new int[rows];
+        List<Long> groupKeys = new ArrayList<>();
+        long[] radix = new long[keys.length];
+        long space = 1;
+        for (int i = 0; i < keys.length; i++) {
+            radix[i] = keys[i] != null ? keys[i].cardinality() + 1L : 1;
+            space *= radix[i];
+        }
+        if (keys.length == 0) {
+            return new Grouping(groupOf, List.of(0L), radix);
+        }
+
+        if (space <= DENSE_KEY_SPACE) {
+            int[] slots = new int[(int) space];
+            Arrays.fill(slots, -1);
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                int key = (int) combinedKey(keys, radix, row);
+                if (slots[key] < 0) {
+                    slots[key] = groupKeys.size();
+                    groupKeys.add((long) key);
+                }
+                groupOf[row] = slots[key];
+            }
+        } else {
+            Map<Long, Integer> slots = new HashMap<>();
+            for (int row = selected.nextSetBit(0); row >= 0; row = selected.nextSetBit(row + 1)) {
+                long key = combinedKey(keys, radix, row);
+                Integer slot = slots.get(key);
+                if (slot == null) {
+                    slot = groupKeys.size();
+                    slots.put(key, slot);
+                    groupKeys.add(key);
+                }
+                groupOf[row] = slot;
+            }
+        }
+        return new Grouping(groupOf, groupKeys, radix);
+    }
+
+    /**
+     * Mixed-radix key of a row's group codes, each shifted by one so null is 0.
+     */
+    private static long combinedKey(Column[] keys, long[] radix, int row) {
+        long key = 0;
+        for (int i = 0; i < keys.length; i++) {
+            key = key * radix[i] + (keys[i] != null ? keys[i].code(row) + 1 : 0);
+        }
+        return key;
+    }
+
+    private static Double[] aggregate(Aggregate aggregate, ColumnarTable table, BitSet selected, int[] groupOf,
+            int groups) {
+        Double[] result = new Double[groups];
+        Column column = aggregate.key() != null ? table.column(aggregate.key()) : null;
+        if (aggregate.function() == AggregateFunction.COUNT) {
+            long[] counts = new long[groups];
+            BitSet rows = selected;
+            if (aggregate.key() != null) {
+                rows = (BitSet) selected.clone();
+                rows.and(column != null ? column.present() : new BitSet());
+            }
+            for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+                counts[groupOf[row]]++;
+            }
+            for (int group = 0; group < groups; group++) {
+                result[group] = (double) counts[group];
+            }
+            return result;
+        }
+
+        if (!(column instanceof NumberColumn numbers)) {
+            return result;
+        }
+        BitSet rows = (BitSet) selected.clone();
+        rows.and(numbers.present());
+        long[] counts = new long[groups];
+        double[] sums = new double[groups];
+        double[] mins = new double[groups];
+        double[] maxes = new double[groups];
+        Arrays.fill(mins, Double.POSITIVE_INFINITY);
+        Arrays.fill(maxes, Double.NEGATIVE_INFINITY);
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+            int group = groupOf[row];
+            double value = numbers.value(row);
+            counts[group]++;
+            sums[group] += value;
+            mins[group] = Math.min(mins[group], value);
+            maxes[group] = Math.max(maxes[group], value);
+        }
+        for (int group = 0; group < groups; group++) {
+            if (counts[group] == 0) {
+                continue;
+            }
+            result[group] = switch (aggregate.function()) {
+                case SUM -> sums[group];
+                case AVG -> sums[group] / counts[group];
+                case MIN -> mins[group];
+                case MAX -> maxes[group];
+                case COUNT -> (double) counts[group];
+            };
+        }
+        return result;
+    }
+
+    private record Filter(String key, FilterOperator op, List<Object> operands) {
+    }
+
+    /**
+     * @param key null for COUNT of rows
+     */
+    private record Aggregate(AggregateFunction function, String key) {
+
+        private String label() {
+            String name = function.name().toLowerCase(Locale.ROOT);
+            return key != null ? name + "(" + key + ")" : name;
+        }
+    }
+
+    /**
+     * @param groupOf   group index of every selected row
+     * @param groupKeys combined key of every group, in index order
+     */
+    private record Grouping(int[] groupOf, List<Long> groupKeys, long[] radix) {
+
+        private int groupCount() {
+            return groupKeys.size();
+        }
+
+        private List<String> labels(int group, Column[] keys) {
+            String[] labels = new String[keys.length];
+            long key = groupKeys.get(group);
+            for (int i = keys.length - 1; i >= 0; i--) {
+                int code = (int) (key % radix[i]) - 1;
+                key /= radix[i];
+                labels[i] = code >= 0 ? keys[i].label(code) : null;
+            }
+            return Arrays.asList(labels);
+        }
+    }
+
+    /**
+     * @param rows    live rows scanned
+     * @param matched rows passing every filter
+     * @param groups  groups before {@code limit}
+     * @param top     largest groups first, at most {@code limit}
+     */
+    public record Result(int rows, int matched, int groups, List<Group> top) {
+    }
+
+    /**
+     * @param key    group-by values in groupBy order (null = no value)
+     * @param values aggregate values in request order (null = no values)
+     */
+    public record Group(List<String> key, long count, List<Double> values) {
+    }
+}
@@ -0,0 +1,279 @@
+package com.formforge.columnar;
+
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.query.ResponseQueryPlanner;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * One form's responses held column-wise: response ids and submittedAt, then
+ * one Column per field of the form. Rows are append-only; deleted responses
+ * are masked out.
+ *
+ * LOAD vs LIVE APPENDS:
+ * - The loader appends rows in id order and records the last id it read
+ * - Appends reported while loading are held back, then applied when the
+ * load finishes
+ * - An append at or below the loaded id is applied only if the loader did
+ * not read it (binary search of the loaded, sorted ids): ids commit out of
+ * order, so the loader can pass over one that commits later
+ *
+ * Scans hold the read lock, appends and deletes the write lock.
+ */
+final class ColumnarTable {
+
+    private static final int MIN_CAPACITY = 64;
+
+    private final Long formId;
+    private final List<Long> fieldIds;
+    private final Map<Long, String> keyById = new HashMap<>();
+    private final Map<String, Column> columns = new LinkedHashMap<>();
+    private final DateColumn submittedAt;
+    private final BitSet deleted = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] ids;
+    private int rows;
+    private int capacity;
+    private volatile long sizeInBytes;
+
+    private final Object loadLock = new Object();
+    private volatile boolean loaded;
+    private RuntimeException loadFailure;
+    private long loadedThroughId;
+    private int loadedRows;
+    private long loadedAt;
+    private final List<Row> pendingRows = new ArrayList<>();
+    private final List<Long> pendingDeletes = new ArrayList<>();
+
+    ColumnarTable(Long formId, List<FormField> fields, long expectedRows) {
+        this.formId = formId;
+        this.fieldIds = fields.stream().map(FormField::getId).toList();
+        this.capacity = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_CAPACITY, expectedRows + expectedRows / 8));
+        this.ids = new long[capacity];
+        this.submittedAt = new DateColumn(ResponseQueryPlanner.SUBMITTED_AT, FieldType.DATE, capacity);
+        for (FormField field : fields) {
+            keyById.put(field.getId(), field.getFieldKey());
+            columns.put(field.getFieldKey(), Column.create(field.getFieldKey(), field.getFieldType(), capacity));
+        }
+        updateSize();
+    }
+
+    Long formId() {
+        return formId;
+    }
+
+    /**
+     * Whether the table was built for exactly these fields.
+     */
+    boolean hasFields(List<FormField> fields) {
+        return fieldIds.equals(fields.stream().map(FormField::getId).toList());
+    }
+
+    String fieldKey(Long fieldId) {
+        return keyById.get(fieldId);
+    }
+
+    /**
+     * @return the field's type, or null if the form has no such field
+     */
+    FieldType fieldType(String fieldKey) {
+        Column column = columns.get(fieldKey);
+        return column != null ? column.fieldType : null;
+    }
+
+    /**
+     * @return submittedAt or a field's column, null if unknown
+     */
+    Column column(String key) {
+        return ResponseQueryPlanner.SUBMITTED_AT.equals(key) ? submittedAt : columns.get(key);
+    }
+
+    long sizeInBytes() {
+        return sizeInBytes;
+    }
+
+    /**
+     * Fill the table once; concurrent callers wait for the first load.
+     *
+     * @return true if this call loaded it
+     * @throws RuntimeException the loader's failure, to every caller
+     */
+    boolean ensureLoaded(Consumer<ColumnarTable> loader) {
+        if (loaded) {
+            return false;
+        }
+        synchronized (loadLock) {
+            if (loadFailure != null) {
+                throw loadFailure;
+            }
+            if (loaded) {
+                return false;
+            }
+            try {
+                loader.accept(this);
+            } catch (RuntimeException e) {
+                loadFailure = e;
+                throw e;
+            }
+            finishLoad();
+            return true;
+        }
+    }
+
+    boolean loadedBefore(long epochMillis) {
+        return loaded && loadedAt < epochMillis;
+    }
+
+    /**
+     * Loader input: rows in id order.
+     */
+    void appendLoaded(List<Row> batch) {
+        lock.writeLock().lock();
+        try {
+            for (Row row : batch) {
+                add(row);
+                loadedThroughId = row.id();
+            }
+            updateSize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void finishLoad() {
+        lock.writeLock().lock();
+        try {
+            loadedRows = rows;
+            loaded = true;
+            loadedAt = System.currentTimeMillis();
+            appendLive(pendingRows);
+            pendingRows.clear();
+            pendingDeletes.forEach(this::markDeleted);
+            pendingDeletes.clear();
+            updateSize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Newly committed responses, in any order.
+     */
+    void append(List<Row> batch) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                pendingRows.addAll(batch);
+                return;
+            }
+            appendLive(batch);
+            updateSize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void appendLive(List<Row> batch) {
+        for (Row row : batch) {
+            if (row.id() > loadedThroughId || Arrays.binarySearch(ids, 0, loadedRows, row.id()) < 0) {
+                add(row);
+            }
+        }
+    }
+
+    void delete(long responseId) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                pendingDeletes.add(responseId);
+                return;
+            }
+            markDeleted(responseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markDeleted(long responseId) {
+        for (int row = rows - 1; row >= 0; row--) {
+            if (ids[row] == responseId) {
+                deleted.set(row);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Run a scan under the read lock.
+     */
+    <T> T read(Function<ColumnarTable, T> scan) {
+        lock.readLock().lock();
+        try {
+            return scan.apply(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    /**
+     * Rows not deleted; call under {@link #read(Function)}.
+     */
+    BitSet live() {
+        BitSet live = new BitSet(rows);
+        live.set(0, rows);
+        live.andNot(deleted);
+        return live;
+    }
+
+    private void add(Row row) {
+        if (rows == capacity) {
+            capacity = (int) Math.min(Integer.MAX_VALUE - 8, (long) capacity + (capacity >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            submittedAt.grow(capacity);
+            columns.values().forEach(column -> column.grow(capacity));
+        }
+        int index = rows++;
+        ids[index] = row.id();
+        if (row.submittedAt() != null) {
+            submittedAt.set(index, row.submittedAt());
+        }
+        row.values().forEach((key, value) -> {
+            Column column = columns.get(key);
+            if (column != null) {
+                column.set(index, value);
+            }
+        });
+    }
+
+    private void updateSize() {
+        long size = 8L * ids.length + submittedAt.sizeInBytes() + Column.bitmapBytes(deleted);
+        for (Column column : columns.values()) {
+            size += column.sizeInBytes();
+        }
+        sizeInBytes = size;
+    }
+
+    /**
+     * @param values typed values by field key
+     */
+    record Row(long id, LocalDateTime submittedAt, Map<String, TypedValue> values) {
+    }
+}
@@ -0,0 +1,101 @@
+package com.formforge.columnar;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.query.FilterOperator;
+import com.formforge.query.ValueColumn;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * DATE values (and submittedAt) as epoch seconds in long[], read as UTC
+ * like ValueColumn.ordinal. Whole seconds match the DATETIME columns.
+ */
+final class DateColumn extends Column {
+
+    private long[] values;
+
+    DateColumn(String fieldKey, FieldType fieldType, int capacity) {
+        super(fieldKey, fieldType);
+        this.values = new long[capacity];
+    }
+
+    @Override
+    void set(int row, TypedValue value) {
+        if (value.hasDate()) {
+            set(row, value.date());
+        }
+    }
+
+    void set(int row, LocalDateTime date) {
+        values[row] = date.toEpochSecond(ZoneOffset.UTC);
+        present.set(row);
+    }
+
+    @Override
+    void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    BitSet match(FilterOperator op, List<Object> operands, int rows) {
+        return switch (op) {
+            case EQ -> between(rows, seconds(operands, 0), seconds(operands, 0));
+            case NE -> {
+                BitSet matched = (BitSet) present.clone();
+                matched.andNot(between(rows, seconds(operands, 0), seconds(operands, 0)));
+                yield matched;
+            }
+            case GT -> between(rows, seconds(operands, 0) + 1, Long.MAX_VALUE);
+            case GTE -> between(rows, seconds(operands, 0), Long.MAX_VALUE);
+            case LT -> between(rows, Long.MIN_VALUE, seconds(operands, 0) - 1);
+            case LTE -> between(rows, Long.MIN_VALUE, seconds(operands, 0));
+            case BETWEEN -> between(rows, seconds(operands, 0), seconds(operands, 1));
+            case IN -> in(rows, ((List<?>) operands.get(0)).stream()
+                    .mapToLong(v -> (long) ValueColumn.ordinal(v))
+                    .sorted()
+                    .toArray());
+            case CONTAINS, STARTS_WITH -> throw new IllegalArgumentException(op + " does not apply to " + fieldKey);
+        };
+    }
+
+    private BitSet between(int rows, long low, long high) {
+        long[] values = this.values;
+        long[] words = words(rows);
+        for (int row = 0; row < rows; row++) {
+            long value = values[row];
+            if (value >= low && value <= high) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        BitSet matched = BitSet.valueOf(words);
+        matched.and(present);
+        return matched;
+    }
+
+    private BitSet in(int rows, long[] candidates) {
+        long[] values = this.values;
+        long[] words = words(rows);
+        for (int row = 0; row < rows; row++) {
+            if (Arrays.binarySearch(candidates, values[row]) >= 0) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        BitSet matched = BitSet.valueOf(words);
+        matched.and(present);
+        return matched;
+    }
+
+    private static long seconds(List<Object> operands, int index) {
+        return (long) ValueColumn.ordinal(operands.get(index));
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 8L * values.length + bitmapBytes(present);
+    }
+}
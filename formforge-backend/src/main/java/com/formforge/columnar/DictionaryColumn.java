@@ -0,0 +1,137 @@
+package com.formforge.columnar;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.query.FilterOperator;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Text values (TEXT, EMAIL, TEXTAREA, DROPDOWN, RADIO) dictionary-encoded:
+ * each distinct value is stored once and rows hold its int code (-1 = null).
+ *
+ * A filter is evaluated once per dictionary entry, then rows are matched by
+ * code, so choice fields cost one int comparison per row whatever the
+ * operator. Comparisons ignore case, like the default MySQL collation the
+ * SQL search runs under.
+ */
+final class DictionaryColumn extends Column {
+
+    /** String header, array and map / list entry overhead per dictionary value */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private int[] codes;
+    private final List<String> dictionary = new ArrayList<>();
+    private final Map<String, Integer> codeOf = new HashMap<>();
+    private long dictionaryBytes;
+
+    DictionaryColumn(String fieldKey, FieldType fieldType, int capacity) {
+        super(fieldKey, fieldType);
+        this.codes = new int[capacity];
+        Arrays.fill(codes, -1);
+    }
+
+    @Override
+    void set(int row, TypedValue value) {
+        if (!value.hasText()) {
+            return;
+        }
+        Integer code = codeOf.get(value.text());
+        if (code == null) {
+            code = dictionary.size();
+            dictionary.add(value.text());
+            codeOf.put(value.text(), code);
+            dictionaryBytes += ENTRY_OVERHEAD + 2L * value.text().length();
+        }
+        codes[row] = code;
+        present.set(row);
+    }
+
+    @Override
+    void grow(int capacity) {
+        int previous = codes.length;
+        codes = Arrays.copyOf(codes, capacity);
+        Arrays.fill(codes, previous, capacity, -1);
+    }
+
+    @Override
+    BitSet match(FilterOperator op, List<Object> operands, int rows) {
+        Predicate<String> predicate = predicate(op, operands);
+        boolean[] accepted = new boolean[dictionary.size()];
+        boolean any = false;
+        for (int code = 0; code < accepted.length; code++) {
+            accepted[code] = predicate.test(dictionary.get(code));
+            any |= accepted[code];
+        }
+        if (!any) {
+            return new BitSet();
+        }
+
+        int[] codes = this.codes;
+        long[] words = words(rows);
+        for (int row = 0; row < rows; row++) {
+            int code = codes[row];
+            if (code >= 0 && accepted[code]) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        return BitSet.valueOf(words);
+    }
+
+    private Predicate<String> predicate(FilterOperator op, List<Object> operands) {
+        return switch (op) {
+            case EQ -> value -> value.equalsIgnoreCase((String) operands.get(0));
+            case NE -> value -> !value.equalsIgnoreCase((String) operands.get(0));
+            case IN -> {
+                Set<String> candidates = new HashSet<>();
+                for (Object candidate : (List<?>) operands.get(0)) {
+                    candidates.add(((String) candidate).toLowerCase(Locale.ROOT));
+                }
+                yield value -> candidates.contains(value.toLowerCase(Locale.ROOT));
+            }
+            case CONTAINS -> {
+                String needle = ((String) operands.get(0)).toLowerCase(Locale.ROOT);
+                yield value -> value.toLowerCase(Locale.ROOT).contains(needle);
+            }
+            case STARTS_WITH -> {
+                String prefix = (String) operands.get(0);
+                yield value -> value.regionMatches(true, 0, prefix, 0, prefix.length());
+            }
+            default -> throw new IllegalArgumentException(op + " does not apply to " + fieldKey);
+        };
+    }
+
+    @Override
+    boolean isGroupable() {
+        return true;
+    }
+
+    @Override
+    int code(int row) {
+        return codes[row];
+    }
+
+    @Override
+    int cardinality() {
+        return dictionary.size();
+    }
+
+    @Override
+    String label(int code) {
+        return dictionary.get(code);
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 4L * codes.length + bitmapBytes(present) + dictionaryBytes;
+    }
+}
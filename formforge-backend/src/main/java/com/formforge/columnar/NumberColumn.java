@@ -0,0 +1,98 @@
+package com.formforge.columnar;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.query.FilterOperator;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * NUMBER values as double[]; every comparison is a range [low, high] or a
+ * sorted IN list, scanned in one branch-light loop.
+ */
+final class NumberColumn extends Column {
+
+    private double[] values;
+
+    NumberColumn(String fieldKey, FieldType fieldType, int capacity) {
+        super(fieldKey, fieldType);
+        this.values = new double[capacity];
+    }
+
+    @Override
+    void set(int row, TypedValue value) {
+        if (value.hasNumber()) {
+            values[row] = value.number();
+            present.set(row);
+        }
+    }
+
+    double value(int row) {
+        return values[row];
+    }
+
+    @Override
+    void grow(int capacity) {
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    BitSet match(FilterOperator op, List<Object> operands, int rows) {
+        return switch (op) {
+            case EQ -> between(rows, number(operands, 0), number(operands, 0));
+            case NE -> {
+                BitSet matched = (BitSet) present.clone();
+                matched.andNot(between(rows, number(operands, 0), number(operands, 0)));
+                yield matched;
+            }
+            case GT -> between(rows, Math.nextUp(number(operands, 0)), Double.POSITIVE_INFINITY);
+            case GTE -> between(rows, number(operands, 0), Double.POSITIVE_INFINITY);
+            case LT -> between(rows, Double.NEGATIVE_INFINITY, Math.nextDown(number(operands, 0)));
+            case LTE -> between(rows, Double.NEGATIVE_INFINITY, number(operands, 0));
+            case BETWEEN -> between(rows, number(operands, 0), number(operands, 1));
+            case IN -> in(rows, ((List<?>) operands.get(0)).stream()
+                    .mapToDouble(v -> ((Number) v).doubleValue())
+                    .sorted()
+                    .toArray());
+            case CONTAINS, STARTS_WITH -> throw new IllegalArgumentException(op + " does not apply to " + fieldKey);
+        };
+    }
+
+    private BitSet between(int rows, double low, double high) {
+        double[] values = this.values;
+        long[] words = words(rows);
+        for (int row = 0; row < rows; row++) {
+            double value = values[row];
+            if (value >= low && value <= high) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        BitSet matched = BitSet.valueOf(words);
+        matched.and(present);
+        return matched;
+    }
+
+    private BitSet in(int rows, double[] candidates) {
+        double[] values = this.values;
+        long[] words = words(rows);
+        for (int row = 0; row < rows; row++) {
+            if (Arrays.binarySearch(candidates, values[row]) >= 0) {
+                words[row >>> 6] |= 1L << row;
+            }
+        }
+        BitSet matched = BitSet.valueOf(words);
+        matched.and(present);
+        return matched;
+    }
+
+    private static double number(List<Object> operands, int index) {
+        return ((Number) operands.get(index)).doubleValue();
+    }
+
+    @Override
+    long sizeInBytes() {
+        return 8L * values.length + bitmapBytes(present);
+    }
+}
@@ -20,8 +20,10 @@ public class CorsConfig {
                 "http://localhost:3000" // Alternative React ports
         ));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key",
+                "Range", "If-Range"));
+        // Resumable export downloads read the validator, the served range and the file name
+        configuration.setExposedHeaders(List.of("Authorization", "ETag", "Content-Range", "Content-Disposition"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -1,8 +1,10 @@
 package com.formforge.config;
 
+import com.formforge.security.BoundedPasswordEncoder;
 import com.formforge.security.JwtAuthenticationFilter;
 import com.formforge.security.RateLimitFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -42,6 +44,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/api/public/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
                         // Form management requires CREATOR or ADMIN role
@@ -49,6 +52,7 @@ public class SecurityConfig {
 
                         // Admin endpoints
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // All other endpoints require authentication
                         .anyRequest().authenticated())
@@ -72,8 +76,19 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    @Value("${security.password-hashing.max-concurrent:0}")
+    private int maxConcurrentHashes;
+
+    /**
+     * BCrypt, capped by default at half the cores (see BoundedPasswordEncoder).
+     * Virtual-thread carriers equal the core count, so fewer permits than
+     * cores always leaves carriers free for submissions.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        int permits = maxConcurrentHashes > 0
+                ? maxConcurrentHashes
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), permits);
     }
 }
@@ -0,0 +1,97 @@
+package com.formforge.controller;
+
+import com.formforge.rollup.ResponseRollupAggregator;
+import com.formforge.service.FormStatsService;
+import com.formforge.service.SchemaSnapshotService;
+import com.formforge.sketch.FormSketchStore;
+import com.formforge.storage.ResponsePayloadReencoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Operational endpoints (ADMIN role, see SecurityConfig).
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+public class AdminController {
+
+    private final SchemaSnapshotService schemaSnapshotService;
+    private final FormStatsService formStatsService;
+    private final ResponsePayloadReencoder responsePayloadReencoder;
+    private final ResponseRollupAggregator responseRollupAggregator;
+    private final FormSketchStore formSketchStore;
+
+    /**
+     * Migrate legacy inline schema snapshots into schema_snapshots.
+     */
+    @PostMapping("/schema-snapshots/backfill")
+    public ResponseEntity<Map<String, String>> backfillSchemaSnapshots(
+            @RequestParam(defaultValue = "500") int batchSize) {
+
+        if (!schemaSnapshotService.startBackfill(batchSize)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Schema snapshot backfill already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Schema snapshot backfill started"));
+    }
+
+    /**
+     * Recompute maintained dashboard counters (form_stats) from source tables.
+     */
+    @PostMapping("/form-stats/reconcile")
+    public ResponseEntity<Map<String, String>> reconcileFormStats() {
+        if (!formStatsService.startReconcile()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Form stats reconcile already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Form stats reconcile started"));
+    }
+
+    /**
+     * Convert existing JSON response payloads to the binary storage codec.
+     */
+    @PostMapping("/responses/reencode")
+    public ResponseEntity<Map<String, String>> reencodeResponses(
+            @RequestParam(defaultValue = "500") int batchSize) {
+
+        if (!responsePayloadReencoder.start(batchSize)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Response payload re-encoding already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Response payload re-encoding started"));
+    }
+
+    /**
+     * Drop and backfill the dashboard rollups (response_rollups) from form_responses.
+     */
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Map<String, String>> rebuildRollups() {
+        if (!responseRollupAggregator.startRebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Rollup rebuild already running or rollups disabled"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Rollup rebuild started"));
+    }
+
+    /**
+     * Rebuild one form's analytics sketches (form_sketches) from its responses.
+     */
+    @PostMapping("/sketches/rebuild")
+    public ResponseEntity<Map<String, String>> rebuildSketches(@RequestParam Long formId) {
+        if (!formSketchStore.requestRebuild(formId, true)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Sketch rebuild already running or sketches disabled"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(Map.of("message", "Sketch rebuild started"));
+    }
+}
@@ -0,0 +1,188 @@
+package com.formforge.controller;
+
+import com.formforge.dto.response.ExportJobResponse;
+import com.formforge.exception.ValidationException;
+import com.formforge.export.ExportFormat;
+import com.formforge.export.ExportJob;
+import com.formforge.security.SecurityUser;
+import com.formforge.service.ExportJobService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Asynchronous exports (see ExportJobService): submit, poll, download.
+ */
+@RestController
+@RequestMapping("/api/forms/{formId}/responses/export-jobs")
+@RequiredArgsConstructor
+public class ExportJobController {
+
+    // Tomcat sendfile: the connector streams the file from the page cache to the socket
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** parseRange result for a well-formed range outside the file (416) */
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    private final ExportJobService exportJobService;
+
+    /**
+     * 202 while the export runs; 200 when a finished, still current file is reused.
+     */
+    @PostMapping
+    public ResponseEntity<ExportJobResponse> submit(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(defaultValue = "false") boolean allVersions) {
+
+        ExportJob job = exportJobService.submit(formId, user.getId(), format, allVersions);
+        HttpStatus status = job.getStatus() == ExportJob.Status.DONE ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(ExportJobResponse.from(job));
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ExportJobResponse> getStatus(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @PathVariable String jobId) {
+
+        return ResponseEntity.ok(ExportJobResponse.from(exportJobService.getJob(formId, jobId, user.getId())));
+    }
+
+    /**
+     * Download the spooled file. A single "Range: bytes=" range resumes a
+     * broken download (206); the job id is a strong ETag for If-Range since
+     * a job's file never changes.
+     */
+    @GetMapping("/{jobId}/file")
+    public void download(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @PathVariable String jobId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        ExportJob job = exportJobService.getJob(formId, jobId, user.getId());
+        if (job.getStatus() != ExportJob.Status.DONE) {
+            throw new ValidationException("Export job is " + job.getStatus());
+        }
+
+        Path file = job.getFile();
+        long size = job.getFileSize();
+        String etag = "\"" + job.getId() + "\"";
+
+        long start = 0;
+        long end = size - 1;
+        boolean partial = false;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        long[] parsed = range != null && (ifRange == null || ifRange.equals(etag)) ? parseRange(range, size) : null;
+        if (parsed == UNSATISFIABLE) {
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            return;
+        }
+        if (parsed != null) {
+            start = parsed[0];
+            end = parsed[1];
+            partial = true;
+        }
+
+        long length = end - start + 1;
+        response.setStatus(partial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setContentType(job.getFormat().contentType());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + job.fileName() + "\"");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setContentLengthLong(length);
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        if (length == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        // Fallback: transferTo into the servlet stream's channel
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    /**
+     * Parse a single "bytes=" range (first-last, first- or -suffix).
+     *
+     * Other units, multiple ranges and malformed specs are ignored, so the
+     * caller serves the full file with 200 (RFC 9110, section 14.2).
+     *
+     * @return inclusive [start, end], {@link #UNSATISFIABLE} if the range
+     *         lies outside the file, or null to ignore the header
+     */
+    private static long[] parseRange(String header, long size) {
+        if (!header.regionMatches(true, 0, "bytes=", 0, "bytes=".length()) || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            long start;
+            long end;
+            if (dash == 0) {
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    return UNSATISFIABLE;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(spec.substring(0, dash));
+                long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+                if (start < 0 || last < start) {
+                    return null;
+                }
+                if (start >= size) {
+                    return UNSATISFIABLE;
+                }
+                end = Math.min(last, size - 1);
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
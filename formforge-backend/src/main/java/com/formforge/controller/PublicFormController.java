@@ -1,38 +1,140 @@
 package com.formforge.controller;
 
-import com.formforge.dto.request.SubmitResponseRequest;
-import com.formforge.dto.response.PublicFormResponse;
+import com.formforge.cache.PublicFormBodyCache;
+import com.formforge.dto.request.BulkSubmitRequest;
+import com.formforge.dto.response.BulkSubmitResponse;
+import com.formforge.dto.response.LoadTokenResponse;
 import com.formforge.dto.response.SubmissionSuccessResponse;
 import com.formforge.service.ResponseService;
+import com.formforge.util.ContentCoding;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Duration;
+
 @RestController
 @RequestMapping("/api/public/forms")
 @RequiredArgsConstructor
 public class PublicFormController {
 
     private final ResponseService responseService;
+    private final PublicFormBodyCache publicFormBodyCache;
+
+    @Value("${cache.public-forms.max-age:60s}")
+    private Duration publicFormMaxAge;
 
+    /**
+     * Pre-encoded PublicFormResponse bytes (see PublicFormBodyCache).
+     * Conditional requests with a matching ETag get 304 without a body.
+     *
+     * Each content-coding has its own strong ETag. If-None-Match is matched
+     * against the identity tag, and against the gzip tag only when the
+     * client accepts gzip, so a cache is never told to reuse gzip bytes
+     * for a client that cannot decode them.
+     */
     @GetMapping("/{slug}")
-    public ResponseEntity<PublicFormResponse> getPublicForm(@PathVariable String slug) {
-        PublicFormResponse response = responseService.getPublicForm(slug);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<Resource> getPublicForm(
+            @PathVariable String slug,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        PublicFormBodyCache.CachedBody body = publicFormBodyCache.get(slug);
+        CacheControl cacheControl = CacheControl.maxAge(publicFormMaxAge).cachePublic();
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+
+        String matched = notModifiedTag(ifNoneMatch, body, gzip);
+        if (matched != null) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(matched)
+                    .cacheControl(cacheControl)
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(body.etag(gzip))
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body.resource(gzip));
+    }
+
+    /**
+     * @return the tag of ours that If-None-Match lists (weak comparison,
+     *         as RFC 9110 requires for If-None-Match), or null
+     */
+    private static String notModifiedTag(String ifNoneMatch, PublicFormBodyCache.CachedBody body, boolean gzip) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return null;
+        }
+        String selected = body.etag(gzip);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return selected;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(body.etag(false)) || (gzip && tag.equals(body.etag(true)))) {
+                return tag;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fresh signed load token, fetched when the form is rendered.
+     * Kept out of the cached form body: every view needs its own issue time.
+     */
+    @GetMapping("/{slug}/load-token")
+    public ResponseEntity<LoadTokenResponse> getLoadToken(@PathVariable String slug) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(LoadTokenResponse.of(responseService.issueLoadToken(slug)));
     }
 
-    @PostMapping("/{slug}/submit")
+    /**
+     * Body has the SubmitResponseRequest shape but is decoded as a stream by
+     * SubmissionDecoder, so it is not bound to a DTO here.
+     */
+    @PostMapping(value = "/{slug}/submit", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<SubmissionSuccessResponse> submitResponse(
             @PathVariable String slug,
-            @Valid @RequestBody SubmitResponseRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            HttpServletRequest httpRequest) throws IOException {
+
+        String clientIp = getClientIp(httpRequest);
+        SubmissionSuccessResponse response = responseService.submitResponse(
+                slug, httpRequest.getInputStream(), clientIp, idempotencyKey);
+
+        // Journaled submissions are durable but not yet in the database
+        HttpStatus status = response.getResponseId() != null ? HttpStatus.CREATED : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PostMapping("/{slug}/submit/bulk")
+    public ResponseEntity<BulkSubmitResponse> submitBulk(
+            @PathVariable String slug,
+            @Valid @RequestBody BulkSubmitRequest request,
             HttpServletRequest httpRequest) {
 
         String clientIp = getClientIp(httpRequest);
-        SubmissionSuccessResponse response = responseService.submitResponse(slug, request, clientIp);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        BulkSubmitResponse response = responseService.submitBulk(slug, request, clientIp);
+        return ResponseEntity.ok(response);
     }
 
     private String getClientIp(HttpServletRequest request) {
@@ -1,37 +1,142 @@
 package com.formforge.controller;
 
-import com.formforge.dto.response.PagedResponse;
+import com.formforge.dto.request.ColumnarQueryRequest;
+import com.formforge.dto.request.ResponseSearchRequest;
+import com.formforge.dto.response.ColumnarQueryResponse;
+import com.formforge.dto.response.CursorPage;
+import com.formforge.dto.response.FormSketchResponse;
+import com.formforge.dto.response.FormSummaryResponse;
+import com.formforge.dto.response.ResponseSearchResponse;
 import com.formforge.dto.response.SubmissionListResponse;
+import com.formforge.dto.response.TimeSeriesResponse;
+import com.formforge.ingest.EavProjector;
+import com.formforge.rollup.RollupBucket;
 import com.formforge.security.SecurityUser;
 import com.formforge.service.ResponseManagementService;
+import com.formforge.util.ContentCoding;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
-import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
 @RestController
 @RequestMapping("/api/forms/{formId}/responses")
 @RequiredArgsConstructor
 public class ResponseController {
 
+    private static final int EXPORT_GZIP_BUFFER = 64 * 1024;
+    private static final String PARQUET_CONTENT_TYPE = "application/vnd.apache.parquet";
+
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final ResponseManagementService responseManagementService;
 
+    /**
+     * Keyset-paginated listing, newest first. Follow {@code nextCursor}
+     * while {@code hasNext}; {@code includeTotal} adds the maintained count.
+     */
     @GetMapping
-    public ResponseEntity<PagedResponse<SubmissionListResponse>> getResponses(
+    public ResponseEntity<CursorPage<SubmissionListResponse>> getResponses(
             @AuthenticationPrincipal SecurityUser user,
             @PathVariable Long formId,
-            @PageableDefault(size = 20, sort = "submittedAt", direction = Sort.Direction.DESC) Pageable pageable) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
 
-        PagedResponse<SubmissionListResponse> response = responseManagementService.getResponses(formId, user.getId(),
-                pageable);
+        int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+        CursorPage<SubmissionListResponse> response = responseManagementService.getResponses(formId, user.getId(),
+                cursor, pageSize, includeTotal);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Filter and sort on typed field values, e.g. age GT 30 AND country EQ DE
+     * AND submittedAt BETWEEN two dates. Keyset-paginated like the listing.
+     */
+    @PostMapping("/search")
+    public ResponseEntity<ResponseSearchResponse> search(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @Valid @RequestBody ResponseSearchRequest request) {
+
+        return ResponseEntity.ok(responseManagementService.search(formId, user.getId(), request));
+    }
+
+    /**
+     * Per-field statistics: answered counts and null rates for every field,
+     * min/max/mean/stddev for numbers, date histograms and option counts.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<FormSummaryResponse> getSummary(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId) {
+
+        return ResponseEntity.ok(responseManagementService.getSummary(formId, user.getId()));
+    }
+
+    /**
+     * Ad-hoc analytics from the in-memory columnar cache (opt-in, see
+     * cache.columnar.enabled): filter, group by up to two fields, aggregate.
+     */
+    @PostMapping("/analytics")
+    public ResponseEntity<ColumnarQueryResponse> analyze(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @Valid @RequestBody ColumnarQueryRequest request) {
+
+        return ResponseEntity.ok(responseManagementService.analyze(formId, user.getId(), request));
+    }
+
+    /**
+     * Approximate analytics for large forms: distinct counts, NUMBER
+     * quantiles and top values, each with its error bound. With
+     * {@code allVersions} the sketches of every version are merged.
+     */
+    @GetMapping("/sketches")
+    public ResponseEntity<FormSketchResponse> getSketches(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @RequestParam(defaultValue = "false") boolean allVersions,
+            @RequestParam(defaultValue = "0.5,0.9,0.95,0.99") List<Double> quantiles,
+            @RequestParam(defaultValue = "10") int top) {
+
+        return ResponseEntity.ok(responseManagementService.getSketches(formId, user.getId(), allVersions,
+                quantiles, top));
+    }
+
+    /**
+     * Dashboard time series from the maintained rollups, e.g.
+     * {@code ?bucket=DAY&from=2024-01-01T00:00:00}.
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<TimeSeriesResponse> getTimeSeries(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @RequestParam(defaultValue = "DAY") RollupBucket bucket,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+
+        return ResponseEntity.ok(responseManagementService.getTimeSeries(formId, user.getId(), bucket, from, to));
+    }
+
+    @GetMapping("/projection-status")
+    public ResponseEntity<EavProjector.ProjectionStatus> getProjectionStatus(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId) {
+
+        return ResponseEntity.ok(responseManagementService.getProjectionStatus(formId, user.getId()));
+    }
+
     @GetMapping("/{responseId}")
     public ResponseEntity<SubmissionListResponse> getResponse(
             @AuthenticationPrincipal SecurityUser user,
@@ -52,16 +157,76 @@ public class ResponseController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Streams the CSV into the servlet output stream as rows are read;
+     * gzip-encoded when the client accepts it.
+     */
     @GetMapping("/export")
-    public ResponseEntity<String> exportToCsv(
+    public void exportToCsv(
             @AuthenticationPrincipal SecurityUser user,
-            @PathVariable Long formId) {
+            @PathVariable Long formId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
 
-        String csv = responseManagementService.exportToCsv(formId, user.getId());
+        responseManagementService.verifyExportAccess(formId, user.getId());
+        streamExport(response, acceptEncoding, "text/csv;charset=UTF-8", "responses.csv",
+                out -> responseManagementService.exportToCsv(formId, user.getId(), out));
+    }
+
+    /**
+     * CSV over every version of this form, with the merged column layout.
+     */
+    @GetMapping("/export/all-versions")
+    public void exportAllVersionsToCsv(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        responseManagementService.verifyExportAccess(formId, user.getId());
+        streamExport(response, acceptEncoding, "text/csv;charset=UTF-8", "responses-all-versions.csv",
+                out -> responseManagementService.exportGroupToCsv(formId, user.getId(), out));
+    }
+
+    /**
+     * Typed columnar export (see ParquetExporter), streamed like the CSV.
+     */
+    @GetMapping("/export/parquet")
+    public void exportToParquet(
+            @AuthenticationPrincipal SecurityUser user,
+            @PathVariable Long formId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+
+        responseManagementService.verifyExportAccess(formId, user.getId());
+        streamExport(response, acceptEncoding, PARQUET_CONTENT_TYPE, "responses.parquet",
+                out -> responseManagementService.exportToParquet(formId, user.getId(), out));
+    }
+
+    private void streamExport(HttpServletResponse response, String acceptEncoding,
+            String contentType, String fileName, ExportBody body) throws IOException {
+
+        boolean gzip = ContentCoding.acceptsGzip(acceptEncoding);
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        OutputStream out = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream gzipOut = new GZIPOutputStream(out, EXPORT_GZIP_BUFFER);
+            body.writeTo(gzipOut);
+            gzipOut.finish();
+        } else {
+            body.writeTo(out);
+        }
+        out.flush();
+    }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"responses.csv\"")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv);
+    @FunctionalInterface
+    private interface ExportBody {
+        void writeTo(OutputStream out) throws IOException;
     }
 }
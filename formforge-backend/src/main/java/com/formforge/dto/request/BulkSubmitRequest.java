@@ -0,0 +1,26 @@
+package com.formforge.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSubmitRequest {
+
+    /**
+     * Submissions collected offline (kiosks, import clients).
+     * Items are validated individually: an invalid item is reported in the
+     * result instead of failing the whole request, so no @Valid cascade here.
+     */
+    @NotNull(message = "Submissions are required")
+    @Size(min = 1, max = 500, message = "Between 1 and 500 submissions per request")
+    private List<SubmitResponseRequest> submissions;
+}
@@ -0,0 +1,68 @@
+package com.formforge.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Ad-hoc analytics over the in-memory columnar cache: filter, group and
+ * aggregate a form's responses. Filters are ANDed and behave like the
+ * response search's; every group carries its row count.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarQueryRequest {
+
+    @Valid
+    @Size(max = 10, message = "At most 10 filters")
+    private List<ResponseSearchRequest.Filter> filters;
+
+    /**
+     * Text, choice or checkbox field keys; empty for one overall group.
+     */
+    @Size(max = 2, message = "At most 2 groupBy fields")
+    private List<String> groupBy;
+
+    @Valid
+    @Size(max = 10, message = "At most 10 aggregates")
+    private List<Aggregate> aggregates;
+
+    /**
+     * Largest groups returned, default 100.
+     */
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 1000, message = "Limit must be at most 1000")
+    private Integer limit;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Aggregate {
+        @NotNull(message = "Aggregate function is required")
+        private AggregateFunction function;
+
+        /**
+         * NUMBER field for SUM / AVG / MIN / MAX; for COUNT any field (answers)
+         * or none (rows).
+         */
+        private String field;
+    }
+
+    public enum AggregateFunction {
+        COUNT,
+        SUM,
+        AVG,
+        MIN,
+        MAX
+    }
+}
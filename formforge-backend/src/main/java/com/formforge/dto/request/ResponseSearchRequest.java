@@ -0,0 +1,79 @@
+package com.formforge.dto.request;
+
+import com.formforge.query.FilterOperator;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Filtered, sorted response listing. Filters are ANDed; field keys are the
+ * form's fields or "submittedAt".
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseSearchRequest {
+
+    @Valid
+    @Size(max = 10, message = "At most 10 filters")
+    private List<Filter> filters;
+
+    /**
+     * Defaults to submittedAt, newest first.
+     */
+    @Valid
+    private Sort sort;
+
+    /**
+     * nextCursor of the previous page (same filters and sort), or null.
+     */
+    private String cursor;
+
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size must be at most 100")
+    private Integer size;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Filter {
+        @NotBlank(message = "Filter field is required")
+        private String field;
+
+        @NotNull(message = "Filter operator is required")
+        private FilterOperator op;
+
+        /**
+         * Single operand (EQ, NE, GT, GTE, LT, LTE, CONTAINS, STARTS_WITH).
+         */
+        private String value;
+
+        /**
+         * BETWEEN: [from, to]; IN: candidates.
+         */
+        private List<String> values;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Sort {
+        private String field;
+        private Direction direction = Direction.DESC;
+    }
+
+    public enum Direction {
+        ASC,
+        DESC
+    }
+}
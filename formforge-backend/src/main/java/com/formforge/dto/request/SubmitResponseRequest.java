@@ -38,8 +38,8 @@ public class SubmitResponseRequest {
     private String honeypot;
 
     /**
-     * Timestamp when form was loaded (for timing-based bot detection).
-     * Submissions faster than 2 seconds are flagged.
+     * Signed token from GET /api/public/forms/{slug}/load-token
+     * (for timing-based bot detection, see FormLoadTokenProvider).
      */
-    private Long loadTimestamp;
+    private String loadToken;
 }
@@ -0,0 +1,53 @@
+package com.formforge.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-item outcome of a bulk submission, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSubmitResponse {
+    private int created;
+    private int rejected;
+    private int failed;
+    private List<ItemResult> results;
+
+    public enum ItemStatus {
+        /** Stored; responseId is set */
+        CREATED,
+        /** Failed validation; safe to fix and resend */
+        REJECTED,
+        /** Valid, but its batch could not be written; safe to resend as-is */
+        FAILED
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+        private int index;
+        private ItemStatus status;
+        private Long responseId;
+        private String message;
+        private Map<String, String> errors;
+    }
+
+    public static BulkSubmitResponse of(List<ItemResult> results) {
+        return BulkSubmitResponse.builder()
+                .created((int) results.stream().filter(r -> r.getStatus() == ItemStatus.CREATED).count())
+                .rejected((int) results.stream().filter(r -> r.getStatus() == ItemStatus.REJECTED).count())
+                .failed((int) results.stream().filter(r -> r.getStatus() == ItemStatus.FAILED).count())
+                .results(results)
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.formforge.dto.response;
+
+import com.formforge.columnar.ColumnarQuery;
+import com.formforge.columnar.ColumnarQuery.Group;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a columnar analytics query: largest groups first.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ColumnarQueryResponse {
+    private Long formId;
+
+    /**
+     * Responses held in the cache for the form.
+     */
+    private long rows;
+
+    /**
+     * Responses passing every filter.
+     */
+    private long matched;
+
+    /**
+     * False while the cached rows differ from the form's response count,
+     * e.g. responses written by another instance.
+     */
+    private boolean complete;
+
+    private List<String> groupBy;
+
+    /**
+     * Labels of each group's values, e.g. "avg(age)".
+     */
+    private List<String> aggregates;
+
+    /**
+     * Groups before {@code limit}.
+     */
+    private int groupCount;
+
+    private List<Group> groups;
+
+    public static ColumnarQueryResponse from(Long formId, ColumnarQuery query, ColumnarQuery.Result result,
+            boolean complete) {
+        return ColumnarQueryResponse.builder()
+                .formId(formId)
+                .rows(result.rows())
+                .matched(result.matched())
+                .complete(complete)
+                .groupBy(query.groupBy())
+                .aggregates(query.labels())
+                .groupCount(result.groups())
+                .groups(result.top())
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.formforge.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated listing.
+ *
+ * Unlike PagedResponse there is no page number and no exact total: the
+ * next page is addressed by {@code nextCursor}, and {@code hasNext} comes
+ * from fetching one row more than the page size.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+
+    /**
+     * Opaque; pass back as {@code cursor} for the next page. Null on the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Only when requested; from maintained counters, so it may trail
+     * concurrent submissions by a few seconds.
+     */
+    private Long totalElements;
+
+    /**
+     * @param rows       up to size + 1 rows in listing order
+     * @param cursorOf   cursor addressing the rows after a given row
+     */
+    public static <E, R> CursorPage<R> from(List<E> rows, int size, Function<E, R> mapper,
+            Function<E, String> cursorOf, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        return CursorPage.<R>builder()
+                .content(page.stream().map(mapper).toList())
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? cursorOf.apply(page.get(page.size() - 1)) : null)
+                .totalElements(totalElements)
+                .build();
+    }
+}
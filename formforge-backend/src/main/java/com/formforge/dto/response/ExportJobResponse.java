@@ -0,0 +1,56 @@
+package com.formforge.dto.response;
+
+import com.formforge.export.ExportFormat;
+import com.formforge.export.ExportJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+    private String jobId;
+    private Long formId;
+    private ExportFormat format;
+    private Boolean allVersions;
+    private ExportJob.Status status;
+
+    /**
+     * Progress: rows exported so far out of the responses present when the
+     * job was created.
+     */
+    private Long rowsWritten;
+    private Long totalRows;
+
+    /**
+     * Set once the job is DONE (GET .../export-jobs/{jobId}/file).
+     */
+    private Long fileSize;
+    private String fileName;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    public static ExportJobResponse from(ExportJob job) {
+        boolean done = job.getStatus() == ExportJob.Status.DONE;
+        return ExportJobResponse.builder()
+                .jobId(job.getId())
+                .formId(job.getFormId())
+                .format(job.getFormat())
+                .allVersions(job.isAllVersions())
+                .status(job.getStatus())
+                .rowsWritten(job.getRowsWritten().get())
+                .totalRows(job.getContentVersion().responseCount())
+                .fileSize(done ? job.getFileSize() : null)
+                .fileName(done ? job.fileName() : null)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
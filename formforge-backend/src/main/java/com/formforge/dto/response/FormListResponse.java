@@ -1,6 +1,7 @@
 package com.formforge.dto.response;
 
 import com.formforge.entity.Form;
+import com.formforge.entity.FormStats;
 import com.formforge.entity.enums.FormStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -22,11 +23,27 @@ public class FormListResponse {
     private Integer version;
     private Integer fieldCount;
     private Long responseCount;
+    private LocalDateTime lastSubmittedAt;
     private LocalDateTime publishedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
-    public static FormListResponse from(Form form, Long responseCount) {
+    /**
+     * Counts come from maintained counters (FormStats), never from the
+     * lazy fields collection or COUNT(*) over responses.
+     *
+     * @param stats            maintained counters, or null if not yet reconciled
+     * @param pendingResponses response-count delta not yet flushed to form_stats
+     * @param pendingLastSubmittedAt unflushed latest submission time, or null
+     */
+    public static FormListResponse from(Form form, FormStats stats, long pendingResponses,
+            LocalDateTime pendingLastSubmittedAt) {
+        LocalDateTime lastSubmittedAt = stats != null ? stats.getLastSubmittedAt() : null;
+        if (pendingLastSubmittedAt != null
+                && (lastSubmittedAt == null || pendingLastSubmittedAt.isAfter(lastSubmittedAt))) {
+            lastSubmittedAt = pendingLastSubmittedAt;
+        }
+
         return FormListResponse.builder()
                 .id(form.getId())
                 .title(form.getTitle())
@@ -34,10 +51,9 @@ public class FormListResponse {
                 .slug(form.getSlug())
                 .status(form.getStatus())
                 .version(form.getVersion())
-                .fieldCount(form.getFields() != null
-                        ? (int) form.getFields().stream().filter(f -> !f.getIsDeleted()).count()
-                        : 0)
-                .responseCount(responseCount)
+                .fieldCount(stats != null ? stats.getActiveFieldCount() : 0)
+                .responseCount(Math.max((stats != null ? stats.getResponseCount() : 0) + pendingResponses, 0))
+                .lastSubmittedAt(lastSubmittedAt)
                 .publishedAt(form.getPublishedAt())
                 .createdAt(form.getCreatedAt())
                 .updatedAt(form.getUpdatedAt())
@@ -0,0 +1,121 @@
+package com.formforge.dto.response;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.sketch.FieldSketch;
+import com.formforge.sketch.FormSketchStore.SketchSnapshot;
+import com.formforge.sketch.HyperLogLog;
+import com.formforge.sketch.TDigest;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Approximate per-field analytics from probabilistic sketches (see
+ * FormSketchStore), with error bounds on every estimate.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormSketchResponse {
+
+    /**
+     * Forms whose sketches were merged (one form, or every version of its group).
+     */
+    private List<Long> formIds;
+
+    private long responseCount;
+
+    /**
+     * False while some form's sketched submissions differ from its response
+     * count, e.g. after deletions (a rebuild is then started in the background).
+     */
+    private boolean complete;
+
+    private DistinctEstimate distinctSubmissionIps;
+    private List<FieldSketchSummary> fields;
+
+    /**
+     * @param count answers sketched
+     * @param min   NUMBER only (exact)
+     * @param max   NUMBER only (exact)
+     */
+    public record FieldSketchSummary(
+            String fieldKey,
+            FieldType fieldType,
+            long count,
+            DistinctEstimate distinct,
+            Double min,
+            Double max,
+            List<QuantileEstimate> quantiles,
+            List<TopValue> topValues) {
+    }
+
+    /**
+     * @param standardError relative standard error of the estimate
+     * @param lower         lower end of the ~95% interval (estimate -2 standard errors)
+     * @param upper         upper end of the ~95% interval, at most the answer count
+     */
+    public record DistinctEstimate(long estimate, double standardError, long lower, long upper) {
+
+        static DistinctEstimate of(HyperLogLog sketch, long count) {
+            long estimate = Math.min(sketch.estimate(), count);
+            double error = sketch.standardError();
+            long lower = Math.max(0, (long) Math.floor(estimate * (1 - 2 * error)));
+            long upper = Math.min(count, (long) Math.ceil(estimate * (1 + 2 * error)));
+            return new DistinctEstimate(estimate, error, lower, upper);
+        }
+    }
+
+    /**
+     * @param rankError bound on |true rank - quantile| of the returned value
+     */
+    public record QuantileEstimate(double quantile, double value, double rankError) {
+    }
+
+    /**
+     * @param count estimated occurrences; the true count is within [count - error, count]
+     */
+    public record TopValue(String value, long count, long error) {
+    }
+
+    public static FormSketchResponse from(SketchSnapshot snapshot, List<Long> formIds, boolean complete,
+            List<Double> quantiles, int top) {
+        List<FieldSketchSummary> fields = new ArrayList<>(snapshot.fields().size());
+        snapshot.fields().forEach((key, sketch) -> fields.add(summarize(key, sketch, quantiles, top)));
+
+        FieldSketch submissions = snapshot.submissions();
+        return FormSketchResponse.builder()
+                .formIds(formIds)
+                .responseCount(submissions.count())
+                .complete(complete)
+                .distinctSubmissionIps(DistinctEstimate.of(submissions.distinct(), submissions.count()))
+                .fields(fields)
+                .build();
+    }
+
+    private static FieldSketchSummary summarize(String key, FieldSketch sketch, List<Double> quantiles, int top) {
+        Double min = null;
+        Double max = null;
+        List<QuantileEstimate> quantileEstimates = null;
+        TDigest digest = sketch.quantiles();
+        if (digest != null && digest.count() > 0) {
+            min = digest.min();
+            max = digest.max();
+            quantileEstimates = quantiles.stream()
+                    .map(q -> new QuantileEstimate(q, digest.quantile(q), digest.rankError(q)))
+                    .toList();
+        }
+
+        List<TopValue> topValues = sketch.topValues() == null ? null : sketch.topValues().top(top).stream()
+                .map(item -> new TopValue(item.value(), item.count(), item.error()))
+                .toList();
+
+        return new FieldSketchSummary(key, sketch.fieldType(), sketch.count(),
+                DistinctEstimate.of(sketch.distinct(), sketch.count()), min, max, quantileEstimates, topValues);
+    }
+}
@@ -0,0 +1,76 @@
+package com.formforge.dto.response;
+
+import com.formforge.entity.enums.FieldType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Per-field summary of a form's responses, computed on the typed
+ * field_values columns (see FieldSummaryCache).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FormSummaryResponse {
+    private Long formId;
+    private long responseCount;
+
+    /**
+     * False while the asynchronous EAV projector has not yet indexed every
+     * response of the form; answered counts and statistics then lag behind
+     * responseCount.
+     */
+    private boolean complete;
+
+    /**
+     * When the cached summary was last computed from scratch; increments
+     * since then are already applied.
+     */
+    private LocalDateTime computedAt;
+
+    private List<FieldSummary> fields;
+
+    /**
+     * @param answered  responses with a value for this field
+     * @param nullRate  share of responses without one (0 when there are no responses)
+     * @param number    NUMBER fields only
+     * @param histogram DATE fields only
+     * @param options   DROPDOWN, RADIO and CHECKBOX fields only, most frequent first
+     */
+    public record FieldSummary(
+            String fieldKey,
+            String label,
+            FieldType fieldType,
+            long answered,
+            double nullRate,
+            NumberSummary number,
+            DateHistogram histogram,
+            List<OptionCount> options) {
+    }
+
+    /**
+     * Over values that parsed as numbers; stddev is the population deviation.
+     */
+    public record NumberSummary(long count, Double min, Double max, Double mean, Double stddev) {
+    }
+
+    /**
+     * @param granularity DAY, MONTH or YEAR, chosen from the value range
+     * @param buckets     ascending; each starts at its {@code start} date
+     */
+    public record DateHistogram(LocalDateTime min, LocalDateTime max, String granularity, List<Bucket> buckets) {
+    }
+
+    public record Bucket(LocalDate start, long count) {
+    }
+
+    public record OptionCount(String value, long count) {
+    }
+}
@@ -0,0 +1,22 @@
+package com.formforge.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadTokenResponse {
+
+    /**
+     * Echoed back as {@code loadToken} in the submission body.
+     */
+    private String loadToken;
+
+    public static LoadTokenResponse of(String loadToken) {
+        return new LoadTokenResponse(loadToken);
+    }
+}
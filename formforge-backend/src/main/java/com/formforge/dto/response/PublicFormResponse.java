@@ -12,6 +12,9 @@ import java.util.stream.Collectors;
 /**
  * Public form response for rendering on frontend.
  * Contains only what's needed to display the form.
+ *
+ * Identical for every request to the same form version, so it is served
+ * pre-encoded from PublicFormBodyCache. Per-request data belongs in headers.
  */
 @Data
 @Builder
@@ -24,11 +27,6 @@ public class PublicFormResponse {
     private String settings;
     private List<PublicFieldResponse> fields;
 
-    /**
-     * Timestamp for bot detection (compare with submit time).
-     */
-    private Long loadTimestamp;
-
     public static PublicFormResponse from(Form form) {
         return PublicFormResponse.builder()
                 .slug(form.getSlug())
@@ -39,7 +37,6 @@ public class PublicFormResponse {
                         .filter(f -> !f.getIsDeleted())
                         .map(PublicFieldResponse::from)
                         .collect(Collectors.toList()))
-                .loadTimestamp(System.currentTimeMillis())
                 .build();
     }
 
@@ -0,0 +1,30 @@
+package com.formforge.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResponseSearchResponse {
+    private List<SubmissionListResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+    /**
+     * False while the asynchronous EAV projector has not yet indexed every
+     * response of the form; filtered results may then miss the newest ones.
+     */
+    private boolean complete;
+
+    /**
+     * Access path the planner chose (see ResponseQueryPlan.describe).
+     */
+    private String plan;
+}
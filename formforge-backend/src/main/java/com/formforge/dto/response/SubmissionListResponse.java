@@ -19,10 +19,13 @@ public class SubmissionListResponse {
     private Integer formVersion;
     private LocalDateTime submittedAt;
 
-    public static SubmissionListResponse from(FormResponse response) {
+    /**
+     * @param responseJson the row's payload decoded by ResponsePayloadCodec
+     */
+    public static SubmissionListResponse from(FormResponse response, String responseJson) {
         return SubmissionListResponse.builder()
                 .id(response.getId())
-                .responseJson(response.getResponseJson())
+                .responseJson(responseJson)
                 .submissionIp(response.getSubmissionIp())
                 .formVersion(response.getFormVersion())
                 .submittedAt(response.getSubmittedAt())
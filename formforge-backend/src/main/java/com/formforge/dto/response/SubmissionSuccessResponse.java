@@ -13,10 +13,23 @@ public class SubmissionSuccessResponse {
     private String message;
     private Long responseId;
 
+    /**
+     * Set when the submission was journaled: the response row (and responseId)
+     * is created asynchronously.
+     */
+    private String submissionId;
+
     public static SubmissionSuccessResponse success(Long responseId) {
         return SubmissionSuccessResponse.builder()
                 .message("Response submitted successfully")
                 .responseId(responseId)
                 .build();
     }
+
+    public static SubmissionSuccessResponse accepted(String submissionId) {
+        return SubmissionSuccessResponse.builder()
+                .message("Response submitted successfully")
+                .submissionId(submissionId)
+                .build();
+    }
 }
@@ -0,0 +1,43 @@
+package com.formforge.dto.response;
+
+import com.formforge.rollup.RollupBucket;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Submissions of a form per hour or day, read from the rollup tables.
+ * Every bucket in [from, to) is present, empty ones with zero counts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TimeSeriesResponse {
+    private Long formId;
+    private RollupBucket bucket;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<Point> points;
+
+    /**
+     * @param fields fieldKey -> aggregates of that field in this bucket
+     *               (only fields with answers in the bucket)
+     */
+    public record Point(LocalDateTime start, long submissions, Map<String, FieldPoint> fields) {
+    }
+
+    /**
+     * @param count   NUMBER: numeric answers in the bucket
+     * @param sum     NUMBER: their sum
+     * @param mean    NUMBER: sum / count
+     * @param options DROPDOWN / RADIO / CHECKBOX: answers per option
+     */
+    public record FieldPoint(Long count, Double sum, Double mean, Map<String, Long> options) {
+    }
+}
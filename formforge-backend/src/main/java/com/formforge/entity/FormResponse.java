@@ -13,7 +13,23 @@ import java.util.List;
 @Table(name = "form_responses", indexes = {
         @Index(name = "idx_responses_form_date", columnList = "form_id, submitted_at"),
         @Index(name = "idx_responses_submitted", columnList = "submitted_at"),
-        @Index(name = "idx_responses_form_status", columnList = "form_id, status")
+        @Index(name = "idx_responses_form_status", columnList = "form_id, status"),
+        @Index(name = "idx_responses_schema_snapshot", columnList = "schema_snapshot_id"),
+        /**
+         * idx_responses_form_id (form_id, id):
+         * - Query: responses of a form after a given id (EAV projector)
+         * - Id range scans within one form, in id order
+         */
+        @Index(name = "idx_responses_form_id", columnList = "form_id, id"),
+        /**
+         * idx_responses_form_snapshot (form_id, schema_snapshot_id):
+         * - Query: distinct schema snapshots of a form group (merged export header)
+         * - Loose index scan instead of reading every response
+         */
+        @Index(name = "idx_responses_form_snapshot", columnList = "form_id, schema_snapshot_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_responses_submission_uid", columnNames = { "submission_uid" }),
+        @UniqueConstraint(name = "uk_responses_form_idempotency", columnNames = { "form_id", "idempotency_key" })
 })
 @Getter
 @Setter
@@ -30,6 +46,21 @@ public class FormResponse {
     @JoinColumn(name = "form_id", nullable = false)
     private Form form;
 
+    /**
+     * Server-generated UUID assigned when a submission is accepted.
+     * Makes journal replay idempotent (a replayed submission maps to the same row).
+     * Null on rows written before it existed.
+     */
+    @Column(name = "submission_uid", length = 36)
+    private String submissionUid;
+
+    /**
+     * Client-supplied Idempotency-Key header (optional).
+     * Unique per form: the backstop behind IdempotencyKeyCache.
+     */
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
     /**
      * Nullable for anonymous submissions.
      * Populated when authenticated user submits.
@@ -62,12 +93,30 @@ public class FormResponse {
      * EXPORT: CSV/Excel export reads JSON directly (10-100x faster).
      * 
      * Structure: {"fieldKey1": "value1", "fieldKey2": "value2", ...}
+     * 
+     * Null when the payload is stored in response_payload instead
+     * (see payloadFormat); read it through ResponsePayloadCodec.
      */
-    @Column(name = "response_json", columnDefinition = "JSON", nullable = false)
+    @Column(name = "response_json", columnDefinition = "JSON")
     private String responseJson;
 
     /**
-     * SCHEMA SNAPSHOTTING: Captures form schema at submission time.
+     * STORAGE CODEC: PayloadFormat code of this row's payload.
+     * 0 = JSON in response_json; otherwise binary in response_payload.
+     */
+    @Column(name = "payload_format", columnDefinition = "TINYINT NOT NULL DEFAULT 0")
+    @Builder.Default
+    private Integer payloadFormat = 0;
+
+    /**
+     * Positional Smile payload (optionally deflated), keyed by the order of
+     * the schema snapshot. Null on JSON rows.
+     */
+    @Column(name = "response_payload", columnDefinition = "MEDIUMBLOB")
+    private byte[] responsePayload;
+
+    /**
+     * SCHEMA SNAPSHOTTING: References the form schema at submission time.
      * 
      * CRITICAL FOR PRODUCTION:
      * - Historical accuracy: Shows fields as they existed at submit time
@@ -75,9 +124,21 @@ public class FormResponse {
      * - Audit trail: Required for compliance (GDPR, HIPAA)
      * - Analytics: Compare responses across form versions
      * 
+     * Snapshots are content-addressed in schema_snapshots and shared by every
+     * response with the same schema. Kept as a plain id (not a relationship)
+     * because readers resolve it through SchemaSnapshotService's cache.
+     */
+    @Column(name = "schema_snapshot_id")
+    private Long schemaSnapshotId;
+
+    /**
+     * LEGACY: Per-response copy of the schema snapshot.
+     * Only populated on rows written before schema_snapshots existed;
+     * cleared by the snapshot backfill.
+     * 
      * Structure: [{"fieldKey": "...", "label": "...", "type": "...", ...}, ...]
      */
-    @Column(name = "form_schema_snapshot", columnDefinition = "JSON", nullable = false)
+    @Column(name = "form_schema_snapshot", columnDefinition = "JSON")
     private String formSchemaSnapshot;
 
     @Column(name = "submitted_at")
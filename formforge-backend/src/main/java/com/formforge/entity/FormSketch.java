@@ -0,0 +1,48 @@
+package com.formforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * PERSISTED SKETCH:
+ * Serialized FieldSketch of one field of one form, written periodically by
+ * FormSketchStore so sketches survive restarts without rescanning responses.
+ *
+ * sketchKey is the fieldKey, or "$submissionIp" for the form's submission
+ * count and distinct submitter IPs.
+ */
+@Entity
+@Table(name = "form_sketches")
+@IdClass(FormSketch.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FormSketch {
+
+    @Id
+    @Column(name = "form_id")
+    private Long formId;
+
+    @Id
+    @Column(name = "sketch_key", length = 100)
+    private String sketchKey;
+
+    @Column(name = "sketch", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] sketch;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long formId;
+        private String sketchKey;
+    }
+}
@@ -0,0 +1,42 @@
+package com.formforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * MAINTAINED DASHBOARD COUNTERS:
+ * One row per form, so the "My Forms" page never runs COUNT(*) over
+ * form_responses or loads field collections.
+ *
+ * - responseCount / lastSubmittedAt: flushed periodically from in-memory
+ * adders by FormStatsService
+ * - activeFieldCount: refreshed in the transaction that adds or removes a field
+ * - Reconciled against the source tables on startup
+ */
+@Entity
+@Table(name = "form_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FormStats {
+
+    @Id
+    @Column(name = "form_id")
+    private Long formId;
+
+    @Column(name = "response_count", nullable = false)
+    private Long responseCount;
+
+    @Column(name = "active_field_count", nullable = false)
+    private Integer activeFieldCount;
+
+    @Column(name = "last_submitted_at")
+    private LocalDateTime lastSubmittedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,35 @@
+package com.formforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * EAV PROJECTION WATERMARK:
+ * In async projection mode, field_values rows are built from response_json
+ * by EavProjector. Every response of the form with id <= lastResponseId has
+ * been projected.
+ *
+ * Advanced in the same transaction as the field_values inserts, so the
+ * projector resumes exactly where it stopped after a restart.
+ */
+@Entity
+@Table(name = "projection_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProjectionWatermark {
+
+    @Id
+    @Column(name = "form_id")
+    private Long formId;
+
+    @Column(name = "last_response_id", nullable = false)
+    private Long lastResponseId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
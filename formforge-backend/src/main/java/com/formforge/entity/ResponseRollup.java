@@ -0,0 +1,53 @@
+package com.formforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * TIME-BUCKETED ROLLUP:
+ * Submissions of one form in one hour or day bucket, so dashboard time
+ * series read a few hundred rows instead of scanning form_responses.
+ *
+ * Maintained by ResponseRollupAggregator (upserts of per-batch deltas),
+ * never written through JPA.
+ */
+@Entity
+@Table(name = "response_rollups")
+@IdClass(ResponseRollup.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseRollup {
+
+    @Id
+    @Column(name = "form_id")
+    private Long formId;
+
+    /**
+     * RollupBucket code: 0 = HOUR, 1 = DAY.
+     */
+    @Id
+    @Column(name = "bucket_size", columnDefinition = "TINYINT")
+    private Integer bucketSize;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Column(name = "submission_count", nullable = false)
+    private Long submissionCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long formId;
+        private Integer bucketSize;
+        private LocalDateTime bucketStart;
+    }
+}
@@ -0,0 +1,62 @@
+package com.formforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Per-field part of a ResponseRollup bucket:
+ * - DROPDOWN / RADIO / CHECKBOX: one row per submitted option, valueCount
+ * responses chose it
+ * - NUMBER: one row with valueKey "", valueCount numeric answers summing
+ * to valueSum (the bucket mean is valueSum / valueCount)
+ */
+@Entity
+@Table(name = "response_rollup_values")
+@IdClass(ResponseRollupValue.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResponseRollupValue {
+
+    @Id
+    @Column(name = "form_id")
+    private Long formId;
+
+    @Id
+    @Column(name = "bucket_size", columnDefinition = "TINYINT")
+    private Integer bucketSize;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Column(name = "field_id")
+    private Long fieldId;
+
+    @Id
+    @Column(name = "value_key", length = 191)
+    private String valueKey;
+
+    @Column(name = "value_count", nullable = false)
+    private Long valueCount;
+
+    @Column(name = "value_sum", nullable = false)
+    private Double valueSum;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long formId;
+        private Integer bucketSize;
+        private LocalDateTime bucketStart;
+        private Long fieldId;
+        private String valueKey;
+    }
+}
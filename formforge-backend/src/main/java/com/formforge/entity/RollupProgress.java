@@ -0,0 +1,34 @@
+package com.formforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * ROLLUP WATERMARK:
+ * Single row (id 1). Every response with id <= lastResponseId is counted in
+ * response_rollups.
+ *
+ * Advanced in the same transaction as the rollup upserts, and locked by
+ * them, so batches, deletes and rebuilds apply in a single order.
+ */
+@Entity
+@Table(name = "rollup_progress")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupProgress {
+
+    @Id
+    @Column(name = "id", columnDefinition = "TINYINT")
+    private Integer id;
+
+    @Column(name = "last_response_id", nullable = false)
+    private Long lastResponseId;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
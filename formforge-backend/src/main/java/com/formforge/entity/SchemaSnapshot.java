@@ -0,0 +1,47 @@
+package com.formforge.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * CONTENT-ADDRESSED SCHEMA SNAPSHOTS:
+ * Each distinct form schema is stored exactly once, keyed by the SHA-256
+ * of its JSON. Responses reference the snapshot by id instead of carrying
+ * their own multi-KB copy.
+ *
+ * Snapshots are immutable: identical content always maps to the same row.
+ */
+@Entity
+@Table(name = "schema_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_schema_snapshot_hash", columnNames = { "content_hash" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchemaSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Hex-encoded SHA-256 of schemaJson.
+     */
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash;
+
+    /**
+     * Structure: [{"fieldKey": "...", "label": "...", "fieldType": "...", ...}, ...]
+     */
+    @Column(name = "schema_json", columnDefinition = "JSON", nullable = false)
+    private String schemaJson;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,271 @@
+package com.formforge.export;
+
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.repository.FormResponseJdbcRepository.ExportRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streams a form's responses as CSV straight to an OutputStream.
+ *
+ * BOUNDED MEMORY:
+ * - Rows come from a forward-only JDBC cursor (FormResponseJdbcRepository),
+ * never from a List of entities
+ * - Each row is decoded, written and dropped; only the output buffer and
+ * the header are retained, so heap use is flat in the row count
+ *
+ * PIPELINE:
+ * - The calling thread reads the cursor and cuts rows into batches
+ * - Batches are decoded and formatted on the shared export-worker pool,
+ * each into a pooled StringBuilder
+ * - Formatted batches are written strictly in submission order
+ * - At most {@code max-in-flight} batches exist at once: when the window is
+ * full the reader writes the oldest batch before fetching more (backpressure)
+ *
+ * COLUMNS: submittedAt, submissionIp, then the union of the fields of
+ * every schema snapshot the exported responses reference
+ * (ExportSchemaResolver); each row is decoded into that layout by key.
+ *
+ * Callers own the transaction (one consistent read) and the stream.
+ */
+@Slf4j
+@Component
+public class CsvExporter {
+
+    private static final int WRITE_BUFFER_CHARS = 64 * 1024;
+
+    /**
+     * Larger buffers (outlier batches) are dropped instead of pooled.
+     */
+    private static final int MAX_POOLED_BUFFER_CHARS = 4 * 1024 * 1024;
+
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final ExportSchemaResolver schemaResolver;
+    private final ResponsePayloadCodec payloadCodec;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final int maxInFlight;
+
+    public CsvExporter(FormResponseJdbcRepository jdbcRepository,
+            ExportSchemaResolver schemaResolver,
+            ResponsePayloadCodec payloadCodec,
+            @Value("${export.pipeline.workers:0}") int workerCount,
+            @Value("${export.pipeline.batch-size:500}") int batchSize,
+            @Value("${export.pipeline.max-in-flight:0}") int maxInFlight) {
+        this.jdbcRepository = jdbcRepository;
+        this.schemaResolver = schemaResolver;
+        this.payloadCodec = payloadCodec;
+
+        // 0 = one worker per core; 0 in-flight = two batches per worker
+        int threads = workerCount > 0 ? workerCount : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "export-worker-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : threads * 2;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * @param formIds exported forms (one form, or all versions of one), newest first
+     * @return number of data rows written
+     */
+    public long export(List<Long> formIds, OutputStream out) throws IOException {
+        return export(formIds, out, new AtomicLong());
+    }
+
+    /**
+     * @param progress advanced as rows are read from the cursor (export jobs)
+     */
+    public long export(List<Long> formIds, OutputStream out, AtomicLong progress) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_CHARS);
+
+        ExportColumns columns = schemaResolver.resolve(formIds);
+        if (columns == null) {
+            writer.write("No responses");
+            writer.flush();
+            return 0;
+        }
+
+        writer.write(ExportColumns.SUBMITTED_AT);
+        writer.write(',');
+        writer.write(ExportColumns.SUBMISSION_IP);
+        for (ExportColumns.Column column : columns.columns()) {
+            writer.write(',');
+            writer.write(column.fieldKey());
+        }
+        writer.write('\n');
+
+        Pipeline pipeline = new Pipeline(writer, columns, progress);
+        try {
+            jdbcRepository.streamForExport(formIds, pipeline::accept);
+            pipeline.finish();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pipeline.cancel();
+        }
+
+        writer.flush();
+        log.debug("Exported {} responses of forms {}", pipeline.rows, formIds);
+        return pipeline.rows;
+    }
+
+    /**
+     * State of one export. Everything except {@link #format} runs on the
+     * reader thread; workers only see their own batch and buffer.
+     */
+    private final class Pipeline {
+
+        private final Writer writer;
+        private final ExportColumns columns;
+        private final AtomicLong progress;
+        private final ArrayDeque<Future<StringBuilder>> inFlight = new ArrayDeque<>();
+        private final ArrayDeque<StringBuilder> buffers = new ArrayDeque<>();
+        private final char[] copyBuffer = new char[WRITE_BUFFER_CHARS];
+        private List<ExportRow> batch = new ArrayList<>(batchSize);
+        private long rows;
+
+        private Pipeline(Writer writer, ExportColumns columns, AtomicLong progress) {
+            this.writer = writer;
+            this.columns = columns;
+            this.progress = progress;
+        }
+
+        private void accept(ExportRow row) {
+            batch.add(row);
+            if (batch.size() >= batchSize) {
+                dispatch();
+            }
+        }
+
+        private void finish() {
+            if (!batch.isEmpty()) {
+                dispatch();
+            }
+            while (!inFlight.isEmpty()) {
+                writeOldest();
+            }
+        }
+
+        private void cancel() {
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+        }
+
+        private void dispatch() {
+            if (inFlight.size() >= maxInFlight) {
+                writeOldest();
+            }
+            List<ExportRow> rowsToFormat = batch;
+            StringBuilder buffer = buffers.isEmpty() ? new StringBuilder(8192) : buffers.poll();
+            inFlight.add(workers.submit(() -> format(rowsToFormat, buffer)));
+            rows += rowsToFormat.size();
+            progress.addAndGet(rowsToFormat.size());
+            batch = new ArrayList<>(batchSize);
+        }
+
+        private void writeOldest() {
+            StringBuilder formatted = await(inFlight.poll());
+            try {
+                for (int start = 0; start < formatted.length(); start += copyBuffer.length) {
+                    int end = Math.min(formatted.length(), start + copyBuffer.length);
+                    formatted.getChars(start, end, copyBuffer, 0);
+                    writer.write(copyBuffer, 0, end - start);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (formatted.capacity() <= MAX_POOLED_BUFFER_CHARS) {
+                formatted.setLength(0);
+                buffers.push(formatted);
+            }
+        }
+
+        private StringBuilder await(Future<StringBuilder> future) {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while exporting responses", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException("Failed to export responses", e.getCause());
+            }
+        }
+
+        /**
+         * Worker side: decode and format one batch into {@code out}.
+         */
+        private StringBuilder format(List<ExportRow> rowsToFormat, StringBuilder out) throws IOException {
+            String[] cells = new String[columns.size()];
+            for (ExportRow row : rowsToFormat) {
+                Arrays.fill(cells, null);
+                columns.decode(payloadCodec, row.payload(), cells);
+
+                appendCsv(out, row.submittedAt() != null ? row.submittedAt().toString() : null);
+                out.append(',');
+                appendCsv(out, row.submissionIp());
+                for (String cell : cells) {
+                    out.append(',');
+                    appendCsv(out, cell);
+                }
+                out.append('\n');
+            }
+            return out;
+        }
+
+    }
+
+    /**
+     * Append one CSV cell, quoting only when needed.
+     */
+    private static void appendCsv(StringBuilder out, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
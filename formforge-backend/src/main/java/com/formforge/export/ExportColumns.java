@@ -0,0 +1,121 @@
+package com.formforge.export;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.storage.StoredPayload;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Field columns of an export, in schema order, and the decoder that
+ * spreads one response payload into them.
+ *
+ * Immutable once built: shared by export workers without locking.
+ */
+public final class ExportColumns {
+
+    /**
+     * Metadata columns every export starts with; schema fields with these
+     * keys are folded into them.
+     */
+    public static final String SUBMITTED_AT = "submittedAt";
+    public static final String SUBMISSION_IP = "submissionIp";
+
+    private static final Set<String> RESERVED_KEYS = Set.of(SUBMITTED_AT, SUBMISSION_IP);
+    private static final TypeReference<List<Map<String, Object>>> SCHEMA_TYPE = new TypeReference<>() {
+    };
+
+    private final List<Column> columns;
+    private final Map<String, Integer> indexByKey;
+
+    private ExportColumns(List<Column> columns) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.indexByKey = new HashMap<>(columns.size() * 2);
+        for (int i = 0; i < columns.size(); i++) {
+            indexByKey.put(columns.get(i).fieldKey(), i);
+        }
+    }
+
+    /**
+     * Columns of a schema snapshot (the JSON written by PublishedFormCache).
+     * Fields without a known type are exported as TEXT.
+     */
+    public static ExportColumns fromSnapshot(ObjectMapper objectMapper, String schemaJson) throws IOException {
+        List<Column> columns = new ArrayList<>();
+        Set<String> seen = new HashSet<>(RESERVED_KEYS);
+        for (Map<String, Object> field : objectMapper.readValue(schemaJson, SCHEMA_TYPE)) {
+            String key = (String) field.get("fieldKey");
+            if (key != null && seen.add(key)) {
+                columns.add(new Column(key, fieldType(field.get("fieldType"))));
+            }
+        }
+        return new ExportColumns(columns);
+    }
+
+    /**
+     * Union of several layouts, by fieldKey. Columns keep the position of
+     * their first occurrence, so pass the newest layout first. A key whose
+     * type differs between layouts is exported as TEXT.
+     */
+    public static ExportColumns merge(List<ExportColumns> layouts) {
+        Map<String, Column> merged = new LinkedHashMap<>();
+        for (ExportColumns layout : layouts) {
+            for (Column column : layout.columns) {
+                merged.merge(column.fieldKey(), column, (first, other) -> first.fieldType() == other.fieldType()
+                        ? first
+                        : new Column(first.fieldKey(), FieldType.TEXT));
+            }
+        }
+        return new ExportColumns(new ArrayList<>(merged.values()));
+    }
+
+    public static ExportColumns empty() {
+        return new ExportColumns(new ArrayList<>());
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    /**
+     * Stream a stored payload into column slots; keys outside the layout are
+     * skipped without being materialized. {@code cells} must be cleared by
+     * the caller.
+     */
+    public void decode(ResponsePayloadCodec codec, StoredPayload payload, String[] cells) throws IOException {
+        codec.forEachValue(payload, (key, value) -> {
+            Integer column = indexByKey.get(key);
+            if (column != null) {
+                cells[column] = value;
+            }
+        });
+    }
+
+    private static FieldType fieldType(Object name) {
+        if (name instanceof String s) {
+            try {
+                return FieldType.valueOf(s);
+            } catch (IllegalArgumentException e) {
+                // Type removed since the snapshot was taken
+            }
+        }
+        return FieldType.TEXT;
+    }
+
+    public record Column(String fieldKey, FieldType fieldType) {
+    }
+}
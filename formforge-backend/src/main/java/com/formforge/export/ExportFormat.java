@@ -0,0 +1,39 @@
+package com.formforge.export;
+
+/**
+ * File formats of spooled export jobs.
+ */
+public enum ExportFormat {
+
+    /**
+     * CSV, gzip-compressed on disk (and downloaded as .csv.gz).
+     */
+    CSV("application/gzip", ".csv.gz", true),
+
+    /**
+     * Parquet pages are already dictionary/RLE encoded; the file is stored as is.
+     */
+    PARQUET("application/vnd.apache.parquet", ".parquet", false);
+
+    private final String contentType;
+    private final String extension;
+    private final boolean gzipped;
+
+    ExportFormat(String contentType, String extension, boolean gzipped) {
+        this.contentType = contentType;
+        this.extension = extension;
+        this.gzipped = gzipped;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public boolean gzipped() {
+        return gzipped;
+    }
+}
@@ -0,0 +1,74 @@
+package com.formforge.export;
+
+import com.formforge.repository.FormResponseJdbcRepository.ContentVersion;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One asynchronous export and, once DONE, its spooled file.
+ *
+ * Written by its export-job worker, read by status polls and downloads.
+ */
+@Getter
+public class ExportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED
+    }
+
+    private final String id;
+    private final Long formId;
+    private final Long userId;
+    private final ExportFormat format;
+    private final boolean allVersions;
+    private final List<Long> formIds;
+
+    /**
+     * Responses covered by this export; the file is reused while it matches.
+     */
+    private final ContentVersion contentVersion;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final AtomicLong rowsWritten = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime completedAt;
+    private volatile Path file;
+    private volatile long fileSize;
+    private volatile String error;
+
+    public ExportJob(String id, Long formId, Long userId, ExportFormat format, boolean allVersions,
+            List<Long> formIds, ContentVersion contentVersion) {
+        this.id = id;
+        this.formId = formId;
+        this.userId = userId;
+        this.format = format;
+        this.allVersions = allVersions;
+        this.formIds = formIds;
+        this.contentVersion = contentVersion;
+    }
+
+    public void start() {
+        status = Status.RUNNING;
+    }
+
+    public void complete(Path file, long fileSize) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.DONE;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        this.completedAt = LocalDateTime.now();
+        this.status = Status.FAILED;
+    }
+
+    public String fileName() {
+        return "responses" + (allVersions ? "-all-versions" : "") + format.extension();
+    }
+}
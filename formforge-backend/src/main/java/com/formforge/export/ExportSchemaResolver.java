@@ -0,0 +1,109 @@
+package com.formforge.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.SchemaSource;
+import com.formforge.service.SchemaSnapshotService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column layout of an export over one or more form versions.
+ *
+ * UNION SCHEMA:
+ * - Every distinct snapshot referenced by the exported responses
+ * contributes its fields, so fields added or removed between versions
+ * all get a column
+ * - Newer versions come first and decide the column order
+ *
+ * CACHE: a snapshot is immutable, so its parsed layout is cached by
+ * snapshot id. Legacy inline snapshots are parsed per export.
+ */
+@Component
+public class ExportSchemaResolver {
+
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final SchemaSnapshotService schemaSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final Cache<Long, ExportColumns> columnsBySnapshotId;
+
+    public ExportSchemaResolver(FormResponseJdbcRepository jdbcRepository,
+            SchemaSnapshotService schemaSnapshotService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${cache.schema-snapshots.max-size:5000}") long maxSize) {
+        this.jdbcRepository = jdbcRepository;
+        this.schemaSnapshotService = schemaSnapshotService;
+        this.objectMapper = objectMapper;
+        this.columnsBySnapshotId = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, columnsBySnapshotId, "export_snapshot_columns");
+    }
+
+    /**
+     * @param formIds exported forms, newest version first
+     * @return merged layout, or null when none of the forms has responses
+     */
+    public ExportColumns resolve(List<Long> formIds) throws IOException {
+        List<SchemaSource> sources = new ArrayList<>(jdbcRepository.findSchemaSources(formIds));
+        if (sources.isEmpty()) {
+            return null;
+        }
+
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < formIds.size(); i++) {
+            rank.put(formIds.get(i), i);
+        }
+        sources.sort(Comparator.comparing((SchemaSource source) -> rank.get(source.formId()))
+                .thenComparing(SchemaSource::sampleId, Comparator.reverseOrder()));
+
+        Set<Long> legacySamples = new LinkedHashSet<>();
+        for (SchemaSource source : sources) {
+            if (source.snapshotId() == null) {
+                legacySamples.add(source.sampleId());
+            }
+        }
+        Map<Long, String> inlineSnapshots = jdbcRepository.findInlineSnapshots(legacySamples);
+
+        List<ExportColumns> layouts = new ArrayList<>(sources.size());
+        Set<Long> seenSnapshots = new LinkedHashSet<>();
+        for (SchemaSource source : sources) {
+            if (source.snapshotId() != null) {
+                if (seenSnapshots.add(source.snapshotId())) {
+                    layouts.add(snapshotColumns(source.snapshotId()));
+                }
+            } else {
+                String inline = inlineSnapshots.get(source.sampleId());
+                layouts.add(ExportColumns.fromSnapshot(objectMapper, inline != null ? inline : "[]"));
+            }
+        }
+        return layouts.size() == 1 ? layouts.get(0) : ExportColumns.merge(layouts);
+    }
+
+    private ExportColumns snapshotColumns(Long snapshotId) throws IOException {
+        try {
+            return columnsBySnapshotId.get(snapshotId, id -> {
+                try {
+                    return ExportColumns.fromSnapshot(objectMapper, schemaSnapshotService.getSchemaJson(id));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
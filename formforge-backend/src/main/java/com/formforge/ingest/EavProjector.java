@@ -0,0 +1,366 @@
+package com.formforge.ingest;
+
+import com.formforge.cache.FieldSummaryCache;
+import com.formforge.entity.FormField;
+import com.formforge.entity.ProjectionWatermark;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.repository.FormFieldRepository;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.ProjectionRow;
+import com.formforge.repository.FormResponseRepository;
+import com.formforge.repository.ProjectionWatermarkRepository;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.util.TransactionCallbacks;
+import com.formforge.util.TypedValueMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous EAV projection (ingest.projection.async).
+ *
+ * WHY:
+ * - Hybrid storage writes response_json AND one field_values row per field
+ * in the submit transaction, doubling write amplification on the hot path
+ * - In async mode submit writes only form_responses; this projector builds
+ * field_values from response_json in batches, off the request path
+ *
+ * PROGRESS TRACKING:
+ * - Per-form high-water mark (projection_watermarks), advanced in the same
+ * transaction as the field_values inserts, so restarts resume exactly
+ * - field_values inserts skip existing (response_id, field_id) pairs, so
+ * re-projecting a batch is harmless
+ * - Auto-increment ids commit out of order under concurrency: rows younger
+ * than {@code settle-delay} are left for the next pass rather than letting
+ * the watermark jump over a still-uncommitted smaller id
+ *
+ * KNOWN HEADS:
+ * - Newest response id per form, reported by ResponseWriter on every write
+ * - Reconciled from the DB on startup and every {@code rescan-interval}
+ * (covers other nodes and rolled-back writes)
+ *
+ * READERS: status(formId) tells filters/analytics whether field_values is
+ * complete for a form. In synchronous mode it always is.
+ *
+ * METRICS:
+ * - formforge.projection.lag: age of the oldest unprojected write
+ * - formforge.projection.forms_behind: forms with unprojected responses
+ * - formforge.projection.batch / .projected: batch latency and row count
+ */
+@Slf4j
+@Component
+public class EavProjector {
+
+    @Value("${ingest.projection.async:false}")
+    private boolean async;
+
+    @Value("${ingest.projection.batch-size:500}")
+    private int batchSize;
+
+    @Value("${ingest.projection.interval:500ms}")
+    private Duration interval;
+
+    @Value("${ingest.projection.settle-delay:5s}")
+    private Duration settleDelay;
+
+    @Value("${ingest.projection.rescan-interval:60s}")
+    private Duration rescanInterval;
+
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final FormResponseRepository responseRepository;
+    private final FormFieldRepository formFieldRepository;
+    private final ProjectionWatermarkRepository watermarkRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ResponsePayloadCodec payloadCodec;
+    private final FieldSummaryCache fieldSummaryCache;
+    private final MeterRegistry meterRegistry;
+
+    /** formId -> newest known response id */
+    private final Map<Long, Long> heads = new ConcurrentHashMap<>();
+    /** formId -> last projected response id */
+    private final Map<Long, Long> watermarks = new ConcurrentHashMap<>();
+    /** formId -> when the form fell behind (lag metric) */
+    private final Map<Long, LocalDateTime> behindSince = new ConcurrentHashMap<>();
+    /** Field lookups per form; FormFieldService invalidates them when fields change */
+    private final LoadingCache<Long, Map<String, ProjectedField>> fieldsByForm;
+
+    private Timer batchTimer;
+    private Counter projectedCounter;
+    private Thread projectorThread;
+    private volatile boolean running;
+
+    public EavProjector(FormResponseJdbcRepository jdbcRepository,
+            FormResponseRepository responseRepository,
+            FormFieldRepository formFieldRepository,
+            ProjectionWatermarkRepository watermarkRepository,
+            PlatformTransactionManager transactionManager,
+            ResponsePayloadCodec payloadCodec,
+            FieldSummaryCache fieldSummaryCache,
+            MeterRegistry meterRegistry) {
+        this.jdbcRepository = jdbcRepository;
+        this.responseRepository = responseRepository;
+        this.formFieldRepository = formFieldRepository;
+        this.watermarkRepository = watermarkRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.payloadCodec = payloadCodec;
+        this.fieldSummaryCache = fieldSummaryCache;
+        this.meterRegistry = meterRegistry;
+        this.fieldsByForm = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                // Bounds staleness after field edits made through another node
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build(this::loadFields);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!async) {
+            return;
+        }
+        batchTimer = Timer.builder("formforge.projection.batch")
+                .description("Latency of projecting one batch of responses into field_values")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        projectedCounter = Counter.builder("formforge.projection.projected")
+                .description("Responses projected into field_values")
+                .register(meterRegistry);
+        Gauge.builder("formforge.projection.lag", this, EavProjector::lagMillis)
+                .description("Age of the oldest response not yet projected")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("formforge.projection.forms_behind", behindSince, Map::size)
+                .description("Forms whose field_values are not yet complete")
+                .register(meterRegistry);
+
+        running = true;
+        projectorThread = new Thread(this::projectLoop, "eav-projector");
+        projectorThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        projectorThread.interrupt();
+        projectorThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * True when submit must skip field_values and leave them to the projector.
+     */
+    public boolean isAsync() {
+        return async;
+    }
+
+    /**
+     * Called by ResponseWriter for every inserted response (async mode only).
+     */
+    public void recordWrite(Long formId, Long responseId) {
+        heads.merge(formId, responseId, Math::max);
+        behindSince.putIfAbsent(formId, LocalDateTime.now());
+    }
+
+    /**
+     * Drop a form's cached field lookup now and again once the surrounding
+     * transaction commits, so later projections map keys to the new fields.
+     */
+    public void invalidateFields(Long formId) {
+        fieldsByForm.invalidate(formId);
+        TransactionCallbacks.afterCommit(() -> fieldsByForm.invalidate(formId));
+    }
+
+    /**
+     * Whether field_values is complete for a form.
+     */
+    public ProjectionStatus status(Long formId) {
+        if (!async) {
+            return new ProjectionStatus(formId, false, null, null, true);
+        }
+        Long head = heads.get(formId);
+        Long watermark = watermarks.get(formId);
+        boolean caughtUp = head == null || (watermark != null && watermark >= head);
+        return new ProjectionStatus(formId, true, watermark, head, caughtUp);
+    }
+
+    public long lagMillis() {
+        LocalDateTime now = LocalDateTime.now();
+        return behindSince.values().stream()
+                .mapToLong(since -> Duration.between(since, now).toMillis())
+                .max()
+                .orElse(0);
+    }
+
+    private void projectLoop() {
+        long nextRescan = 0;
+        long backoff = interval.toMillis();
+        while (running) {
+            try {
+                if (System.currentTimeMillis() >= nextRescan) {
+                    reconcile();
+                    nextRescan = System.currentTimeMillis() + rescanInterval.toMillis();
+                }
+                for (Long formId : List.copyOf(behindSince.keySet())) {
+                    projectForm(formId);
+                }
+                backoff = interval.toMillis();
+                Thread.sleep(interval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("EAV projection pass failed, retrying in {}ms: {}", backoff, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                backoff = Math.min(backoff * 2, TimeUnit.SECONDS.toMillis(30));
+            }
+        }
+    }
+
+    /**
+     * Reload watermarks and heads from the DB. Heads are replaced, not merged,
+     * so ids of rolled-back writes stop counting as pending.
+     */
+    private void reconcile() {
+        for (ProjectionWatermark watermark : watermarkRepository.findAll()) {
+            watermarks.merge(watermark.getFormId(), watermark.getLastResponseId(), Math::max);
+        }
+        for (Object[] row : responseRepository.findLatestIdPerForm()) {
+            Long formId = (Long) row[0];
+            Long head = (Long) row[1];
+            heads.put(formId, head);
+            if (watermarks.getOrDefault(formId, 0L) < head) {
+                behindSince.putIfAbsent(formId, LocalDateTime.now());
+            }
+        }
+        for (Iterator<Long> it = behindSince.keySet().iterator(); it.hasNext();) {
+            Long formId = it.next();
+            if (watermarks.getOrDefault(formId, 0L) >= heads.getOrDefault(formId, 0L)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Project batches for one form until it is caught up or only unsettled
+     * rows remain.
+     */
+    private void projectForm(Long formId) {
+        while (running) {
+            long watermark = watermarks.getOrDefault(formId, 0L);
+            List<ProjectionRow> rows = jdbcRepository.findForProjection(formId, watermark, batchSize);
+            List<ProjectionRow> settled = settledPrefix(rows);
+
+            if (!settled.isEmpty()) {
+                long newWatermark = settled.get(settled.size() - 1).id();
+                batchTimer.record(() -> transactionTemplate.executeWithoutResult(tx -> {
+                    Map<Long, List<PreparedSubmission.Value>> values = project(formId, settled);
+                    jdbcRepository.insertFieldValues(values);
+                    watermarkRepository.advance(formId, newWatermark);
+                    fieldSummaryCache.recordValues(formId, values);
+                }));
+                watermarks.merge(formId, newWatermark, Math::max);
+                projectedCounter.increment(settled.size());
+            }
+
+            if (watermarks.getOrDefault(formId, 0L) >= heads.getOrDefault(formId, 0L)) {
+                behindSince.remove(formId);
+                // A write may have landed between the check and the removal
+                if (watermarks.getOrDefault(formId, 0L) < heads.getOrDefault(formId, 0L)) {
+                    behindSince.putIfAbsent(formId, LocalDateTime.now());
+                }
+                return;
+            }
+            if (settled.size() < rows.size() || rows.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rows up to (not including) the first one younger than the settle delay.
+     */
+    private List<ProjectionRow> settledPrefix(List<ProjectionRow> rows) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(settleDelay);
+        for (int i = 0; i < rows.size(); i++) {
+            LocalDateTime createdAt = rows.get(i).createdAt();
+            if (createdAt != null && createdAt.isAfter(cutoff)) {
+                return rows.subList(0, i);
+            }
+        }
+        return rows;
+    }
+
+    private Map<Long, List<PreparedSubmission.Value>> project(Long formId, List<ProjectionRow> rows) {
+        Map<String, ProjectedField> fields = fieldsByForm.get(formId);
+        Map<Long, List<PreparedSubmission.Value>> valuesByResponse = new LinkedHashMap<>();
+
+        for (ProjectionRow row : rows) {
+            List<PreparedSubmission.Value> values = new ArrayList<>(fields.size());
+            try {
+                payloadCodec.forEachValue(row.payload(), (key, value) -> {
+                    ProjectedField field = fields.get(key);
+                    if (field == null || value == null) {
+                        return;
+                    }
+                    TypedValueMapper.TypedValue typed = TypedValueMapper.mapValue(field.fieldType(), value);
+                    if (typed != null) {
+                        values.add(new PreparedSubmission.Value(field.id(), typed));
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Skipping unreadable payload of response {}", row.id());
+                continue;
+            }
+            valuesByResponse.put(row.id(), values);
+        }
+        return valuesByResponse;
+    }
+
+    private Map<String, ProjectedField> loadFields(Long formId) {
+        Map<String, ProjectedField> fields = new HashMap<>();
+        for (FormField field : formFieldRepository.findByFormIdAndIsDeletedFalseOrderByDisplayOrderAsc(formId)) {
+            fields.put(field.getFieldKey(), new ProjectedField(field.getId(), field.getFieldType()));
+        }
+        return fields;
+    }
+
+    private record ProjectedField(Long id, FieldType fieldType) {
+    }
+
+    /**
+     * @param async       false when submit writes field_values itself
+     * @param watermark   last projected response id (null if none yet)
+     * @param latestId    newest known response id (null if none)
+     * @param caughtUp    field_values is complete for every known response
+     */
+    public record ProjectionStatus(Long formId, boolean async, Long watermark, Long latestId, boolean caughtUp) {
+    }
+}
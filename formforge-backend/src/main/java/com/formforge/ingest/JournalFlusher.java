@@ -0,0 +1,171 @@
+package com.formforge.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background drain of the submission journal into MySQL.
+ *
+ * - Batches up to {@code flush-batch-size} durable records per transaction
+ * - Checkpoints the journal only after the transaction commits
+ * - Transient DB failures are retried with backoff (nothing is dropped)
+ * - Batches that hit a permanent error are split so one bad record
+ * cannot block the journal; that record goes to the dead-letter log
+ *
+ * METRICS:
+ * - formforge.ingest.journal.pending: queue depth
+ * - formforge.ingest.journal.lag: age of the oldest unflushed submission
+ * - formforge.ingest.journal.flush: batch flush latency
+ */
+@Slf4j
+@Component
+public class JournalFlusher {
+
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    @Value("${ingest.journal.flush-batch-size:500}")
+    private int batchSize;
+
+    @Value("${ingest.journal.flush-interval:200ms}")
+    private Duration flushInterval;
+
+    private final SubmissionJournal journal;
+    private final ResponseWriter responseWriter;
+    private final MeterRegistry meterRegistry;
+
+    private Timer flushTimer;
+    private Counter flushedCounter;
+    private Counter deadLetterCounter;
+    private Thread flusherThread;
+    private volatile boolean running;
+    private volatile LocalDateTime inFlightOldest;
+
+    public JournalFlusher(SubmissionJournal journal, ResponseWriter responseWriter, MeterRegistry meterRegistry) {
+        this.journal = journal;
+        this.responseWriter = responseWriter;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!journal.isEnabled()) {
+            return;
+        }
+        flushTimer = Timer.builder("formforge.ingest.journal.flush")
+                .description("Latency of flushing one journal batch to the database")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        flushedCounter = Counter.builder("formforge.ingest.journal.flushed")
+                .description("Submissions flushed from the journal")
+                .register(meterRegistry);
+        deadLetterCounter = Counter.builder("formforge.ingest.journal.dead_lettered")
+                .description("Submissions the database permanently rejected")
+                .register(meterRegistry);
+        Gauge.builder("formforge.ingest.journal.lag", this, JournalFlusher::lagMillis)
+                .description("Age of the oldest submission not yet flushed")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+
+        running = true;
+        flusherThread = new Thread(this::flushLoop, "submission-journal-flusher");
+        flusherThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        flusherThread.interrupt();
+        flusherThread.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    public long lagMillis() {
+        LocalDateTime oldest = inFlightOldest != null ? inFlightOldest : journal.oldestDurableSubmittedAt();
+        return oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0;
+    }
+
+    private void flushLoop() {
+        List<SubmissionJournal.JournalRecord> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                SubmissionJournal.JournalRecord first = journal.pollDurable(flushInterval);
+                if (first == null) {
+                    continue;
+                }
+                batch.clear();
+                batch.add(first);
+                journal.drainDurable(batch, batchSize - 1);
+
+                inFlightOldest = first.submission().submittedAt();
+                flush(batch);
+                inFlightOldest = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void flush(List<SubmissionJournal.JournalRecord> batch) throws InterruptedException {
+        long backoff = 100;
+        while (running) {
+            try {
+                write(batch);
+                return;
+            } catch (NonTransientDataAccessException e) {
+                if (batch.size() > 1) {
+                    log.warn("Journal batch of {} rejected; retrying records individually", batch.size());
+                    for (SubmissionJournal.JournalRecord record : batch) {
+                        flush(List.of(record));
+                    }
+                    return;
+                }
+                deadLetter(batch.get(0), e);
+                return;
+            } catch (Exception e) {
+                log.warn("Journal flush failed, retrying in {}ms: {}", backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+        throw new InterruptedException("Flusher stopped");
+    }
+
+    private void write(List<SubmissionJournal.JournalRecord> batch) throws IOException {
+        List<PreparedSubmission> submissions = batch.stream()
+                .map(SubmissionJournal.JournalRecord::submission)
+                .toList();
+
+        flushTimer.record(() -> responseWriter.writeBatch(submissions));
+        journal.checkpoint(batch.get(batch.size() - 1).position());
+        flushedCounter.increment(batch.size());
+    }
+
+    private void deadLetter(SubmissionJournal.JournalRecord record, Exception cause) {
+        try {
+            journal.deadLetter(record, cause);
+            journal.checkpoint(record.position());
+            deadLetterCounter.increment();
+        } catch (IOException e) {
+            // Leave the checkpoint where it is; the record is replayed on restart
+            log.error("Failed to dead-letter submission {}", record.submission().submissionUid(), e);
+        }
+    }
+}
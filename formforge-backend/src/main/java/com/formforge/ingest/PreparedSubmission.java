@@ -0,0 +1,41 @@
+package com.formforge.ingest;
+
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A validated submission, resolved against a compiled form and ready to persist.
+ *
+ * Carries everything needed to write form_responses and field_values without
+ * touching JPA entities, so it can be written synchronously, batched, or
+ * serialized into the submission journal and replayed later.
+ *
+ * @param submissionUid    globally unique id; makes journal replay idempotent
+ * @param idempotencyKey   client-supplied Idempotency-Key, or null
+ * @param formId           published form version the submission targets
+ * @param formVersion      version of that form
+ * @param schemaSnapshotId shared schema snapshot reference
+ * @param submissionIp     client IP
+ * @param submittedAt      acceptance time (not flush time)
+ * @param responseJson     hybrid-storage JSON payload
+ * @param values           typed values, one per known non-blank field
+ */
+public record PreparedSubmission(
+        String submissionUid,
+        String idempotencyKey,
+        Long formId,
+        Integer formVersion,
+        Long schemaSnapshotId,
+        String submissionIp,
+        LocalDateTime submittedAt,
+        String responseJson,
+        List<Value> values) {
+
+    /**
+     * Submitted value for one field, already mapped to its typed column.
+     */
+    public record Value(Long fieldId, TypedValue typed) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.formforge.ingest;
+
+import com.formforge.cache.FieldSummaryCache;
+import com.formforge.columnar.ColumnarCache;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.service.FormStatsService;
+import com.formforge.sketch.FormSketchStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Persists prepared submissions through the JDBC bulk path.
+ *
+ * Round trips are constant per call, independent of field count or batch
+ * size (see FormResponseJdbcRepository). Batch writes are safe to repeat
+ * with the same submissions.
+ *
+ * In async projection mode only form_responses is written; EavProjector
+ * builds field_values from response_json afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+public class ResponseWriter {
+
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final EavProjector eavProjector;
+    private final FormStatsService formStatsService;
+    private final FieldSummaryCache fieldSummaryCache;
+    private final FormSketchStore sketchStore;
+    private final ColumnarCache columnarCache;
+
+    /**
+     * Direct write of a single submission.
+     * 2 round trips regardless of field count: the response insert (for its
+     * generated id) and one multi-row field_values insert (1 in async mode).
+     *
+     * @return generated response id
+     */
+    @Transactional
+    public Long write(PreparedSubmission submission) {
+        Long responseId = jdbcRepository.insertResponse(submission);
+        if (eavProjector.isAsync()) {
+            eavProjector.recordWrite(submission.formId(), responseId);
+        } else {
+            jdbcRepository.insertFieldValues(submission, responseId);
+            fieldSummaryCache.recordValues(submission.formId(), Map.of(responseId, submission.values()));
+        }
+        formStatsService.recordSubmissions(submission.formId(), 1, submission.submittedAt());
+        fieldSummaryCache.recordResponses(submission.formId(), List.of(responseId));
+        sketchStore.record(submission.formId(), Map.of(responseId, submission));
+        columnarCache.append(submission.formId(), Map.of(responseId, submission));
+        return responseId;
+    }
+
+    /**
+     * Batch write used by the journal flusher: 1 multi-row response insert,
+     * 2 id lookups and 1 multi-row field value insert per transaction.
+     *
+     * REPLAYS: rows already committed by an earlier, partially checkpointed
+     * flush are looked up first. They keep their ids in the result but are
+     * not reported again, so counters, summaries, sketches and the columnar
+     * cache see every response exactly once.
+     *
+     * @return submissionUid -> form_responses.id for every submission in the batch
+     */
+    @Transactional
+    public Map<String, Long> writeBatch(List<PreparedSubmission> submissions) {
+        List<String> uids = submissions.stream().map(PreparedSubmission::submissionUid).toList();
+        Set<String> committed = jdbcRepository.findIdsBySubmissionUid(uids).keySet();
+        jdbcRepository.insertResponses(submissions);
+        Map<String, Long> ids = jdbcRepository.findIdsBySubmissionUid(uids);
+
+        List<PreparedSubmission> inserted = committed.isEmpty() ? submissions : submissions.stream()
+                .filter(submission -> !committed.contains(submission.submissionUid()))
+                .toList();
+        if (eavProjector.isAsync()) {
+            for (PreparedSubmission submission : inserted) {
+                Long responseId = ids.get(submission.submissionUid());
+                if (responseId != null) {
+                    eavProjector.recordWrite(submission.formId(), responseId);
+                }
+            }
+        } else {
+            jdbcRepository.insertFieldValues(submissions, ids);
+        }
+        recordStats(inserted, ids);
+        return ids;
+    }
+
+    /**
+     * One counter, summary, sketch and columnar update per form in the
+     * batch, applied after commit. Submissions without an id (skipped as a
+     * duplicate idempotency key) are not counted.
+     */
+    private void recordStats(List<PreparedSubmission> inserted, Map<String, Long> ids) {
+        Map<Long, List<PreparedSubmission>> byForm = inserted.stream()
+                .collect(Collectors.groupingBy(PreparedSubmission::formId));
+        byForm.forEach((formId, forForm) -> {
+            Map<Long, PreparedSubmission> byResponseId = new LinkedHashMap<>();
+            Map<Long, List<PreparedSubmission.Value>> valuesByResponse = new LinkedHashMap<>();
+            for (PreparedSubmission submission : forForm) {
+                Long responseId = ids.get(submission.submissionUid());
+                if (responseId != null) {
+                    byResponseId.put(responseId, submission);
+                    valuesByResponse.put(responseId, submission.values());
+                }
+            }
+            if (byResponseId.isEmpty()) {
+                return;
+            }
+
+            formStatsService.recordSubmissions(formId, byResponseId.size(),
+                    byResponseId.values().stream().map(PreparedSubmission::submittedAt)
+                            .max(Comparator.naturalOrder()).orElseThrow());
+            fieldSummaryCache.recordResponses(formId, valuesByResponse.keySet());
+            if (!eavProjector.isAsync()) {
+                fieldSummaryCache.recordValues(formId, valuesByResponse);
+            }
+            sketchStore.record(formId, byResponseId);
+            columnarCache.append(formId, byResponseId);
+        });
+    }
+}
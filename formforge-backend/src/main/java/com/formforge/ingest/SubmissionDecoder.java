@@ -0,0 +1,196 @@
+package com.formforge.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formforge.cache.CompiledForm;
+import com.formforge.cache.CompiledForm.CompiledField;
+import com.formforge.exception.ValidationException;
+import com.formforge.util.TypedValueMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass decoder for the public submit body (SubmitResponseRequest shape).
+ *
+ * ONE PASS OVER THE TOKENS:
+ * - Each value is validated against its compiled field as soon as it is read
+ * - The typed EAV value is mapped in the same step
+ * - response_json is written through a JsonGenerator while parsing, so the
+ * request never exists as a Map, a JSON string and a list of typed values
+ * at the same time
+ *
+ * CANONICAL response_json:
+ * - Only fields of the published schema, in submission order
+ * - Unknown keys (stale clients, client-side helper keys) are dropped
+ *
+ * Bulk submissions still bind SubmitResponseRequest and go through
+ * ResponseService.prepareSubmission.
+ */
+@Component
+public class SubmissionDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public SubmissionDecoder(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Decode and validate a submit body against a compiled form.
+     * Field validation errors are collected, not thrown, so the caller can run
+     * bot protection first; malformed JSON throws ValidationException.
+     */
+    public DecodedSubmission decode(InputStream body, CompiledForm form) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new ValidationException("Request body must be a JSON object");
+            }
+
+            String honeypot = null;
+            String loadToken = null;
+            FieldsResult fields = null;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (name) {
+                    case "values" -> fields = token == JsonToken.VALUE_NULL ? null : decodeValues(parser, form);
+                    case "honeypot" -> honeypot = honeypot(parser, token);
+                    case "loadToken" -> {
+                        loadToken = token == JsonToken.VALUE_STRING ? parser.getText() : null;
+                        parser.skipChildren();
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+
+            if (fields == null) {
+                throw new ValidationException("Validation failed", Map.of("values", "Values are required"));
+            }
+            if (fields.valueCount == 0) {
+                throw new ValidationException("Validation failed",
+                        Map.of("values", "At least one field value is required"));
+            }
+            return new DecodedSubmission(honeypot, loadToken, fields.responseJson, fields.values, fields.errors);
+        } catch (JsonProcessingException e) {
+            throw new ValidationException("Malformed request body");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Any non-null honeypot counts as populated. An object or array is
+     * skipped whole, so its keys are never read as top-level keys, and is
+     * reported as its opening token.
+     */
+    private static String honeypot(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isStructStart()) {
+            parser.skipChildren();
+            return token.asString();
+        }
+        return parser.getText();
+    }
+
+    private FieldsResult decodeValues(JsonParser parser, CompiledForm form) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw new ValidationException("Validation failed", Map.of("values", "Values must be an object"));
+        }
+
+        List<CompiledField> schema = form.fields();
+        boolean[] seen = new boolean[schema.size()];
+        List<PreparedSubmission.Value> values = new ArrayList<>(schema.size());
+        Map<String, String> errors = null;
+        int valueCount = 0;
+
+        StringWriter json = new StringWriter(256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            generator.writeStartObject();
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                JsonToken token = parser.nextToken();
+                valueCount++;
+
+                if (token.isStructStart()) {
+                    parser.skipChildren();
+                    errors = putError(errors, key, "Must be a single value");
+                    continue;
+                }
+
+                CompiledField field = form.field(key);
+                if (field == null) {
+                    continue;
+                }
+                if (seen[field.position()]) {
+                    errors = putError(errors, key, "Duplicate value");
+                    continue;
+                }
+                seen[field.position()] = true;
+
+                String value = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                String error = field.validator().validate(value);
+                if (error != null) {
+                    errors = putError(errors, key, error);
+                    continue;
+                }
+
+                generator.writeStringField(key, value);
+                TypedValueMapper.TypedValue typed = TypedValueMapper.mapValue(field.fieldType(), value);
+                if (typed != null) {
+                    values.add(new PreparedSubmission.Value(field.id(), typed));
+                }
+            }
+
+            generator.writeEndObject();
+        }
+
+        // Fields absent from the body still have to pass their required check
+        for (CompiledField field : schema) {
+            if (!seen[field.position()]) {
+                String error = field.validator().validate(null);
+                if (error != null) {
+                    errors = putError(errors, field.fieldKey(), error);
+                }
+            }
+        }
+
+        return new FieldsResult(json.toString(), values, errors, valueCount);
+    }
+
+    private static Map<String, String> putError(Map<String, String> errors, String key, String message) {
+        if (errors == null) {
+            errors = new HashMap<>();
+        }
+        errors.put(key, message);
+        return errors;
+    }
+
+    private record FieldsResult(String responseJson, List<PreparedSubmission.Value> values,
+            Map<String, String> errors, int valueCount) {
+    }
+
+    /**
+     * Result of one decode pass.
+     *
+     * @param errors field key -> message, or null when every field is valid
+     */
+    public record DecodedSubmission(String honeypot, String loadToken, String responseJson,
+            List<PreparedSubmission.Value> values, Map<String, String> errors) {
+    }
+}
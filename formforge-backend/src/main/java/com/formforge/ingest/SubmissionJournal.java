@@ -0,0 +1,373 @@
+package com.formforge.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only submission journal (write-behind ingestion mode).
+ *
+ * LAYOUT:
+ * - {directory}/segment-{n}.log: records of [int length][int crc32][JSON bytes]
+ * - {directory}/checkpoint: "segment offset" of the last record flushed to MySQL
+ * - {directory}/dead-letter.log: records the DB permanently rejected
+ *
+ * GROUP COMMIT:
+ * - Request threads enqueue and wait on a future
+ * - A single writer thread drains everything queued, writes it and issues
+ * ONE fsync for the whole group before completing the futures
+ * - Throughput scales with concurrency instead of fsync latency
+ *
+ * RECOVERY:
+ * - On startup every record after the checkpoint is re-queued for flushing
+ * - A torn record (crash mid-write) ends replay of that segment
+ * - Writing always resumes in a fresh segment
+ * - Replayed records may already be in MySQL; the flush path is idempotent
+ * on submission_uid, so nothing is inserted twice
+ */
+@Slf4j
+@Component
+public class SubmissionJournal {
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 16 * 1024 * 1024;
+
+    @Value("${ingest.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${ingest.journal.directory:./data/journal}")
+    private Path directory;
+
+    @Value("${ingest.journal.segment-bytes:67108864}")
+    private long segmentBytes;
+
+    @Value("${ingest.journal.group-commit-max:1000}")
+    private int groupCommitMax;
+
+    @Value("${ingest.journal.max-pending:100000}")
+    private int maxPending;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final BlockingQueue<PendingAppend> appendQueue = new LinkedBlockingQueue<>();
+    private final BlockingQueue<JournalRecord> durableQueue = new LinkedBlockingQueue<>();
+
+    private Timer groupCommitTimer;
+    private Thread writerThread;
+    private volatile boolean running;
+    private FileChannel segment;
+    private long segmentId;
+    private long segmentSize;
+
+    public SubmissionJournal(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Position just past a record: (segment, end offset).
+     */
+    public record Position(long segment, long offset) {
+    }
+
+    /**
+     * A submission that is durable on disk and waiting to be flushed.
+     */
+    public record JournalRecord(PreparedSubmission submission, Position position) {
+    }
+
+    private record PendingAppend(PreparedSubmission submission, CompletableFuture<Position> future) {
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Files.createDirectories(directory);
+
+        Position checkpoint = readCheckpoint();
+        long lastSegment = recover(checkpoint);
+
+        openSegment(lastSegment + 1);
+        groupCommitTimer = Timer.builder("formforge.ingest.journal.group_commit")
+                .description("Time to write and fsync one group of journal records")
+                .register(meterRegistry);
+        Gauge.builder("formforge.ingest.journal.pending", this, SubmissionJournal::pendingCount)
+                .description("Submissions accepted but not yet flushed to the database")
+                .register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::writeLoop, "submission-journal-writer");
+        writerThread.start();
+        log.info("Submission journal started in {} ({} records to replay)", directory, durableQueue.size());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        segment.close();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * BACKPRESSURE: callers fall back to direct writes when the flusher is
+     * too far behind, keeping memory bounded.
+     */
+    public boolean hasCapacity() {
+        return running && pendingCount() < maxPending;
+    }
+
+    public int pendingCount() {
+        return appendQueue.size() + durableQueue.size();
+    }
+
+    /**
+     * Append a submission; the future completes once it is fsynced.
+     */
+    public CompletableFuture<Position> append(PreparedSubmission submission) {
+        CompletableFuture<Position> future = new CompletableFuture<>();
+        if (!running) {
+            future.completeExceptionally(new IllegalStateException("Submission journal is not running"));
+            return future;
+        }
+        appendQueue.add(new PendingAppend(submission, future));
+        return future;
+    }
+
+    /**
+     * Wait up to {@code timeout} for the next durable record.
+     */
+    public JournalRecord pollDurable(Duration timeout) throws InterruptedException {
+        return durableQueue.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void drainDurable(Collection<JournalRecord> target, int max) {
+        durableQueue.drainTo(target, max);
+    }
+
+    /**
+     * Submission time of the oldest durable record not yet picked up by the flusher.
+     */
+    public LocalDateTime oldestDurableSubmittedAt() {
+        JournalRecord head = durableQueue.peek();
+        return head != null ? head.submission().submittedAt() : null;
+    }
+
+    /**
+     * Mark everything up to {@code position} as flushed and drop fully flushed segments.
+     */
+    public void checkpoint(Position position) throws IOException {
+        Path tmp = directory.resolve("checkpoint.tmp");
+        Files.writeString(tmp, position.segment() + " " + position.offset());
+        Files.move(tmp, directory.resolve("checkpoint"),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        for (long id : listSegments()) {
+            if (id < position.segment()) {
+                Files.deleteIfExists(segmentPath(id));
+            }
+        }
+    }
+
+    /**
+     * Park a record the database permanently rejected so the flusher can move past it.
+     */
+    public synchronized void deadLetter(JournalRecord record, Exception cause) throws IOException {
+        String line = objectMapper.writeValueAsString(record.submission()) + System.lineSeparator();
+        Files.writeString(directory.resolve("dead-letter.log"), line,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        log.error("Submission {} moved to dead-letter log: {}", record.submission().submissionUid(),
+                cause.getMessage());
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> group = new ArrayList<>(groupCommitMax);
+        while (running || !appendQueue.isEmpty()) {
+            try {
+                PendingAppend first = appendQueue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.clear();
+                group.add(first);
+                appendQueue.drainTo(group, groupCommitMax - 1);
+                groupCommitTimer.record(() -> writeGroup(group));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeGroup(List<PendingAppend> group) {
+        List<JournalRecord> written = new ArrayList<>(group.size());
+        try {
+            for (PendingAppend append : group) {
+                byte[] payload = objectMapper.writeValueAsBytes(append.submission());
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+
+                ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+                buffer.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+                while (buffer.hasRemaining()) {
+                    segment.write(buffer);
+                }
+                segmentSize += HEADER_BYTES + payload.length;
+                written.add(new JournalRecord(append.submission(), new Position(segmentId, segmentSize)));
+            }
+            segment.force(false);
+        } catch (IOException e) {
+            log.error("Journal write failed; rolling to a new segment", e);
+            group.forEach(append -> append.future().completeExceptionally(e));
+            rollSegment();
+            return;
+        }
+
+        for (int i = 0; i < group.size(); i++) {
+            durableQueue.add(written.get(i));
+            group.get(i).future().complete(written.get(i).position());
+        }
+
+        if (segmentSize >= segmentBytes) {
+            rollSegment();
+        }
+    }
+
+    private void rollSegment() {
+        try {
+            segment.close();
+            openSegment(segmentId + 1);
+        } catch (IOException e) {
+            log.error("Failed to roll journal segment", e);
+            running = false;
+        }
+    }
+
+    private void openSegment(long id) throws IOException {
+        segment = FileChannel.open(segmentPath(id),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentId = id;
+        segmentSize = 0;
+    }
+
+    /**
+     * Re-queue every intact record after the checkpoint.
+     *
+     * @return highest segment id found on disk (or the checkpoint's)
+     */
+    private long recover(Position checkpoint) throws IOException {
+        long lastSegment = checkpoint.segment();
+        for (long id : listSegments()) {
+            lastSegment = Math.max(lastSegment, id);
+            if (id < checkpoint.segment()) {
+                continue;
+            }
+            long skipUntil = id == checkpoint.segment() ? checkpoint.offset() : 0;
+            replaySegment(id, skipUntil);
+        }
+        return lastSegment;
+    }
+
+    private void replaySegment(long id, long skipUntil) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segmentPath(id))))) {
+            long offset = 0;
+            while (true) {
+                int length;
+                int checksum;
+                try {
+                    length = in.readInt();
+                    checksum = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (length <= 0 || length > MAX_RECORD_BYTES) {
+                    log.warn("Corrupt journal record header in segment {} at {}; skipping remainder", id, offset);
+                    return;
+                }
+                byte[] payload = new byte[length];
+                try {
+                    in.readFully(payload);
+                } catch (EOFException e) {
+                    log.warn("Torn journal record in segment {} at {}; skipping remainder", id, offset);
+                    return;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if ((int) crc.getValue() != checksum) {
+                    log.warn("Journal checksum mismatch in segment {} at {}; skipping remainder", id, offset);
+                    return;
+                }
+
+                offset += HEADER_BYTES + length;
+                if (offset > skipUntil) {
+                    PreparedSubmission submission = objectMapper.readValue(payload, PreparedSubmission.class);
+                    durableQueue.add(new JournalRecord(submission, new Position(id, offset)));
+                }
+            }
+        }
+    }
+
+    private Position readCheckpoint() throws IOException {
+        Path file = directory.resolve("checkpoint");
+        if (!Files.exists(file)) {
+            return new Position(0, 0);
+        }
+        String[] parts = Files.readString(file, StandardCharsets.UTF_8).trim().split(" ");
+        return new Position(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    }
+
+    private List<Long> listSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Long.parseLong(
+                            name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private Path segmentPath(long id) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+}
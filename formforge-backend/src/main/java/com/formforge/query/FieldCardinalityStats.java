@@ -0,0 +1,91 @@
+package com.formforge.query;
+
+import com.formforge.repository.ResponseSearchRepository;
+import com.formforge.service.FormStatsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Per-field value statistics for the response query planner.
+ *
+ * GATHERED FROM THE INDEXES (ResponseSearchRepository):
+ * - rows: non-null values of the field's typed column (index-only count)
+ * - distinct: from a sample of {@code query.stats.sample-size} values;
+ * scaled up to the row count unless the field looks categorical
+ * - min / max: the two ends of the (field_id, value_*) index
+ *
+ * Cached per field for {@code query.stats.ttl}: estimates only steer the
+ * join order, so stale stats cost speed, never correctness.
+ */
+@Component
+public class FieldCardinalityStats {
+
+    private final ResponseSearchRepository searchRepository;
+    private final FormStatsService formStatsService;
+    private final Cache<String, Stats> cache;
+    private final int sampleSize;
+
+    public FieldCardinalityStats(ResponseSearchRepository searchRepository,
+            FormStatsService formStatsService,
+            MeterRegistry meterRegistry,
+            @Value("${query.stats.ttl:10m}") Duration ttl,
+            @Value("${query.stats.sample-size:10000}") int sampleSize) {
+        this.searchRepository = searchRepository;
+        this.formStatsService = formStatsService;
+        this.sampleSize = sampleSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "query_field_stats");
+    }
+
+    public Stats forField(Long fieldId, ValueColumn column) {
+        return cache.get("f" + fieldId + ":" + column, key -> {
+            long rows = searchRepository.countValues(fieldId, column);
+            long[] sample = searchRepository.sampleDistinct(fieldId, column, sampleSize);
+            double[] range = column.isOrdered() ? searchRepository.findValueRange(fieldId, column) : null;
+            return new Stats(rows, scaleDistinct(rows, sample[0], sample[1]),
+                    range != null ? range[0] : null, range != null ? range[1] : null);
+        });
+    }
+
+    /**
+     * Responses of a form over submitted_at; the count comes from form_stats.
+     */
+    public Stats forSubmittedAt(Long formId) {
+        Stats range = cache.get("r" + formId, key -> {
+            double[] bounds = searchRepository.findSubmittedAtRange(formId);
+            return new Stats(0, 0, bounds != null ? bounds[0] : null, bounds != null ? bounds[1] : null);
+        });
+        long rows = formStatsService.responseCount(formId);
+        return new Stats(rows, rows, range.min(), range.max());
+    }
+
+    /**
+     * Under half the sample distinct: treat as categorical (all values seen).
+     * Otherwise assume the distinct ratio holds for the whole field.
+     */
+    private static long scaleDistinct(long rows, long sampled, long sampleDistinct) {
+        if (sampled == 0) {
+            return 1;
+        }
+        if (sampled >= rows || sampleDistinct * 2 < sampled) {
+            return Math.max(sampleDistinct, 1);
+        }
+        return Math.max((long) ((double) sampleDistinct / sampled * rows), 1);
+    }
+
+    /**
+     * @param min null when unknown or not an ordered column (dates as epoch seconds)
+     */
+    public record Stats(long rows, long distinct, Double min, Double max) {
+    }
+}
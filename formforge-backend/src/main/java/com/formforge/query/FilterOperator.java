@@ -0,0 +1,52 @@
+package com.formforge.query;
+
+/**
+ * Comparison of a response filter. Renders itself as SQL over one typed
+ * column; values are always bound parameters.
+ */
+public enum FilterOperator {
+    EQ,
+    NE,
+    GT,
+    GTE,
+    LT,
+    LTE,
+    /** values = [from, to], both inclusive */
+    BETWEEN,
+    /** values = candidates (at most 100) */
+    IN,
+    /** Substring match (text only); cannot use an index */
+    CONTAINS,
+    /** Prefix match (text only); an index range scan */
+    STARTS_WITH;
+
+    /**
+     * Whether the operator can drive a query from a (field_id, value_*)
+     * index range. NE and CONTAINS match almost everything, or cannot seek.
+     */
+    public boolean isIndexable() {
+        return this != NE && this != CONTAINS;
+    }
+
+    public boolean isRange() {
+        return this == GT || this == GTE || this == LT || this == LTE || this == BETWEEN;
+    }
+
+    /**
+     * @param column qualified column, e.g. f1.value_number
+     * @param param  named parameter of the (first) value, without the colon
+     */
+    public String condition(String column, String param) {
+        return switch (this) {
+            case EQ -> column + " = :" + param;
+            case NE -> column + " <> :" + param;
+            case GT -> column + " > :" + param;
+            case GTE -> column + " >= :" + param;
+            case LT -> column + " < :" + param;
+            case LTE -> column + " <= :" + param;
+            case BETWEEN -> column + " BETWEEN :" + param + " AND :" + param + "b";
+            case IN -> column + " IN (:" + param + ")";
+            case CONTAINS, STARTS_WITH -> column + " LIKE :" + param;
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.formforge.query;
+
+import java.util.List;
+
+/**
+ * A compiled response search: which predicate drives the query, which ones
+ * are probed per candidate, and the keyset ordering.
+ *
+ * @param driver        field predicate read first from its (field_id, value_*)
+ *                      index, or null to scan the form's responses by submitted_at
+ * @param probes        other field predicates, checked per candidate through
+ *                      uk_response_field (response_id, field_id)
+ * @param responseConds predicates on form_responses columns (submittedAt)
+ * @param after         keyset position of the previous page, or null
+ * @param limit         rows to fetch (page size + 1)
+ * @param estimatedCost rows the chosen plan is expected to touch
+ */
+public record ResponseQueryPlan(
+        Long formId,
+        Predicate driver,
+        List<Predicate> probes,
+        List<Predicate> responseConds,
+        Sort sort,
+        Keyset after,
+        int limit,
+        long estimatedCost) {
+
+    /**
+     * Human-readable driver choice (returned with results, logged at debug).
+     */
+    public String describe() {
+        String access = driver != null
+                ? "field_values " + driver.fieldKey() + " " + driver.op() + " (~" + driver.estimatedRows() + " rows)"
+                : "form_responses by submitted_at";
+        return access + ", " + probes.size() + " probe(s), est. " + estimatedCost + " rows touched";
+    }
+
+    /**
+     * One filter, resolved against the form.
+     *
+     * @param fieldId       null for form_responses columns
+     * @param values        bound values, already typed (and LIKE-escaped)
+     * @param estimatedRows responses expected to match this predicate alone
+     */
+    public record Predicate(String fieldKey, Long fieldId, ValueColumn column, FilterOperator op,
+            List<Object> values, long estimatedRows) {
+    }
+
+    /**
+     * Order of results; the response id breaks ties in the same direction.
+     * Field sorts put responses without a value last.
+     *
+     * @param fieldId null when sorting by submittedAt
+     */
+    public record Sort(String fieldKey, Long fieldId, ValueColumn column, boolean descending) {
+    }
+
+    /**
+     * @param value typed sort value of the last row, or null if it had none
+     */
+    public record Keyset(Object value, long id) {
+    }
+}
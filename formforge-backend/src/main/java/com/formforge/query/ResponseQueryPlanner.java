@@ -0,0 +1,239 @@
+package com.formforge.query;
+
+import com.formforge.dto.request.ResponseSearchRequest;
+import com.formforge.entity.FormField;
+import com.formforge.exception.ValidationException;
+import com.formforge.query.FieldCardinalityStats.Stats;
+import com.formforge.query.ResponseQueryPlan.Keyset;
+import com.formforge.query.ResponseQueryPlan.Predicate;
+import com.formforge.query.ResponseQueryPlan.Sort;
+import com.formforge.repository.FormFieldRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a response search into a ResponseQueryPlan.
+ *
+ * RESOLVE: filter and sort keys are the form's field keys (typed column by
+ * fieldType) or "submittedAt"; values are parsed to the column type up front,
+ * so a bad value is a 400, not a silent empty result.
+ *
+ * PLAN (cost = rows touched):
+ * - Each field predicate is estimated from FieldCardinalityStats: rows /
+ * distinct for equality, the covered share of [min, max] for ranges
+ * - Driving from a predicate reads its matches from the (field_id, value_*)
+ * index, looks up each response and probes the other predicates
+ * - Driving from form_responses walks idx_responses_form_date; when sorted by
+ * submittedAt it stops after about limit / selectivity rows
+ * - The cheapest access path wins; predicates are assumed independent
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ResponseQueryPlanner {
+
+    public static final String SUBMITTED_AT = "submittedAt";
+
+    private static final int MAX_IN_VALUES = 100;
+
+    /** Share of rows assumed to match when stats cannot say */
+    private static final double UNKNOWN_SELECTIVITY = 1.0 / 3;
+    private static final double PREFIX_SELECTIVITY = 0.1;
+
+    private final FormFieldRepository formFieldRepository;
+    private final FieldCardinalityStats stats;
+
+    public ResponseQueryPlan plan(Long formId, ResponseSearchRequest request, int limit) {
+        Map<String, FormField> fields = new HashMap<>();
+        for (FormField field : formFieldRepository.findByFormIdAndIsDeletedFalseOrderByDisplayOrderAsc(formId)) {
+            fields.put(field.getFieldKey(), field);
+        }
+
+        Stats formStats = stats.forSubmittedAt(formId);
+        List<Predicate> fieldPredicates = new ArrayList<>();
+        List<Predicate> responseConds = new ArrayList<>();
+        double formRange = 1.0;
+        if (request.getFilters() != null) {
+            for (ResponseSearchRequest.Filter filter : request.getFilters()) {
+                if (SUBMITTED_AT.equals(filter.getField())) {
+                    Predicate predicate = compile(filter, null, ValueColumn.SUBMITTED_AT, formStats);
+                    responseConds.add(predicate);
+                    formRange = Math.min(formRange, share(predicate, formStats));
+                } else {
+                    FormField field = resolve(fields, filter.getField());
+                    ValueColumn column = ValueColumn.of(field.getFieldType());
+                    fieldPredicates.add(compile(filter, field.getId(), column, stats.forField(field.getId(), column)));
+                }
+            }
+        }
+
+        Sort sort = sort(request.getSort(), fields);
+        Keyset after = request.getCursor() != null && !request.getCursor().isEmpty()
+                ? keyset(request.getCursor(), sort)
+                : null;
+
+        // Form scan: every response in the submitted_at range, probing all field predicates
+        long formRows = Math.max((long) (formStats.rows() * formRange), 1);
+        double selectivity = 1.0;
+        for (Predicate predicate : fieldPredicates) {
+            selectivity *= Math.min((double) predicate.estimatedRows() / Math.max(formStats.rows(), 1), 1.0);
+        }
+        long scanned = sort.fieldId() == null
+                ? Math.min(formRows, (long) Math.ceil(limit / Math.max(selectivity, 1e-9)))
+                : formRows;
+        long bestCost = scanned * (1 + fieldPredicates.size());
+        Predicate driver = null;
+
+        // Predicate drive: all of its matches, one response lookup and one probe per other predicate each
+        for (Predicate predicate : fieldPredicates) {
+            if (!predicate.op().isIndexable()) {
+                continue;
+            }
+            long cost = predicate.estimatedRows() * (1 + fieldPredicates.size());
+            if (cost < bestCost) {
+                bestCost = cost;
+                driver = predicate;
+            }
+        }
+
+        List<Predicate> probes = new ArrayList<>(fieldPredicates);
+        probes.remove(driver);
+        // Cheapest probes first: most selective joins reject candidates earliest
+        probes.sort(Comparator.comparingLong(Predicate::estimatedRows));
+
+        ResponseQueryPlan plan = new ResponseQueryPlan(formId, driver, probes, responseConds, sort, after, limit,
+                bestCost);
+        log.debug("Response search plan for form {}: {}", formId, plan.describe());
+        return plan;
+    }
+
+    private static FormField resolve(Map<String, FormField> fields, String key) {
+        FormField field = fields.get(key);
+        if (field == null) {
+            throw new ValidationException("Unknown field: " + key);
+        }
+        return field;
+    }
+
+    private Predicate compile(ResponseSearchRequest.Filter filter, Long fieldId, ValueColumn column, Stats stats) {
+        FilterOperator op = filter.getOp();
+        String key = filter.getField();
+        List<Object> values = operands(filter, column);
+        if (op == FilterOperator.CONTAINS) {
+            values.set(0, "%" + escapeLike((String) values.get(0)) + "%");
+        } else if (op == FilterOperator.STARTS_WITH) {
+            values.set(0, escapeLike((String) values.get(0)) + "%");
+        }
+
+        Predicate unestimated = new Predicate(key, fieldId, column, op, values, stats.rows());
+        long estimate = (long) Math.ceil(stats.rows() * share(unestimated, stats));
+        return new Predicate(key, fieldId, column, op, values, estimate);
+    }
+
+    /**
+     * Check a filter's operator against its column and parse its values:
+     * [from, to] for BETWEEN, [candidates] for IN, otherwise [value]
+     * (CONTAINS / STARTS_WITH as the plain text).
+     *
+     * @throws ValidationException if the operator does not apply or a value does not parse
+     */
+    public static List<Object> operands(ResponseSearchRequest.Filter filter, ValueColumn column) {
+        FilterOperator op = filter.getOp();
+        String key = filter.getField();
+        if ((op == FilterOperator.CONTAINS || op == FilterOperator.STARTS_WITH) && column != ValueColumn.TEXT) {
+            throw new ValidationException(op + " applies to text fields only: " + key);
+        }
+        if (op.isRange() && !column.isOrdered()) {
+            throw new ValidationException(op + " applies to number and date fields only: " + key);
+        }
+
+        List<Object> values = new ArrayList<>();
+        switch (op) {
+            case BETWEEN -> {
+                List<String> bounds = filter.getValues();
+                if (bounds == null || bounds.size() != 2) {
+                    throw new ValidationException("BETWEEN needs exactly two values: " + key);
+                }
+                values.add(column.parse(key, bounds.get(0)));
+                values.add(column.parse(key, bounds.get(1)));
+            }
+            case IN -> {
+                List<String> candidates = filter.getValues();
+                if (candidates == null || candidates.isEmpty() || candidates.size() > MAX_IN_VALUES) {
+                    throw new ValidationException("IN needs 1 to " + MAX_IN_VALUES + " values: " + key);
+                }
+                List<Object> parsed = new ArrayList<>(candidates.size());
+                for (String candidate : candidates) {
+                    parsed.add(column.parse(key, candidate));
+                }
+                values.add(parsed);
+            }
+            default -> values.add(column.parse(key, filter.getValue()));
+        }
+        return values;
+    }
+
+    /**
+     * Estimated share of a field's values matching a predicate.
+     */
+    private static double share(Predicate predicate, Stats stats) {
+        double equal = 1.0 / Math.max(stats.distinct(), 1);
+        return switch (predicate.op()) {
+            case EQ -> equal;
+            case NE -> 1.0 - equal;
+            case IN -> Math.min(((List<?>) predicate.values().get(0)).size() * equal, 1.0);
+            case CONTAINS -> 1.0;
+            case STARTS_WITH -> PREFIX_SELECTIVITY;
+            case GT, GTE -> rangeShare(stats, ValueColumn.ordinal(predicate.values().get(0)), null);
+            case LT, LTE -> rangeShare(stats, null, ValueColumn.ordinal(predicate.values().get(0)));
+            case BETWEEN -> rangeShare(stats, ValueColumn.ordinal(predicate.values().get(0)),
+                    ValueColumn.ordinal(predicate.values().get(1)));
+        };
+    }
+
+    /**
+     * Uniform-distribution share of [min, max] covered by [from, to].
+     */
+    private static double rangeShare(Stats stats, Double from, Double to) {
+        if (stats.min() == null || stats.max() == null) {
+            return UNKNOWN_SELECTIVITY;
+        }
+        double low = from != null ? Math.max(from, stats.min()) : stats.min();
+        double high = to != null ? Math.min(to, stats.max()) : stats.max();
+        if (high < low) {
+            return 0;
+        }
+        double width = stats.max() - stats.min();
+        return width > 0 ? (high - low) / width : 1.0;
+    }
+
+    private static Sort sort(ResponseSearchRequest.Sort requested, Map<String, FormField> fields) {
+        if (requested == null || requested.getField() == null || SUBMITTED_AT.equals(requested.getField())) {
+            boolean descending = requested == null || requested.getDirection() != ResponseSearchRequest.Direction.ASC;
+            return new Sort(SUBMITTED_AT, null, ValueColumn.SUBMITTED_AT, descending);
+        }
+        FormField field = resolve(fields, requested.getField());
+        return new Sort(field.getFieldKey(), field.getId(), ValueColumn.of(field.getFieldType()),
+                requested.getDirection() != ResponseSearchRequest.Direction.ASC);
+    }
+
+    private static Keyset keyset(String encoded, Sort sort) {
+        SearchCursor cursor = SearchCursor.decode(encoded);
+        if (!sort.fieldKey().equals(cursor.sortKey())) {
+            throw new ValidationException("Cursor was issued for a different sort");
+        }
+        Object value = cursor.value() != null ? sort.column().parse(sort.fieldKey(), cursor.value()) : null;
+        return new Keyset(value, cursor.id());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,39 @@
+package com.formforge.query;
+
+import com.formforge.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset position in a response search: the sort key it was issued for,
+ * the last row's sort value and its id.
+ *
+ * Encoded as base64url("{id}\n{sortKey}\n{value}"), where value is empty
+ * for a row without one and otherwise prefixed with '='. Opaque to clients.
+ */
+public record SearchCursor(long id, String sortKey, String value) {
+
+    public String encode() {
+        String raw = id + "\n" + sortKey + "\n" + (value != null ? "=" + value : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws ValidationException if the cursor was not produced by {@link #encode()}
+     */
+    public static SearchCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int first = raw.indexOf('\n');
+            int second = raw.indexOf('\n', first + 1);
+            if (first <= 0 || second < 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            String value = second + 1 < raw.length() ? raw.substring(second + 2) : null;
+            return new SearchCursor(Long.parseLong(raw.substring(0, first)), raw.substring(first + 1, second), value);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.formforge.query;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.exception.ValidationException;
+import com.formforge.util.TypedValueMapper;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Typed column a filter or sort reads: one of the field_values value_*
+ * columns, or form_responses.submitted_at.
+ *
+ * Filter values are parsed with TypedValueMapper, the same rules that
+ * filled the columns on submit.
+ */
+public enum ValueColumn {
+    TEXT("value_text", FieldType.TEXT),
+    NUMBER("value_number", FieldType.NUMBER),
+    DATE("value_date", FieldType.DATE),
+    BOOLEAN("value_boolean", FieldType.CHECKBOX),
+    SUBMITTED_AT("submitted_at", FieldType.DATE);
+
+    private final String column;
+    private final FieldType parseAs;
+
+    ValueColumn(String column, FieldType parseAs) {
+        this.column = column;
+        this.parseAs = parseAs;
+    }
+
+    public String column() {
+        return column;
+    }
+
+    public static ValueColumn of(FieldType fieldType) {
+        return switch (fieldType) {
+            case NUMBER -> NUMBER;
+            case DATE -> DATE;
+            case CHECKBOX -> BOOLEAN;
+            default -> TEXT;
+        };
+    }
+
+    public boolean isOrdered() {
+        return this == NUMBER || this == DATE || this == SUBMITTED_AT;
+    }
+
+    /**
+     * @return JDBC parameter value
+     * @throws ValidationException if the value does not parse as this column's type
+     */
+    public Object parse(String fieldKey, String raw) {
+        TypedValue typed = raw != null ? TypedValueMapper.mapValue(parseAs, raw) : null;
+        Object value = switch (this) {
+            case TEXT -> typed != null ? typed.text() : null;
+            case NUMBER -> typed != null ? typed.number() : null;
+            case DATE, SUBMITTED_AT -> typed != null && typed.hasDate() ? Timestamp.valueOf(typed.date()) : null;
+            case BOOLEAN -> typed != null ? typed.bool() : null;
+        };
+        if (value == null) {
+            throw new ValidationException("Invalid filter value for '" + fieldKey + "': " + raw);
+        }
+        return value;
+    }
+
+    /**
+     * Read this column's value (sort key) as its cursor text; null stays null.
+     */
+    public String read(ResultSet rs, String label) throws SQLException {
+        return switch (this) {
+            case TEXT -> rs.getString(label);
+            case NUMBER -> {
+                double number = rs.getDouble(label);
+                yield rs.wasNull() ? null : Double.toString(number);
+            }
+            case DATE, SUBMITTED_AT -> {
+                Timestamp timestamp = rs.getTimestamp(label);
+                yield timestamp != null ? timestamp.toLocalDateTime().toString() : null;
+            }
+            case BOOLEAN -> {
+                boolean bool = rs.getBoolean(label);
+                yield rs.wasNull() ? null : Boolean.toString(bool);
+            }
+        };
+    }
+
+    /**
+     * Numeric position of a parsed value for range estimates (dates as epoch seconds).
+     */
+    public static double ordinal(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof Timestamp timestamp) {
+            return ordinal(timestamp.toLocalDateTime());
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return dateTime.toEpochSecond(ZoneOffset.UTC);
+        }
+        throw new IllegalArgumentException("Not an ordered value: " + value);
+    }
+}
@@ -0,0 +1,153 @@
+package com.formforge.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Grouped aggregates over the typed field_values columns (form summaries).
+ *
+ * Every query is grouped by field_id over a set of field ids, so one
+ * statement covers all fields of a kind; each reads the (field_id, value_*)
+ * index of its column and never touches response_json.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FieldSummaryRepository {
+
+    private static final String SELECT_ANSWERED = "SELECT field_id, COUNT(*) AS answered " +
+            "FROM field_values WHERE field_id IN (:fieldIds) GROUP BY field_id";
+
+    private static final String SELECT_NUMBER_STATS = "SELECT field_id, COUNT(value_number) AS n, " +
+            "MIN(value_number) AS min_value, MAX(value_number) AS max_value, " +
+            "AVG(value_number) AS mean, STDDEV_POP(value_number) AS stddev " +
+            "FROM field_values WHERE field_id IN (:fieldIds) AND value_number IS NOT NULL GROUP BY field_id";
+
+    private static final String SELECT_DATE_RANGES = "SELECT field_id, MIN(value_date) AS min_value, " +
+            "MAX(value_date) AS max_value " +
+            "FROM field_values WHERE field_id IN (:fieldIds) AND value_date IS NOT NULL GROUP BY field_id";
+
+    private static final String SELECT_DATE_HISTOGRAM = "SELECT DATE_FORMAT(value_date, ?) AS bucket, COUNT(*) AS n " +
+            "FROM field_values WHERE field_id = ? AND value_date IS NOT NULL GROUP BY bucket ORDER BY bucket";
+
+    private static final String SELECT_TEXT_OPTIONS = "SELECT field_id, value_text AS option_value, COUNT(*) AS n " +
+            "FROM field_values WHERE field_id IN (:fieldIds) AND value_text IS NOT NULL " +
+            "GROUP BY field_id, value_text";
+
+    private static final String SELECT_BOOLEAN_OPTIONS = "SELECT field_id, value_boolean AS option_value, " +
+            "COUNT(*) AS n FROM field_values WHERE field_id IN (:fieldIds) AND value_boolean IS NOT NULL " +
+            "GROUP BY field_id, value_boolean";
+
+    /**
+     * Newest response of the form that has field_values: everything up to it
+     * is projected (equal to the newest response unless projection is async
+     * and behind). A backward scan of idx_responses_form_id.
+     */
+    private static final String SELECT_VALUES_THROUGH_ID = "SELECT r.id FROM form_responses r " +
+            "WHERE r.form_id = ? AND EXISTS (SELECT 1 FROM field_values fv WHERE fv.response_id = r.id) " +
+            "ORDER BY r.id DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public void findAnswered(Collection<Long> fieldIds, AnsweredHandler handler) {
+        if (fieldIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.query(SELECT_ANSWERED, new MapSqlParameterSource("fieldIds", fieldIds),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("field_id"), rs.getLong("answered")));
+    }
+
+    public void findNumberStats(Collection<Long> fieldIds, NumberStatsHandler handler) {
+        if (fieldIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.query(SELECT_NUMBER_STATS, new MapSqlParameterSource("fieldIds", fieldIds),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("field_id"), rs.getLong("n"),
+                        rs.getDouble("min_value"), rs.getDouble("max_value"),
+                        rs.getDouble("mean"), rs.getDouble("stddev")));
+    }
+
+    public void findDateRanges(Collection<Long> fieldIds, DateRangeHandler handler) {
+        if (fieldIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.query(SELECT_DATE_RANGES, new MapSqlParameterSource("fieldIds", fieldIds),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("field_id"),
+                        toLocalDateTime(rs.getTimestamp("min_value")),
+                        toLocalDateTime(rs.getTimestamp("max_value"))));
+    }
+
+    /**
+     * @param bucketFormat MySQL DATE_FORMAT pattern producing an ISO date (the bucket start)
+     */
+    public void findDateHistogram(Long fieldId, String bucketFormat, BucketHandler handler) {
+        jdbcTemplate.query(SELECT_DATE_HISTOGRAM,
+                (RowCallbackHandler) rs -> handler.accept(LocalDate.parse(rs.getString("bucket")), rs.getLong("n")),
+                bucketFormat, fieldId);
+    }
+
+    public void findTextOptions(Collection<Long> fieldIds, OptionHandler handler) {
+        if (fieldIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.query(SELECT_TEXT_OPTIONS, new MapSqlParameterSource("fieldIds", fieldIds),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("field_id"), rs.getString("option_value"),
+                        rs.getLong("n")));
+    }
+
+    public void findBooleanOptions(Collection<Long> fieldIds, OptionHandler handler) {
+        if (fieldIds.isEmpty()) {
+            return;
+        }
+        namedJdbcTemplate.query(SELECT_BOOLEAN_OPTIONS, new MapSqlParameterSource("fieldIds", fieldIds),
+                (RowCallbackHandler) rs -> handler.accept(rs.getLong("field_id"),
+                        Boolean.toString(rs.getBoolean("option_value")), rs.getLong("n")));
+    }
+
+    /**
+     * @return id of the newest response with field_values, or 0
+     */
+    public long findValuesThroughId(Long formId) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_VALUES_THROUGH_ID, Long.class, formId);
+        return ids.isEmpty() ? 0 : ids.get(0);
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @FunctionalInterface
+    public interface AnsweredHandler {
+        void accept(long fieldId, long answered);
+    }
+
+    @FunctionalInterface
+    public interface NumberStatsHandler {
+        void accept(long fieldId, long count, double min, double max, double mean, double stddev);
+    }
+
+    @FunctionalInterface
+    public interface DateRangeHandler {
+        void accept(long fieldId, LocalDateTime min, LocalDateTime max);
+    }
+
+    @FunctionalInterface
+    public interface BucketHandler {
+        void accept(LocalDate bucket, long count);
+    }
+
+    @FunctionalInterface
+    public interface OptionHandler {
+        void accept(long fieldId, String option, long count);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +18,11 @@ public interface FormRepository extends JpaRepository<Form, Long> {
     // Find published version by slug
     Optional<Form> findBySlugAndStatusAndIsDeletedFalse(String slug, FormStatus status);
 
+    // Published version with fields in one round trip (used to compile the submit-path cache)
+    @Query("SELECT DISTINCT f FROM Form f LEFT JOIN FETCH f.fields " +
+            "WHERE f.slug = :slug AND f.status = :status AND f.isDeleted = false")
+    Optional<Form> findBySlugAndStatusWithFields(String slug, FormStatus status);
+
     // Find latest draft for a group
     Optional<Form> findByFormGroupIdAndStatusAndIsDeletedFalse(String formGroupId, FormStatus status);
 
@@ -24,11 +30,33 @@ public interface FormRepository extends JpaRepository<Form, Long> {
     @Query("SELECT MAX(f.version) FROM Form f WHERE f.formGroupId = :formGroupId")
     Integer findMaxVersionByGroupId(String formGroupId);
 
+    // All live versions of a group, newest first (cross-version export)
+    @Query("SELECT f.id FROM Form f WHERE f.formGroupId = :formGroupId AND f.creator.id = :creatorId " +
+            "AND f.isDeleted = false ORDER BY f.version DESC")
+    List<Long> findExportableIdsInGroup(@Param("formGroupId") String formGroupId,
+            @Param("creatorId") Long creatorId);
+
     // Standard lookups
     Page<Form> findByCreatorIdAndIsDeletedFalse(Long creatorId, Pageable pageable);
 
     Page<Form> findByCreatorIdAndStatusAndIsDeletedFalse(Long creatorId, FormStatus status, Pageable pageable);
 
+    /**
+     * DASHBOARD: forms with their maintained counters (form_stats) in one query.
+     * Returns [Form, FormStats or null] pairs.
+     */
+    @Query(value = "SELECT f, s FROM Form f LEFT JOIN FormStats s ON s.formId = f.id " +
+            "WHERE f.creator.id = :creatorId AND f.isDeleted = false",
+            countQuery = "SELECT COUNT(f) FROM Form f WHERE f.creator.id = :creatorId AND f.isDeleted = false")
+    Page<Object[]> findDashboardByCreatorId(@Param("creatorId") Long creatorId, Pageable pageable);
+
+    @Query(value = "SELECT f, s FROM Form f LEFT JOIN FormStats s ON s.formId = f.id " +
+            "WHERE f.creator.id = :creatorId AND f.status = :status AND f.isDeleted = false",
+            countQuery = "SELECT COUNT(f) FROM Form f " +
+                    "WHERE f.creator.id = :creatorId AND f.status = :status AND f.isDeleted = false")
+    Page<Object[]> findDashboardByCreatorIdAndStatus(@Param("creatorId") Long creatorId,
+            @Param("status") FormStatus status, Pageable pageable);
+
     @Query("SELECT f FROM Form f LEFT JOIN FETCH f.fields WHERE f.id = :id")
     Optional<Form> findByIdWithFields(Long id);
 
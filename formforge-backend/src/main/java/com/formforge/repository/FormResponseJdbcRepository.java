@@ -0,0 +1,453 @@
+package com.formforge.repository;
+
+import com.formforge.entity.enums.ResponseStatus;
+import com.formforge.ingest.PreparedSubmission;
+import com.formforge.storage.PayloadFormat;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.storage.StoredPayload;
+import com.formforge.util.TypedValueMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * JDBC bulk write path for responses and their EAV rows.
+ *
+ * WHY NOT JPA:
+ * - IDENTITY ids disable Hibernate insert batching (one round trip per row),
+ * so a 40-field form costs 41 INSERT round trips through the cascade
+ * - Batches here are sent as a single JDBC batch per table; with the MySQL
+ * driver's rewriteBatchedStatements (see application-*.yml) each batch
+ * becomes one multi-row INSERT, i.e. one round trip
+ *
+ * IDEMPOTENCY (batch path):
+ * - form_responses rows are keyed by submission_uid (uk_responses_submission_uid)
+ * and (form_id, idempotency_key) (uk_responses_form_idempotency)
+ * - field_values rows are keyed by (response_id, field_id) (uk_response_field)
+ * - ON DUPLICATE KEY UPDATE turns re-inserts into no-ops while still
+ * surfacing every other constraint failure
+ * - The single-row insert does NOT ignore duplicates, so a repeated
+ * Idempotency-Key surfaces as DataIntegrityViolationException
+ *
+ * PAYLOADS: responses are written through ResponsePayloadCodec (JSON or
+ * positional binary) and read back as StoredPayload, whatever the format.
+ */
+@Repository
+@RequiredArgsConstructor
+public class FormResponseJdbcRepository {
+
+    private static final String INSERT_RESPONSE = "INSERT INTO form_responses " +
+            "(form_id, submission_uid, idempotency_key, submission_ip, status, form_version, response_json, " +
+            "payload_format, response_payload, schema_snapshot_id, submitted_at, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_RESPONSE_IGNORING_DUPLICATES = INSERT_RESPONSE +
+            " ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String INSERT_FIELD_VALUE = "INSERT INTO field_values " +
+            "(response_id, field_id, value_text, value_number, value_date, value_boolean, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE id = id";
+
+    private static final String SELECT_IDS_BY_UID = "SELECT id, submission_uid FROM form_responses " +
+            "WHERE submission_uid IN (:uids)";
+
+    private static final String PAYLOAD_COLUMNS = "schema_snapshot_id, payload_format, response_json, response_payload";
+
+    private static final String SELECT_FOR_PROJECTION = "SELECT id, " + PAYLOAD_COLUMNS + ", created_at " +
+            "FROM form_responses WHERE form_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_FOR_ROLLUP = "SELECT id, form_id, submitted_at, created_at, " +
+            PAYLOAD_COLUMNS + " FROM form_responses WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_FOR_SKETCH = "SELECT id, submission_ip, " + PAYLOAD_COLUMNS + " " +
+            "FROM form_responses WHERE form_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_FOR_COLUMNS = "SELECT id, submitted_at, " + PAYLOAD_COLUMNS + " " +
+            "FROM form_responses WHERE form_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String SELECT_SCHEMA_SOURCES = "SELECT form_id, schema_snapshot_id, MIN(id) AS sample_id " +
+            "FROM form_responses WHERE form_id IN (%s) GROUP BY form_id, schema_snapshot_id";
+
+    private static final String SELECT_INLINE_SNAPSHOTS = "SELECT id, form_schema_snapshot " +
+            "FROM form_responses WHERE id IN (%s)";
+
+    private static final String SELECT_FOR_EXPORT = "SELECT id, submitted_at, submission_ip, " + PAYLOAD_COLUMNS + " " +
+            "FROM form_responses WHERE form_id IN (%s) ORDER BY submitted_at DESC";
+
+    private static final String SELECT_CONTENT_VERSION = "SELECT COUNT(*) AS response_count, " +
+            "COALESCE(MAX(id), 0) AS max_id FROM form_responses WHERE form_id IN (%s)";
+
+    private static final String SELECT_JSON_PAYLOADS = "SELECT id, schema_snapshot_id, response_json " +
+            "FROM form_responses WHERE id > ? AND payload_format = 0 AND schema_snapshot_id IS NOT NULL " +
+            "ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_PAYLOAD = "UPDATE form_responses " +
+            "SET payload_format = ?, response_payload = ?, response_json = NULL " +
+            "WHERE id = ? AND payload_format = 0";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final ResponsePayloadCodec payloadCodec;
+
+    /**
+     * Insert a single response and return its generated id.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException on a duplicate key
+     */
+    public Long insertResponse(PreparedSubmission submission) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_RESPONSE, Statement.RETURN_GENERATED_KEYS);
+            bindResponse(ps, submission, now);
+            return ps;
+        }, keyHolder);
+        return keyHolder.getKey().longValue();
+    }
+
+    /**
+     * Insert responses in one batch; rows whose submission_uid or
+     * idempotency key is already present are skipped.
+     */
+    public void insertResponses(List<PreparedSubmission> submissions) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_RESPONSE_IGNORING_DUPLICATES, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                bindResponse(ps, submissions.get(i), now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return submissions.size();
+            }
+        });
+    }
+
+    /**
+     * Resolve generated ids for submission_uids (including rows written by an
+     * earlier, partially checkpointed flush).
+     */
+    public Map<String, Long> findIdsBySubmissionUid(Collection<String> uids) {
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query(SELECT_IDS_BY_UID, new MapSqlParameterSource("uids", uids),
+                rs -> {
+                    ids.put(rs.getString("submission_uid"), rs.getLong("id"));
+                });
+        return ids;
+    }
+
+    /**
+     * Insert typed EAV rows for a single response in one batch.
+     */
+    public void insertFieldValues(PreparedSubmission submission, Long responseId) {
+        insertFieldValues(List.of(submission), Map.of(submission.submissionUid(), responseId));
+    }
+
+    /**
+     * Insert typed EAV rows for already-inserted responses in one batch.
+     * Submissions without an id (skipped as duplicates) are ignored.
+     *
+     * @param responseIds submissionUid -> form_responses.id
+     */
+    public void insertFieldValues(List<PreparedSubmission> submissions, Map<String, Long> responseIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (PreparedSubmission s : submissions) {
+            Long responseId = responseIds.get(s.submissionUid());
+            if (responseId == null) {
+                continue;
+            }
+            for (PreparedSubmission.Value v : s.values()) {
+                rows.add(new Object[] { responseId, v.fieldId(), v.typed() });
+            }
+        }
+        insertFieldValueRows(rows);
+    }
+
+    /**
+     * Insert typed EAV rows built by the asynchronous projector in one batch.
+     * Already-projected (response_id, field_id) pairs are skipped.
+     *
+     * @param valuesByResponseId form_responses.id -> typed values
+     */
+    public void insertFieldValues(Map<Long, List<PreparedSubmission.Value>> valuesByResponseId) {
+        List<Object[]> rows = new ArrayList<>();
+        valuesByResponseId.forEach((responseId, values) -> {
+            for (PreparedSubmission.Value v : values) {
+                rows.add(new Object[] { responseId, v.fieldId(), v.typed() });
+            }
+        });
+        insertFieldValueRows(rows);
+    }
+
+    /**
+     * Responses of a form after a given id, oldest first (projector input).
+     * Served by idx_responses_form_id (form_id, id).
+     */
+    public List<ProjectionRow> findForProjection(Long formId, long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_FOR_PROJECTION,
+                (rs, rowNum) -> new ProjectionRow(
+                        rs.getLong("id"),
+                        payload(rs),
+                        toLocalDateTime(rs.getTimestamp("created_at"))),
+                formId, afterId, limit);
+    }
+
+    /**
+     * Responses of every form after a given id, in id order (rollup
+     * aggregation input). A primary-key range scan.
+     */
+    public List<RollupRow> findForRollup(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_FOR_ROLLUP,
+                (rs, rowNum) -> new RollupRow(
+                        rs.getLong("id"),
+                        rs.getLong("form_id"),
+                        toLocalDateTime(rs.getTimestamp("submitted_at")),
+                        toLocalDateTime(rs.getTimestamp("created_at")),
+                        payload(rs)),
+                afterId, limit);
+    }
+
+    /**
+     * Responses of one form after a given id, in id order (sketch rebuild
+     * input). A range scan of idx_responses_form_id.
+     */
+    public List<SketchRow> findForSketch(Long formId, long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_FOR_SKETCH,
+                (rs, rowNum) -> new SketchRow(rs.getLong("id"), rs.getString("submission_ip"), payload(rs)),
+                formId, afterId, limit);
+    }
+
+    /**
+     * Responses of one form after a given id, in id order (columnar cache
+     * load). A range scan of idx_responses_form_id.
+     */
+    public List<ColumnRow> findForColumns(Long formId, long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_FOR_COLUMNS,
+                (rs, rowNum) -> new ColumnRow(rs.getLong("id"), toLocalDateTime(rs.getTimestamp("submitted_at")),
+                        payload(rs)),
+                formId, afterId, limit);
+    }
+
+    /**
+     * Distinct schema snapshots referenced by the responses of some forms,
+     * one sample response per (form, snapshot).
+     * A loose index scan on idx_responses_form_snapshot (form_id, schema_snapshot_id).
+     */
+    public List<SchemaSource> findSchemaSources(Collection<Long> formIds) {
+        return jdbcTemplate.query(String.format(SELECT_SCHEMA_SOURCES, placeholders(formIds.size())),
+                (rs, rowNum) -> new SchemaSource(
+                        rs.getLong("form_id"),
+                        rs.getObject("schema_snapshot_id", Long.class),
+                        rs.getLong("sample_id")),
+                formIds.toArray());
+    }
+
+    /**
+     * Legacy inline snapshots of the given responses (id -> JSON).
+     */
+    public Map<Long, String> findInlineSnapshots(Collection<Long> responseIds) {
+        Map<Long, String> snapshots = new HashMap<>();
+        if (responseIds.isEmpty()) {
+            return snapshots;
+        }
+        jdbcTemplate.query(String.format(SELECT_INLINE_SNAPSHOTS, placeholders(responseIds.size())),
+                (RowCallbackHandler) rs -> snapshots.put(rs.getLong("id"), rs.getString("form_schema_snapshot")),
+                responseIds.toArray());
+        return snapshots;
+    }
+
+    /**
+     * Stream the responses of some forms (e.g. all versions of one form),
+     * newest first, through a forward-only cursor.
+     *
+     * BOUNDED MEMORY:
+     * - Only the exported columns are selected; no entities, no persistence
+     * context
+     * - Fetch size Integer.MIN_VALUE makes Connector/J stream rows off the
+     * socket instead of buffering the result; set on this statement only, so
+     * other queries keep client-side prepared statements
+     * - Each row is handed to {@code consumer} and dropped
+     *
+     * The connection is busy until the result is drained: {@code consumer}
+     * must not query through it.
+     *
+     * For one form this is served by idx_responses_form_date
+     * (form_id, submitted_at), read backwards.
+     */
+    public void streamForExport(Collection<Long> formIds, Consumer<ExportRow> consumer) {
+        String sql = String.format(SELECT_FOR_EXPORT, placeholders(formIds.size()));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(Integer.MIN_VALUE);
+            int index = 1;
+            for (Long formId : formIds) {
+                ps.setLong(index++, formId);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(new ExportRow(
+                rs.getLong("id"),
+                toLocalDateTime(rs.getTimestamp("submitted_at")),
+                rs.getString("submission_ip"),
+                payload(rs))));
+    }
+
+    /**
+     * Cheap change marker for the responses of some forms: any insert
+     * raises max_id, any delete lowers the count.
+     * One range scan of idx_responses_form_id per form.
+     */
+    public ContentVersion findContentVersion(Collection<Long> formIds) {
+        return jdbcTemplate.queryForObject(String.format(SELECT_CONTENT_VERSION, placeholders(formIds.size())),
+                (rs, rowNum) -> new ContentVersion(rs.getLong("response_count"), rs.getLong("max_id")),
+                formIds.toArray());
+    }
+
+    /**
+     * JSON-format rows after a given id that reference a shared snapshot
+     * (re-encoding input). Keyset-ordered on the primary key.
+     */
+    public List<JsonPayloadRow> findJsonPayloads(long afterId, int limit) {
+        return jdbcTemplate.query(SELECT_JSON_PAYLOADS,
+                (rs, rowNum) -> new JsonPayloadRow(
+                        rs.getLong("id"),
+                        rs.getObject("schema_snapshot_id", Long.class),
+                        rs.getString("response_json")),
+                afterId, limit);
+    }
+
+    /**
+     * Replace JSON payloads with their binary form in one batch. Rows no
+     * longer in JSON format are left alone.
+     *
+     * @param payloads form_responses.id -> binary payload
+     */
+    public void updatePayloads(Map<Long, StoredPayload> payloads) {
+        List<Map.Entry<Long, StoredPayload>> rows = new ArrayList<>(payloads.entrySet());
+        jdbcTemplate.batchUpdate(UPDATE_PAYLOAD, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StoredPayload payload = rows.get(i).getValue();
+                ps.setInt(1, payload.format().code());
+                ps.setBytes(2, payload.binary());
+                ps.setLong(3, rows.get(i).getKey());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private static StoredPayload payload(ResultSet rs) throws SQLException {
+        return new StoredPayload(
+                PayloadFormat.fromCode(rs.getInt("payload_format")),
+                rs.getString("response_json"),
+                rs.getBytes("response_payload"),
+                rs.getObject("schema_snapshot_id", Long.class));
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private void insertFieldValueRows(List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_FIELD_VALUE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Object[] row = rows.get(i);
+                TypedValueMapper.TypedValue typed = (TypedValueMapper.TypedValue) row[2];
+                ps.setLong(1, (Long) row[0]);
+                ps.setLong(2, (Long) row[1]);
+                ps.setString(3, typed.text());
+                ps.setObject(4, typed.number(), Types.DOUBLE);
+                ps.setTimestamp(5, typed.hasDate() ? Timestamp.valueOf(typed.date()) : null);
+                ps.setObject(6, typed.bool(), Types.BOOLEAN);
+                ps.setTimestamp(7, now);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows.size();
+            }
+        });
+    }
+
+    private void bindResponse(PreparedStatement ps, PreparedSubmission s, Timestamp now) throws SQLException {
+        StoredPayload payload = payloadCodec.encode(s.schemaSnapshotId(), s.responseJson());
+        ps.setLong(1, s.formId());
+        ps.setString(2, s.submissionUid());
+        ps.setString(3, s.idempotencyKey());
+        ps.setString(4, s.submissionIp());
+        ps.setString(5, ResponseStatus.COMPLETED.name());
+        ps.setInt(6, s.formVersion());
+        ps.setString(7, payload.json());
+        ps.setInt(8, payload.format().code());
+        ps.setBytes(9, payload.binary());
+        ps.setObject(10, s.schemaSnapshotId(), Types.BIGINT);
+        ps.setTimestamp(11, Timestamp.valueOf(s.submittedAt()));
+        ps.setTimestamp(12, now);
+    }
+
+    public record ProjectionRow(long id, StoredPayload payload, LocalDateTime createdAt) {
+    }
+
+    public record RollupRow(long id, long formId, LocalDateTime submittedAt, LocalDateTime createdAt,
+            StoredPayload payload) {
+    }
+
+    public record SketchRow(long id, String submissionIp, StoredPayload payload) {
+    }
+
+    public record ColumnRow(long id, LocalDateTime submittedAt, StoredPayload payload) {
+    }
+
+    public record JsonPayloadRow(long id, Long snapshotId, String responseJson) {
+    }
+
+    /**
+     * @param snapshotId null for legacy rows carrying an inline snapshot
+     * @param sampleId   a response of this form with this snapshot
+     */
+    public record SchemaSource(long formId, Long snapshotId, long sampleId) {
+    }
+
+    public record ContentVersion(long responseCount, long maxId) {
+    }
+
+    public record ExportRow(long id, LocalDateTime submittedAt, String submissionIp, StoredPayload payload) {
+    }
+}
@@ -5,11 +5,13 @@ import com.formforge.entity.enums.ResponseStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,10 +19,27 @@ import java.util.Optional;
 public interface FormResponseRepository extends JpaRepository<FormResponse, Long> {
 
     /**
-     * Find all responses for a form with pagination.
-     * Uses idx_responses_form_date index.
+     * First page of a keyset listing (no COUNT query).
+     * Uses idx_responses_form_date; InnoDB appends id to the index, so the
+     * id tie-break needs no sort.
      */
-    Page<FormResponse> findByFormIdOrderBySubmittedAtDesc(Long formId, Pageable pageable);
+    List<FormResponse> findByFormIdOrderBySubmittedAtDescIdDesc(Long formId, Pageable pageable);
+
+    /**
+     * Keyset continuation: responses strictly after (submittedAt, id) in
+     * (submittedAt DESC, id DESC) order.
+     * Written as a bound on submitted_at plus a tie-break, so MySQL can range
+     * scan idx_responses_form_date instead of evaluating an OR per row.
+     */
+    @Query("SELECT r FROM FormResponse r WHERE r.form.id = :formId " +
+            "AND r.submittedAt <= :submittedAt " +
+            "AND (r.submittedAt < :submittedAt OR r.id < :id) " +
+            "ORDER BY r.submittedAt DESC, r.id DESC")
+    List<FormResponse> findPageAfter(
+            @Param("formId") Long formId,
+            @Param("submittedAt") LocalDateTime submittedAt,
+            @Param("id") Long id,
+            Pageable pageable);
 
     /**
      * Find responses filtered by status.
@@ -49,11 +68,35 @@ public interface FormResponseRepository extends JpaRepository<FormResponse, Long
     Optional<FormResponse> findByIdAndFormId(Long id, Long formId);
 
     /**
-     * Get all responses for CSV export (no pagination).
-     * Uses response_json for fast export.
+     * Newest response id per form (EAV projector reconciliation).
+     * Returns [formId, maxId] pairs.
+     */
+    @Query("SELECT r.form.id, MAX(r.id) FROM FormResponse r GROUP BY r.form.id")
+    List<Object[]> findLatestIdPerForm();
+
+    /**
+     * Resolve an earlier submission by its Idempotency-Key.
+     * Uses uk_responses_form_idempotency.
+     */
+    @Query("SELECT r.id FROM FormResponse r WHERE r.form.id = :formId AND r.idempotencyKey = :key")
+    Optional<Long> findIdByFormIdAndIdempotencyKey(@Param("formId") Long formId, @Param("key") String key);
+
+    /**
+     * Legacy rows still carrying an inline schema snapshot (for backfill).
+     * Keyset-ordered by id so each batch resumes where the last one stopped.
+     */
+    @Query("SELECT r.id, r.formSchemaSnapshot FROM FormResponse r " +
+            "WHERE r.schemaSnapshotId IS NULL AND r.formSchemaSnapshot IS NOT NULL AND r.id > :afterId " +
+            "ORDER BY r.id ASC")
+    List<Object[]> findLegacySnapshots(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Point legacy rows at a shared snapshot and drop their inline copy.
      */
-    @Query("SELECT r FROM FormResponse r WHERE r.form.id = :formId ORDER BY r.submittedAt DESC")
-    List<FormResponse> findAllByFormIdForExport(@Param("formId") Long formId);
+    @Modifying
+    @Query("UPDATE FormResponse r SET r.schemaSnapshotId = :snapshotId, r.formSchemaSnapshot = NULL " +
+            "WHERE r.id IN :ids")
+    int attachSnapshot(@Param("snapshotId") Long snapshotId, @Param("ids") Collection<Long> ids);
 
     /**
      * Count responses for dashboard stats.
@@ -0,0 +1,53 @@
+package com.formforge.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * JDBC access to form_sketches (serialized FieldSketch blobs).
+ */
+@Repository
+@RequiredArgsConstructor
+public class FormSketchRepository {
+
+    private static final String SELECT_BY_FORM = "SELECT sketch_key, sketch FROM form_sketches WHERE form_id = ?";
+
+    private static final String UPSERT = "INSERT INTO form_sketches (form_id, sketch_key, sketch, updated_at) " +
+            "VALUES (?, ?, ?, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE sketch = VALUES(sketch), updated_at = VALUES(updated_at)";
+
+    private static final String DELETE_BY_FORM = "DELETE FROM form_sketches WHERE form_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param handler called with (sketchKey, serialized sketch) per row
+     */
+    public void findByForm(Long formId, BiConsumer<String, byte[]> handler) {
+        jdbcTemplate.query(SELECT_BY_FORM,
+                (RowCallbackHandler) rs -> handler.accept(rs.getString("sketch_key"), rs.getBytes("sketch")),
+                formId);
+    }
+
+    /**
+     * One JDBC batch for all of a form's sketches.
+     */
+    public void upsert(Long formId, Map<String, byte[]> sketches) {
+        List<Object[]> rows = new ArrayList<>(sketches.size());
+        sketches.forEach((key, sketch) -> rows.add(new Object[] { formId, key, sketch }));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        }
+    }
+
+    public void deleteByForm(Long formId) {
+        jdbcTemplate.update(DELETE_BY_FORM, formId);
+    }
+}
@@ -0,0 +1,55 @@
+package com.formforge.repository;
+
+import com.formforge.entity.FormStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface FormStatsRepository extends JpaRepository<FormStats, Long> {
+
+    /**
+     * Apply a flushed response-count delta (may be negative after deletes).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO form_stats (form_id, response_count, active_field_count, last_submitted_at, updated_at) " +
+            "VALUES (:formId, GREATEST(:delta, 0), 0, :lastSubmittedAt, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE response_count = GREATEST(response_count + :delta, 0), " +
+            "last_submitted_at = COALESCE(GREATEST(last_submitted_at, :lastSubmittedAt), " +
+            "last_submitted_at, :lastSubmittedAt), " +
+            "updated_at = NOW(6)", nativeQuery = true)
+    void addResponses(@Param("formId") Long formId,
+            @Param("delta") long delta,
+            @Param("lastSubmittedAt") LocalDateTime lastSubmittedAt);
+
+    /**
+     * Recount a form's active fields (fields are few; uses idx on form_id).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO form_stats (form_id, response_count, active_field_count, last_submitted_at, updated_at) " +
+            "SELECT :formId, 0, COUNT(*), NULL, NOW(6) FROM form_fields " +
+            "WHERE form_id = :formId AND is_deleted = false " +
+            "ON DUPLICATE KEY UPDATE active_field_count = VALUES(active_field_count), updated_at = NOW(6)",
+            nativeQuery = true)
+    void refreshFieldCount(@Param("formId") Long formId);
+
+    /**
+     * Recompute every counter from the source tables.
+     * One grouped pass over form_responses and form_fields.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO form_stats (form_id, response_count, active_field_count, last_submitted_at, updated_at) " +
+            "SELECT f.id, COALESCE(r.cnt, 0), COALESCE(ff.cnt, 0), r.last_submitted_at, NOW(6) FROM forms f " +
+            "LEFT JOIN (SELECT form_id, COUNT(*) AS cnt, MAX(submitted_at) AS last_submitted_at " +
+            "FROM form_responses GROUP BY form_id) r ON r.form_id = f.id " +
+            "LEFT JOIN (SELECT form_id, COUNT(*) AS cnt FROM form_fields WHERE is_deleted = false " +
+            "GROUP BY form_id) ff ON ff.form_id = f.id " +
+            "ON DUPLICATE KEY UPDATE response_count = VALUES(response_count), " +
+            "active_field_count = VALUES(active_field_count), " +
+            "last_submitted_at = VALUES(last_submitted_at), updated_at = NOW(6)", nativeQuery = true)
+    int reconcileAll();
+}
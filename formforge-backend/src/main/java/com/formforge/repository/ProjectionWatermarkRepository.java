@@ -0,0 +1,22 @@
+package com.formforge.repository;
+
+import com.formforge.entity.ProjectionWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProjectionWatermarkRepository extends JpaRepository<ProjectionWatermark, Long> {
+
+    /**
+     * Create or move a form's watermark forward (never backwards).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO projection_watermarks (form_id, last_response_id, updated_at) " +
+            "VALUES (:formId, :responseId, NOW(6)) " +
+            "ON DUPLICATE KEY UPDATE last_response_id = GREATEST(last_response_id, VALUES(last_response_id)), " +
+            "updated_at = VALUES(updated_at)", nativeQuery = true)
+    void advance(@Param("formId") Long formId, @Param("responseId") Long responseId);
+}
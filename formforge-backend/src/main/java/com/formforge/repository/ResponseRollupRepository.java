@@ -0,0 +1,152 @@
+package com.formforge.repository;
+
+import com.formforge.rollup.RollupBucket;
+import com.formforge.rollup.RollupDelta;
+import com.formforge.rollup.RollupDelta.BucketKey;
+import com.formforge.rollup.RollupDelta.ValueDelta;
+import com.formforge.rollup.RollupDelta.ValueKey;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to response_rollups, response_rollup_values and the single
+ * rollup_progress row.
+ *
+ * WRITES are additive upserts of RollupDelta sums, one JDBC batch per table
+ * (one multi-row statement with rewriteBatchedStatements). Series reads are
+ * primary-key range scans on (form_id, bucket_size, bucket_start).
+ */
+@Repository
+@RequiredArgsConstructor
+public class ResponseRollupRepository {
+
+    private static final int PROGRESS_ID = 1;
+
+    private static final String INSERT_PROGRESS = "INSERT IGNORE INTO rollup_progress " +
+            "(id, last_response_id, updated_at) VALUES (?, 0, NOW(6))";
+
+    private static final String LOCK_PROGRESS = "SELECT last_response_id FROM rollup_progress WHERE id = ? FOR UPDATE";
+
+    private static final String UPDATE_PROGRESS = "UPDATE rollup_progress SET last_response_id = ?, " +
+            "updated_at = NOW(6) WHERE id = ?";
+
+    private static final String SELECT_PROGRESS = "SELECT last_response_id FROM rollup_progress WHERE id = ?";
+
+    private static final String UPSERT_ROLLUP = "INSERT INTO response_rollups " +
+            "(form_id, bucket_size, bucket_start, submission_count) VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE submission_count = submission_count + VALUES(submission_count)";
+
+    private static final String UPSERT_ROLLUP_VALUE = "INSERT INTO response_rollup_values " +
+            "(form_id, bucket_size, bucket_start, field_id, value_key, value_count, value_sum) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE value_count = value_count + VALUES(value_count), " +
+            "value_sum = value_sum + VALUES(value_sum)";
+
+    private static final String SELECT_SERIES = "SELECT bucket_start, submission_count FROM response_rollups " +
+            "WHERE form_id = ? AND bucket_size = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "ORDER BY bucket_start";
+
+    private static final String SELECT_VALUE_SERIES = "SELECT bucket_start, field_id, value_key, value_count, " +
+            "value_sum FROM response_rollup_values " +
+            "WHERE form_id = ? AND bucket_size = ? AND bucket_start >= ? AND bucket_start < ? " +
+            "ORDER BY bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Lock the progress row for the rest of the transaction (creating it on
+     * first use) and read the watermark.
+     *
+     * @return id of the last aggregated response, 0 if none
+     */
+    public long lockProgress() {
+        jdbcTemplate.update(INSERT_PROGRESS, PROGRESS_ID);
+        Long lastId = jdbcTemplate.queryForObject(LOCK_PROGRESS, Long.class, PROGRESS_ID);
+        return lastId != null ? lastId : 0;
+    }
+
+    /**
+     * @return the watermark without locking (0 before the first batch)
+     */
+    public long findProgress() {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_PROGRESS, Long.class, PROGRESS_ID);
+        return ids.isEmpty() ? 0 : ids.get(0);
+    }
+
+    /**
+     * Callers hold the lock from {@link #lockProgress()}.
+     */
+    public void setProgress(long lastResponseId) {
+        jdbcTemplate.update(UPDATE_PROGRESS, lastResponseId, PROGRESS_ID);
+    }
+
+    public void apply(RollupDelta delta) {
+        List<Object[]> rollups = new ArrayList<>(delta.submissions().size());
+        for (Map.Entry<BucketKey, Long> entry : delta.submissions().entrySet()) {
+            BucketKey key = entry.getKey();
+            rollups.add(new Object[] { key.formId(), key.bucket().code(), Timestamp.valueOf(key.bucketStart()),
+                    entry.getValue() });
+        }
+        List<Object[]> values = new ArrayList<>(delta.values().size());
+        for (Map.Entry<ValueKey, ValueDelta> entry : delta.values().entrySet()) {
+            ValueKey key = entry.getKey();
+            values.add(new Object[] { key.formId(), key.bucket().code(), Timestamp.valueOf(key.bucketStart()),
+                    key.fieldId(), key.valueKey(), entry.getValue().count(), entry.getValue().sum() });
+        }
+        if (!rollups.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ROLLUP, rollups);
+        }
+        if (!values.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPSERT_ROLLUP_VALUE, values);
+        }
+    }
+
+    /**
+     * Drop every rollup row (rebuild). Callers hold the progress lock.
+     */
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM response_rollup_values");
+        jdbcTemplate.update("DELETE FROM response_rollups");
+    }
+
+    /**
+     * Non-empty buckets of a form in [from, to), ascending.
+     */
+    public void findSeries(Long formId, RollupBucket bucket, LocalDateTime from, LocalDateTime to,
+            SeriesHandler handler) {
+        jdbcTemplate.query(SELECT_SERIES,
+                (RowCallbackHandler) rs -> handler.accept(rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        rs.getLong("submission_count")),
+                formId, bucket.code(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Field value rows of a form's buckets in [from, to), ascending by bucket.
+     */
+    public void findValueSeries(Long formId, RollupBucket bucket, LocalDateTime from, LocalDateTime to,
+            ValueSeriesHandler handler) {
+        jdbcTemplate.query(SELECT_VALUE_SERIES,
+                (RowCallbackHandler) rs -> handler.accept(rs.getTimestamp("bucket_start").toLocalDateTime(),
+                        rs.getLong("field_id"), rs.getString("value_key"), rs.getLong("value_count"),
+                        rs.getDouble("value_sum")),
+                formId, bucket.code(), Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    @FunctionalInterface
+    public interface SeriesHandler {
+        void accept(LocalDateTime bucketStart, long submissions);
+    }
+
+    @FunctionalInterface
+    public interface ValueSeriesHandler {
+        void accept(LocalDateTime bucketStart, long fieldId, String valueKey, long count, double sum);
+    }
+}
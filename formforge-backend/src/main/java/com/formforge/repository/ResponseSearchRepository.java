@@ -0,0 +1,194 @@
+package com.formforge.repository;
+
+import com.formforge.query.ResponseQueryPlan;
+import com.formforge.query.ResponseQueryPlan.Keyset;
+import com.formforge.query.ResponseQueryPlan.Predicate;
+import com.formforge.query.ResponseQueryPlan.Sort;
+import com.formforge.query.ValueColumn;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SQL for response search (ResponseQueryPlanner) over the typed
+ * field_values columns.
+ *
+ * ONE STATEMENT PER PAGE:
+ * - STRAIGHT_JOIN pins the planner's join order: the driver first (a
+ * (field_id, value_*) index range, or idx_responses_form_date), then one
+ * eq_ref probe of uk_response_field (response_id, field_id) per other
+ * predicate
+ * - A field sort adds one LEFT JOIN probe; submittedAt sorts read the index
+ * in order and stop at the limit
+ * - Keyset continuation: rows strictly after the cursor in sort order
+ *
+ * Field predicates only match responses that have a value for the field
+ * (NE included). Every value is a bound parameter.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ResponseSearchRepository {
+
+    private static final String COUNT_VALUES = "SELECT COUNT(%1$s) FROM field_values WHERE field_id = ?";
+
+    private static final String SAMPLE_DISTINCT = "SELECT COUNT(*) AS sampled, COUNT(DISTINCT v) AS sample_distinct " +
+            "FROM (SELECT %1$s AS v FROM field_values WHERE field_id = ? AND %1$s IS NOT NULL LIMIT ?) sample";
+
+    private static final String VALUE_RANGE = "SELECT MIN(%1$s) AS min_value, MAX(%1$s) AS max_value " +
+            "FROM field_values WHERE field_id = ?";
+
+    private static final String SUBMITTED_AT_RANGE = "SELECT MIN(submitted_at) AS min_value, " +
+            "MAX(submitted_at) AS max_value FROM form_responses WHERE form_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    /**
+     * Non-null values of a field's typed column (index-only count).
+     */
+    public long countValues(Long fieldId, ValueColumn column) {
+        Long count = jdbcTemplate.queryForObject(String.format(COUNT_VALUES, column.column()), Long.class, fieldId);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * @return [values sampled, distinct among them]
+     */
+    public long[] sampleDistinct(Long fieldId, ValueColumn column, int sampleSize) {
+        return jdbcTemplate.queryForObject(String.format(SAMPLE_DISTINCT, column.column()),
+                (rs, rowNum) -> new long[] { rs.getLong("sampled"), rs.getLong("sample_distinct") },
+                fieldId, sampleSize);
+    }
+
+    /**
+     * @return [min, max] as ordinals (dates as epoch seconds), or null if the field has no values
+     */
+    public double[] findValueRange(Long fieldId, ValueColumn column) {
+        return jdbcTemplate.queryForObject(String.format(VALUE_RANGE, column.column()),
+                (rs, rowNum) -> range(rs.getObject("min_value"), rs.getObject("max_value")), fieldId);
+    }
+
+    /**
+     * @return [min, max] submitted_at as epoch seconds, or null if the form has no responses
+     */
+    public double[] findSubmittedAtRange(Long formId) {
+        return jdbcTemplate.queryForObject(SUBMITTED_AT_RANGE,
+                (rs, rowNum) -> range(rs.getTimestamp("min_value"), rs.getTimestamp("max_value")), formId);
+    }
+
+    /**
+     * Run one page of a plan.
+     *
+     * @return up to plan.limit() hits in sort order
+     */
+    public List<SearchHit> search(ResponseQueryPlan plan) {
+        MapSqlParameterSource params = new MapSqlParameterSource("formId", plan.formId());
+        Sort sort = plan.sort();
+        String sortColumn = sort.fieldId() != null ? "s." + sort.column().column() : "r.submitted_at";
+
+        StringBuilder sql = new StringBuilder("SELECT STRAIGHT_JOIN r.id, ")
+                .append(sortColumn).append(" AS sort_value ");
+        List<String> where = new ArrayList<>();
+        where.add("r.form_id = :formId");
+
+        Predicate driver = plan.driver();
+        if (driver != null) {
+            sql.append("FROM field_values d JOIN form_responses r ON r.id = d.response_id ");
+            where.add(0, "d.field_id = :d_field");
+            where.add(1, driver.op().condition("d." + driver.column().column(), "d_value"));
+            bind(params, "d", driver);
+        } else {
+            sql.append("FROM form_responses r ");
+        }
+
+        for (int i = 0; i < plan.probes().size(); i++) {
+            Predicate probe = plan.probes().get(i);
+            String alias = "p" + i;
+            sql.append("JOIN field_values ").append(alias)
+                    .append(" ON ").append(alias).append(".response_id = r.id AND ")
+                    .append(alias).append(".field_id = :").append(alias).append("_field AND ")
+                    .append(probe.op().condition(alias + "." + probe.column().column(), alias + "_value"))
+                    .append(' ');
+            bind(params, alias, probe);
+        }
+
+        if (sort.fieldId() != null) {
+            sql.append("LEFT JOIN field_values s ON s.response_id = r.id AND s.field_id = :sort_field ");
+            params.addValue("sort_field", sort.fieldId());
+        }
+
+        for (int i = 0; i < plan.responseConds().size(); i++) {
+            Predicate cond = plan.responseConds().get(i);
+            String name = "r" + i + "_value";
+            where.add(cond.op().condition("r." + cond.column().column(), name));
+            bindValues(params, name, cond);
+        }
+
+        if (plan.after() != null) {
+            where.add(keysetCondition(sortColumn, sort, plan.after(), params));
+        }
+
+        String direction = sort.descending() ? " DESC" : " ASC";
+        sql.append("WHERE ").append(String.join(" AND ", where)).append(" ORDER BY ");
+        if (sort.fieldId() != null) {
+            sql.append(sortColumn).append(" IS NULL, ");
+        }
+        sql.append(sortColumn).append(direction).append(", r.id").append(direction).append(" LIMIT :limit");
+        params.addValue("limit", plan.limit());
+
+        log.debug("Response search SQL: {}", sql);
+        return namedJdbcTemplate.query(sql.toString(), params,
+                (rs, rowNum) -> new SearchHit(rs.getLong("id"), sort.column().read(rs, "sort_value")));
+    }
+
+    /**
+     * Rows strictly after the cursor. A bounded sort column keeps the range
+     * seekable; field sorts order NULLs last, so a cursor in the NULL tail
+     * only continues by id.
+     */
+    private static String keysetCondition(String sortColumn, Sort sort, Keyset after, MapSqlParameterSource params) {
+        String op = sort.descending() ? "<" : ">";
+        params.addValue("after_id", after.id());
+        if (after.value() == null) {
+            return "(" + sortColumn + " IS NULL AND r.id " + op + " :after_id)";
+        }
+        params.addValue("after_value", after.value());
+        String seek = sortColumn + " " + op + " :after_value OR (" + sortColumn + " = :after_value AND r.id "
+                + op + " :after_id)";
+        return sort.fieldId() != null
+                ? "(" + sortColumn + " IS NULL OR " + seek + ")"
+                : "(" + sortColumn + " " + op + "= :after_value AND (" + seek + "))";
+    }
+
+    private static void bind(MapSqlParameterSource params, String alias, Predicate predicate) {
+        params.addValue(alias + "_field", predicate.fieldId());
+        bindValues(params, alias + "_value", predicate);
+    }
+
+    private static void bindValues(MapSqlParameterSource params, String name, Predicate predicate) {
+        params.addValue(name, predicate.values().get(0));
+        if (predicate.values().size() > 1) {
+            params.addValue(name + "b", predicate.values().get(1));
+        }
+    }
+
+    private static double[] range(Object min, Object max) {
+        if (min == null || max == null) {
+            return null;
+        }
+        return new double[] { ValueColumn.ordinal(min), ValueColumn.ordinal(max) };
+    }
+
+    /**
+     * @param sortValue the row's sort value as cursor text, or null
+     */
+    public record SearchHit(long id, String sortValue) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.formforge.repository;
+
+import com.formforge.entity.SchemaSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface SchemaSnapshotRepository extends JpaRepository<SchemaSnapshot, Long> {
+
+    /**
+     * Lookup by content hash (uk_schema_snapshot_hash).
+     */
+    Optional<SchemaSnapshot> findByContentHash(String contentHash);
+}
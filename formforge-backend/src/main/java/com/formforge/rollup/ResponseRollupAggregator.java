@@ -0,0 +1,308 @@
+package com.formforge.rollup;
+
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.repository.FormFieldRepository;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.RollupRow;
+import com.formforge.repository.ResponseRollupRepository;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.storage.StoredPayload;
+import com.formforge.util.TransactionCallbacks;
+import com.formforge.util.TypedValueMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains response_rollups / response_rollup_values: per form, hourly and
+ * daily submission counts, option counts (DROPDOWN / RADIO / CHECKBOX) and
+ * number count/sum (NUMBER).
+ *
+ * WHY: dashboard time series ("submissions per day, last 90 days") used to
+ * range-scan form_responses on every load; they now read one row per bucket.
+ *
+ * AGGREGATION (background, every {@code rollups.interval}):
+ * - Reads responses of all forms past the rollup_progress watermark in id
+ * order, {@code batch-size} at a time, decoding payloads with
+ * ResponsePayloadCodec (field_values may lag in async projection mode)
+ * - Sums the batch into a RollupDelta and applies it as additive upserts,
+ * advancing the watermark in the same transaction
+ * - Rows younger than {@code settle-delay} wait for the next pass, so the
+ * watermark never jumps over a still-uncommitted smaller id
+ *
+ * DELETES subtract the response from its buckets in the delete transaction
+ * if it was already aggregated. Batches, deletes and rebuilds all lock the
+ * progress row first, so a response is never added after being subtracted.
+ *
+ * REBUILD: drops all rollups and resets the watermark; the aggregator then
+ * backfills history batch by batch (dashboards fill in as it goes).
+ */
+@Slf4j
+@Component
+public class ResponseRollupAggregator {
+
+    private static final Set<FieldType> AGGREGATED_TYPES = EnumSet.of(
+            FieldType.NUMBER, FieldType.DROPDOWN, FieldType.RADIO, FieldType.CHECKBOX);
+
+    @Value("${rollups.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rollups.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${rollups.interval:10s}")
+    private Duration interval;
+
+    @Value("${rollups.settle-delay:5s}")
+    private Duration settleDelay;
+
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final ResponseRollupRepository rollupRepository;
+    private final FormFieldRepository formFieldRepository;
+    private final ResponsePayloadCodec payloadCodec;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "response-rollup-aggregator"));
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean(false);
+    /** Field lookups per form; FormFieldService invalidates them when fields change */
+    private final LoadingCache<Long, Map<String, RollupField>> fieldsByForm;
+
+    private Counter aggregatedCounter;
+
+    public ResponseRollupAggregator(FormResponseJdbcRepository jdbcRepository,
+            ResponseRollupRepository rollupRepository,
+            FormFieldRepository formFieldRepository,
+            ResponsePayloadCodec payloadCodec,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.jdbcRepository = jdbcRepository;
+        this.rollupRepository = rollupRepository;
+        this.formFieldRepository = formFieldRepository;
+        this.payloadCodec = payloadCodec;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.fieldsByForm = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                // Bounds staleness after field edits made through another node
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build(this::loadFields);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        aggregatedCounter = Counter.builder("formforge.rollups.aggregated")
+                .description("Responses added to the time-bucketed rollups")
+                .register(meterRegistry);
+        executor.scheduleWithFixedDelay(this::aggregateSafely,
+                interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Recompute all rollups from form_responses in the background.
+     *
+     * @return false if rollups are disabled or a rebuild is already running
+     */
+    public boolean startRebuild() {
+        if (!enabled || !rebuildRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                transactionTemplate.executeWithoutResult(tx -> {
+                    rollupRepository.lockProgress();
+                    rollupRepository.deleteAll();
+                    rollupRepository.setProgress(0);
+                });
+                log.info("Rollup rebuild started");
+                long aggregated = aggregate();
+                log.info("Rollup rebuild complete: {} responses aggregated", aggregated);
+            } catch (Exception e) {
+                log.error("Rollup rebuild failed", e);
+            } finally {
+                rebuildRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Drop a form's cached field lookup now and again once the surrounding
+     * transaction commits.
+     */
+    public void invalidateFields(Long formId) {
+        fieldsByForm.invalidate(formId);
+        TransactionCallbacks.afterCommit(() -> fieldsByForm.invalidate(formId));
+    }
+
+    /**
+     * Subtract a response about to be deleted from its buckets, if it was
+     * already aggregated. Call inside the delete transaction.
+     */
+    public void recordDeletion(Long formId, Long responseId, LocalDateTime submittedAt, StoredPayload payload) {
+        if (!enabled || submittedAt == null) {
+            return;
+        }
+        if (responseId > rollupRepository.lockProgress()) {
+            // Not aggregated yet; the row will simply be gone when the batch reads
+            return;
+        }
+        RollupDelta delta = new RollupDelta();
+        add(delta, responseId, formId, submittedAt, payload, -1);
+        rollupRepository.apply(delta);
+    }
+
+    private void aggregateSafely() {
+        try {
+            aggregate();
+        } catch (Exception e) {
+            log.warn("Rollup aggregation failed, retrying in {}: {}", interval, e.getMessage());
+        }
+    }
+
+    /**
+     * Aggregate batches until caught up or only unsettled rows remain.
+     */
+    private long aggregate() {
+        long total = 0;
+        while (!Thread.currentThread().isInterrupted()) {
+            BatchResult result = transactionTemplate.execute(tx -> aggregateBatch());
+            total += result.aggregated();
+            if (!result.more()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private BatchResult aggregateBatch() {
+        // Locked before the rows are read, so the read sees every committed delete
+        long watermark = rollupRepository.lockProgress();
+        List<RollupRow> rows = jdbcRepository.findForRollup(watermark, batchSize);
+        List<RollupRow> settled = settledPrefix(rows);
+        if (settled.isEmpty()) {
+            return new BatchResult(0, false);
+        }
+
+        RollupDelta delta = new RollupDelta();
+        for (RollupRow row : settled) {
+            if (row.submittedAt() != null) {
+                add(delta, row.id(), row.formId(), row.submittedAt(), row.payload(), 1);
+            }
+        }
+        rollupRepository.apply(delta);
+        rollupRepository.setProgress(settled.get(settled.size() - 1).id());
+
+        aggregatedCounter.increment(settled.size());
+        log.debug("Rolled up {} responses (last id {})", settled.size(), settled.get(settled.size() - 1).id());
+        return new BatchResult(settled.size(), settled.size() == batchSize);
+    }
+
+    private void add(RollupDelta delta, long responseId, long formId, LocalDateTime submittedAt,
+            StoredPayload payload, int sign) {
+        delta.addSubmission(formId, submittedAt, sign);
+
+        Map<String, RollupField> fields = fieldsByForm.get(formId);
+        if (fields.isEmpty()) {
+            return;
+        }
+        try {
+            payloadCodec.forEachValue(payload, (key, value) -> {
+                RollupField field = fields.get(key);
+                if (field == null || value == null) {
+                    return;
+                }
+                TypedValueMapper.TypedValue typed = TypedValueMapper.mapValue(field.fieldType(), value);
+                if (typed == null) {
+                    return;
+                }
+                switch (field.fieldType()) {
+                    case NUMBER -> {
+                        if (typed.hasNumber()) {
+                            delta.addNumber(formId, submittedAt, field.id(), typed.number(), sign);
+                        }
+                    }
+                    case CHECKBOX -> delta.addOption(formId, submittedAt, field.id(), typed.bool().toString(), sign);
+                    default -> {
+                        if (typed.hasText()) {
+                            delta.addOption(formId, submittedAt, field.id(), typed.text(), sign);
+                        }
+                    }
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Rolling up response {} without field values: unreadable payload", responseId);
+        }
+    }
+
+    /**
+     * Rows up to (not including) the first one younger than the settle delay.
+     */
+    private List<RollupRow> settledPrefix(List<RollupRow> rows) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(settleDelay);
+        for (int i = 0; i < rows.size(); i++) {
+            LocalDateTime createdAt = rows.get(i).createdAt();
+            if (createdAt != null && createdAt.isAfter(cutoff)) {
+                return rows.subList(0, i);
+            }
+        }
+        return rows;
+    }
+
+    private Map<String, RollupField> loadFields(Long formId) {
+        Map<String, RollupField> fields = new HashMap<>();
+        for (FormField field : formFieldRepository.findByFormIdAndIsDeletedFalseOrderByDisplayOrderAsc(formId)) {
+            if (AGGREGATED_TYPES.contains(field.getFieldType())) {
+                fields.put(field.getFieldKey(), new RollupField(field.getId(), field.getFieldType()));
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Field types that get value rollups.
+     */
+    public static boolean isAggregated(FieldType fieldType) {
+        return AGGREGATED_TYPES.contains(fieldType);
+    }
+
+    private record RollupField(Long id, FieldType fieldType) {
+    }
+
+    /**
+     * @param more a full batch was aggregated; there may be more rows
+     */
+    private record BatchResult(int aggregated, boolean more) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.formforge.rollup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Bucket sizes of response_rollups (bucket_size column).
+ * Buckets are aligned on local wall-clock time, like submitted_at.
+ */
+public enum RollupBucket {
+
+    HOUR(0, ChronoUnit.HOURS),
+
+    DAY(1, ChronoUnit.DAYS);
+
+    private final int code;
+    private final ChronoUnit unit;
+
+    RollupBucket(int code, ChronoUnit unit) {
+        this.code = code;
+        this.unit = unit;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    /**
+     * Start of the bucket containing {@code time}.
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    public LocalDateTime next(LocalDateTime bucketStart) {
+        return bucketStart.plus(1, unit);
+    }
+
+    /**
+     * Number of buckets in [from, to).
+     */
+    public long count(LocalDateTime from, LocalDateTime to) {
+        return unit.between(truncate(from), truncate(to.minusNanos(1))) + 1;
+    }
+
+    public static RollupBucket fromCode(int code) {
+        for (RollupBucket bucket : values()) {
+            if (bucket.code == code) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rollup bucket " + code);
+    }
+}
@@ -0,0 +1,85 @@
+package com.formforge.rollup;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rollup changes of one batch, summed per row before anything is written:
+ * a batch of N responses costs one upsert per touched bucket and value,
+ * not per response.
+ */
+public final class RollupDelta {
+
+    /**
+     * Longest stored option value (response_rollup_values.value_key).
+     */
+    public static final int MAX_VALUE_KEY_LENGTH = 191;
+
+    /**
+     * value_key of a NUMBER field's count/sum row.
+     */
+    public static final String NUMBER_KEY = "";
+
+    private final Map<BucketKey, Long> submissions = new HashMap<>();
+    private final Map<ValueKey, ValueDelta> values = new HashMap<>();
+
+    /**
+     * Count one response (sign -1: remove it) in each bucket size.
+     */
+    public void addSubmission(long formId, LocalDateTime submittedAt, int sign) {
+        for (RollupBucket bucket : RollupBucket.values()) {
+            submissions.merge(new BucketKey(formId, bucket, bucket.truncate(submittedAt)), (long) sign, Long::sum);
+        }
+    }
+
+    public void addOption(long formId, LocalDateTime submittedAt, long fieldId, String option, int sign) {
+        String key = option.length() > MAX_VALUE_KEY_LENGTH ? option.substring(0, MAX_VALUE_KEY_LENGTH) : option;
+        addValue(formId, submittedAt, fieldId, key, sign, 0);
+    }
+
+    public void addNumber(long formId, LocalDateTime submittedAt, long fieldId, double number, int sign) {
+        addValue(formId, submittedAt, fieldId, NUMBER_KEY, sign, sign * number);
+    }
+
+    private void addValue(long formId, LocalDateTime submittedAt, long fieldId, String key, int count, double sum) {
+        for (RollupBucket bucket : RollupBucket.values()) {
+            ValueDelta delta = values.computeIfAbsent(
+                    new ValueKey(formId, bucket, bucket.truncate(submittedAt), fieldId, key), k -> new ValueDelta());
+            delta.count += count;
+            delta.sum += sum;
+        }
+    }
+
+    public boolean isEmpty() {
+        return submissions.isEmpty();
+    }
+
+    public Map<BucketKey, Long> submissions() {
+        return submissions;
+    }
+
+    public Map<ValueKey, ValueDelta> values() {
+        return values;
+    }
+
+    public record BucketKey(long formId, RollupBucket bucket, LocalDateTime bucketStart) {
+    }
+
+    public record ValueKey(long formId, RollupBucket bucket, LocalDateTime bucketStart, long fieldId,
+            String valueKey) {
+    }
+
+    public static final class ValueDelta {
+        private long count;
+        private double sum;
+
+        public long count() {
+            return count;
+        }
+
+        public double sum() {
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.formforge.rollup;
+
+import com.formforge.dto.response.TimeSeriesResponse;
+import com.formforge.dto.response.TimeSeriesResponse.FieldPoint;
+import com.formforge.dto.response.TimeSeriesResponse.Point;
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.repository.FormFieldRepository;
+import com.formforge.repository.ResponseRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Builds dashboard time series from the rollup tables: two primary-key
+ * range scans (buckets, then their value rows) regardless of how many
+ * responses the range covers.
+ */
+@Component
+@RequiredArgsConstructor
+public class RollupSeriesReader {
+
+    private final ResponseRollupRepository rollupRepository;
+    private final FormFieldRepository formFieldRepository;
+
+    /**
+     * @param from first bucket start (aligned to {@code bucket})
+     * @param to   exclusive end (aligned to {@code bucket})
+     */
+    public TimeSeriesResponse read(Long formId, RollupBucket bucket, LocalDateTime from, LocalDateTime to) {
+        Map<Long, FormField> fields = new HashMap<>();
+        for (FormField field : formFieldRepository.findByFormIdAndIsDeletedFalseOrderByDisplayOrderAsc(formId)) {
+            if (ResponseRollupAggregator.isAggregated(field.getFieldType())) {
+                fields.put(field.getId(), field);
+            }
+        }
+
+        Map<LocalDateTime, Long> submissions = new HashMap<>();
+        rollupRepository.findSeries(formId, bucket, from, to, submissions::put);
+
+        Map<LocalDateTime, Map<String, FieldTotals>> values = new HashMap<>();
+        if (!fields.isEmpty()) {
+            rollupRepository.findValueSeries(formId, bucket, from, to, (start, fieldId, valueKey, count, sum) -> {
+                FormField field = fields.get(fieldId);
+                if (field == null || count <= 0) {
+                    return;
+                }
+                FieldTotals totals = values.computeIfAbsent(start, k -> new LinkedHashMap<>())
+                        .computeIfAbsent(field.getFieldKey(), k -> new FieldTotals(field.getFieldType()));
+                if (field.getFieldType() == FieldType.NUMBER) {
+                    totals.count += count;
+                    totals.sum += sum;
+                } else {
+                    totals.options.put(valueKey, count);
+                }
+            });
+        }
+
+        List<Point> points = new ArrayList<>();
+        for (LocalDateTime start = from; start.isBefore(to); start = bucket.next(start)) {
+            Map<String, FieldPoint> fieldPoints = new LinkedHashMap<>();
+            values.getOrDefault(start, Map.of()).forEach((key, totals) -> fieldPoints.put(key, totals.toPoint()));
+            points.add(new Point(start, Math.max(submissions.getOrDefault(start, 0L), 0), fieldPoints));
+        }
+
+        return TimeSeriesResponse.builder()
+                .formId(formId)
+                .bucket(bucket)
+                .from(from)
+                .to(to)
+                .points(points)
+                .build();
+    }
+
+    private static final class FieldTotals {
+        private final FieldType fieldType;
+        private final Map<String, Long> options = new TreeMap<>();
+        private long count;
+        private double sum;
+
+        private FieldTotals(FieldType fieldType) {
+            this.fieldType = fieldType;
+        }
+
+        private FieldPoint toPoint() {
+            if (fieldType == FieldType.NUMBER) {
+                return new FieldPoint(count, sum, count > 0 ? sum / count : null, null);
+            }
+            return new FieldPoint(null, null, null, options);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.formforge.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many BCrypt hashes run at once.
+ *
+ * WHY (virtual-thread mode):
+ * - Tomcat's thread pool used to bound concurrent logins implicitly
+ * - Virtual threads have no such bound, and BCrypt is ~100ms of pure CPU
+ * that never yields its carrier thread
+ * - A login burst could occupy every carrier and stall public submissions
+ *
+ * Semaphore waits park a virtual thread without pinning its carrier.
+ * Harmless with platform threads, so it is always on.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int maxConcurrent) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return bounded(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return bounded(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T bounded(Supplier<T> work) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash password");
+        }
+        try {
+            return work.get();
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.formforge.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Stateless, HMAC-signed proof of when a public form was loaded.
+ *
+ * REPLACES the client-echoed loadTimestamp, which any bot could set to
+ * "three seconds ago". The server now stamps the load time and signs it.
+ *
+ * TOKEN: {issuedAt base36}.{version}.{base64url HMAC-SHA256, 128 bits}
+ * - The MAC covers slug, version and issue time, so a token cannot be
+ * moved to another form or back-dated
+ * - A token only verifies against the version it was issued for, so a
+ * republish invalidates tokens rendered from the old schema
+ * - Verification is one HMAC plus a constant-time compare: no DB, no state
+ *
+ * SECRET: form-load-token.secret must be set and differ from jwt.secret, so
+ * a leak of one signing key does not compromise the other scheme.
+ */
+@Component
+public class FormLoadTokenProvider {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_BYTES = 16;
+
+    @Value("${form-load-token.secret}")
+    private String secret;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Value("${form-load-token.min-fill-time:2s}")
+    private Duration minFillTime;
+
+    @Value("${form-load-token.max-age:24h}")
+    private Duration maxAge;
+
+    private Mac prototype;
+
+    @PostConstruct
+    public void init() throws GeneralSecurityException {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("form-load-token.secret must be set");
+        }
+        if (secret.equals(jwtSecret)) {
+            throw new IllegalStateException("form-load-token.secret must differ from jwt.secret");
+        }
+        prototype = Mac.getInstance(ALGORITHM);
+        prototype.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM));
+    }
+
+    public String issue(String slug, int version) {
+        long issuedAt = System.currentTimeMillis();
+        String payload = Long.toString(issuedAt, 36) + "." + version;
+        return payload + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(sign(slug, payload));
+    }
+
+    /**
+     * @param version current published version of the form
+     * @return null if the token is valid for this slug and version, otherwise the reason
+     */
+    public String verify(String slug, int version, String token) {
+        if (token == null || token.isEmpty()) {
+            return "missing load token";
+        }
+        int macStart = token.lastIndexOf('.');
+        int versionStart = token.indexOf('.');
+        if (versionStart <= 0 || macStart <= versionStart) {
+            return "malformed load token";
+        }
+
+        String payload = token.substring(0, macStart);
+        byte[] mac;
+        long issuedAt;
+        int issuedVersion;
+        try {
+            mac = Base64.getUrlDecoder().decode(token.substring(macStart + 1));
+            issuedAt = Long.parseLong(token.substring(0, versionStart), 36);
+            issuedVersion = Integer.parseInt(token.substring(versionStart + 1, macStart));
+        } catch (IllegalArgumentException e) {
+            return "malformed load token";
+        }
+        if (!MessageDigest.isEqual(mac, sign(slug, payload))) {
+            return "bad load token signature";
+        }
+        if (issuedVersion != version) {
+            return "load token issued for version " + issuedVersion;
+        }
+
+        long elapsed = System.currentTimeMillis() - issuedAt;
+        if (elapsed < minFillTime.toMillis()) {
+            return "submitted " + elapsed + "ms after load";
+        }
+        if (elapsed > maxAge.toMillis()) {
+            return "expired load token";
+        }
+        return null;
+    }
+
+    private byte[] sign(String slug, String payload) {
+        Mac mac;
+        try {
+            // Mac is not thread-safe; cloning the keyed prototype skips key setup
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(ALGORITHM + " does not support cloning", e);
+        }
+        mac.update(slug.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Arrays.copyOf(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)), MAC_BYTES);
+    }
+}
@@ -38,6 +38,9 @@ public class RateLimitFilter extends OncePerRequestFilter {
     @Value("${rate-limit.public-form.requests-per-hour:20}")
     private int requestsPerHour;
 
+    @Value("${rate-limit.bulk-submit.requests-per-hour:10}")
+    private int bulkRequestsPerHour;
+
     /**
      * In-memory bucket storage per IP address.
      * 
@@ -50,6 +53,12 @@ public class RateLimitFilter extends OncePerRequestFilter {
      */
     private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
 
+    /**
+     * Separate budget for bulk submissions: one bulk request carries up to
+     * 500 items, so it must not share (or exhaust) the single-submit budget.
+     */
+    private final Map<String, Bucket> bulkBuckets = new ConcurrentHashMap<>();
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
             HttpServletResponse response,
@@ -61,23 +70,34 @@ public class RateLimitFilter extends OncePerRequestFilter {
                 && "POST".equalsIgnoreCase(request.getMethod())) {
 
             String clientIp = getClientIp(request);
-            Bucket bucket = buckets.computeIfAbsent(clientIp, this::createBucket);
+            Bucket bucket = buckets.computeIfAbsent(clientIp, ip -> createBucket(requestsPerHour));
 
             if (!bucket.tryConsume(1)) {
                 log.warn("Rate limit exceeded for IP: {}", clientIp);
                 throw new RateLimitExceededException(
                         "Too many submissions. Please try again later.");
             }
+        } else if (path.startsWith("/api/public/forms/") && path.endsWith("/submit/bulk")
+                && "POST".equalsIgnoreCase(request.getMethod())) {
+
+            String clientIp = getClientIp(request);
+            Bucket bucket = bulkBuckets.computeIfAbsent(clientIp, ip -> createBucket(bulkRequestsPerHour));
+
+            if (!bucket.tryConsume(1)) {
+                log.warn("Bulk rate limit exceeded for IP: {}", clientIp);
+                throw new RateLimitExceededException(
+                        "Too many bulk submissions. Please try again later.");
+            }
         }
 
         filterChain.doFilter(request, response);
     }
 
-    private Bucket createBucket(String ip) {
-        // 20 requests per hour, refilled every hour
+    private Bucket createBucket(int perHour) {
+        // N requests per hour, refilled every hour
         Bandwidth limit = Bandwidth.classic(
-                requestsPerHour,
-                Refill.intervally(requestsPerHour, Duration.ofHours(1)));
+                perHour,
+                Refill.intervally(perHour, Duration.ofHours(1)));
         return Bucket.builder().addLimit(limit).build();
     }
 
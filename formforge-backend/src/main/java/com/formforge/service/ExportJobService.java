@@ -0,0 +1,259 @@
+package com.formforge.service;
+
+import com.formforge.entity.Form;
+import com.formforge.exception.RateLimitExceededException;
+import com.formforge.exception.ResourceNotFoundException;
+import com.formforge.export.CsvExporter;
+import com.formforge.export.ExportFormat;
+import com.formforge.export.ExportJob;
+import com.formforge.export.ParquetExporter;
+import com.formforge.repository.FormRepository;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.ContentVersion;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Asynchronous exports spooled to local files.
+ *
+ * WHY: large exports streamed inside the request outlive proxy timeouts.
+ * Here the request only enqueues a job; the file is downloaded (and resumed
+ * with Range requests) once it is written.
+ *
+ * JOBS:
+ * - A bounded pool ({@code export.jobs.workers}) runs them; beyond
+ * {@code max-queued} waiting jobs new submissions are refused (429)
+ * - Files are written as {jobId}.part and renamed when complete
+ * - Job state is in memory: a restart forgets jobs and clears the spool
+ *
+ * REUSE: a job remembers the count and max id of the responses it covers.
+ * A new request for the same forms and format returns the existing job
+ * (running or done) as long as those still match.
+ *
+ * RETENTION: finished jobs and their files are dropped after
+ * {@code export.jobs.retention}.
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    private static final int FILE_BUFFER_BYTES = 64 * 1024;
+
+    private final FormRepository formRepository;
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final CsvExporter csvExporter;
+    private final ParquetExporter parquetExporter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledExecutorService janitor = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "export-spool-janitor"));
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ExportJob> latestByArtifact = new ConcurrentHashMap<>();
+    private final Object submitLock = new Object();
+
+    @Value("${export.jobs.spool-dir:${java.io.tmpdir}/formforge-exports}")
+    private Path spoolDir;
+
+    @Value("${export.jobs.retention:24h}")
+    private Duration retention;
+
+    public ExportJobService(FormRepository formRepository,
+            FormResponseJdbcRepository jdbcRepository,
+            CsvExporter csvExporter,
+            ParquetExporter parquetExporter,
+            PlatformTransactionManager transactionManager,
+            @Value("${export.jobs.workers:2}") int workerCount,
+            @Value("${export.jobs.max-queued:20}") int maxQueued) {
+        this.formRepository = formRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.csvExporter = csvExporter;
+        this.parquetExporter = parquetExporter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueued),
+                r -> new Thread(r, "export-job-" + threadIndex.incrementAndGet()));
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(spoolDir);
+        // Jobs do not survive a restart, so neither do their files
+        deleteSpooledFiles();
+        long period = Math.max(retention.toMillis() / 4, 60_000);
+        janitor.scheduleWithFixedDelay(this::expireJobs, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        janitor.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    /**
+     * Start an export, or return the matching job whose file is still current.
+     *
+     * @throws RateLimitExceededException if the job queue is full
+     */
+    public ExportJob submit(Long formId, Long userId, ExportFormat format, boolean allVersions) {
+        Form form = formRepository.findByIdAndCreatorIdAndIsDeletedFalse(formId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Form", formId));
+        List<Long> formIds = allVersions
+                ? formRepository.findExportableIdsInGroup(form.getFormGroupId(), userId)
+                : List.of(formId);
+        ContentVersion contentVersion = jdbcRepository.findContentVersion(formIds);
+        String artifact = format + ":" + formId + ":" + allVersions;
+
+        synchronized (submitLock) {
+            ExportJob latest = latestByArtifact.get(artifact);
+            if (latest != null && isReusable(latest, contentVersion)) {
+                log.debug("Export job {} reused for form {} ({})", latest.getId(), formId, format);
+                return latest;
+            }
+
+            ExportJob job = new ExportJob(UUID.randomUUID().toString(), formId, userId, format, allVersions,
+                    formIds, contentVersion);
+            try {
+                workers.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                throw new RateLimitExceededException("Too many exports in progress. Please try again later.");
+            }
+            jobs.put(job.getId(), job);
+            latestByArtifact.put(artifact, job);
+            log.info("Export job {} queued: form {} ({}, allVersions={}, {} responses)",
+                    job.getId(), formId, format, allVersions, contentVersion.responseCount());
+            return job;
+        }
+    }
+
+    /**
+     * @throws ResourceNotFoundException unless the job exists, belongs to this
+     *                                   form and was started by this user
+     */
+    public ExportJob getJob(Long formId, String jobId, Long userId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || !job.getFormId().equals(formId) || !job.getUserId().equals(userId)) {
+            throw new ResourceNotFoundException("ExportJob", "id", jobId);
+        }
+        return job;
+    }
+
+    private boolean isReusable(ExportJob job, ContentVersion current) {
+        if (!job.getContentVersion().equals(current)) {
+            return false;
+        }
+        return switch (job.getStatus()) {
+            case QUEUED, RUNNING -> true;
+            case DONE -> Files.exists(job.getFile());
+            case FAILED -> false;
+        };
+    }
+
+    private void run(ExportJob job) {
+        job.start();
+        Path part = spoolDir.resolve(job.getId() + ".part");
+        Path target = spoolDir.resolve(job.getId() + job.getFormat().extension());
+        try {
+            try (OutputStream file = new BufferedOutputStream(Files.newOutputStream(part), FILE_BUFFER_BYTES)) {
+                if (job.getFormat().gzipped()) {
+                    GZIPOutputStream gzip = new GZIPOutputStream(file, FILE_BUFFER_BYTES);
+                    write(job, gzip);
+                    gzip.finish();
+                } else {
+                    write(job, file);
+                }
+            }
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(target, Files.size(target));
+            log.info("Export job {} done: {} rows, {} bytes", job.getId(), job.getRowsWritten().get(),
+                    job.getFileSize());
+        } catch (Exception e) {
+            log.error("Export job {} failed", job.getId(), e);
+            job.fail("Export failed");
+            deleteQuietly(part);
+        }
+    }
+
+    private void write(ExportJob job, OutputStream out) {
+        // One read-only transaction: header and rows come from one snapshot
+        readOnlyTransaction.executeWithoutResult(tx -> {
+            try {
+                switch (job.getFormat()) {
+                    case CSV -> csvExporter.export(job.getFormIds(), out, job.getRowsWritten());
+                    case PARQUET -> parquetExporter.export(job.getFormIds(), out, job.getRowsWritten());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void expireJobs() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+            for (ExportJob job : jobs.values()) {
+                if (job.getCompletedAt() != null && job.getCompletedAt().isBefore(cutoff)) {
+                    jobs.remove(job.getId());
+                    latestByArtifact.values().remove(job);
+                    if (job.getFile() != null) {
+                        deleteQuietly(job.getFile());
+                    }
+                    log.debug("Export job {} expired", job.getId());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Export spool cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Only touches files named like spooled exports ({uuid}.part / .csv.gz / .parquet).
+     */
+    private void deleteSpooledFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir,
+                "????????-????-????-????-????????????.{part,csv.gz,parquet}")) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete spooled export {}: {}", file, e.getMessage());
+        }
+    }
+}
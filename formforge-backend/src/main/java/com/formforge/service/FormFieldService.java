@@ -10,8 +10,11 @@ import com.formforge.entity.enums.FormStatus;
 import com.formforge.exception.DuplicateResourceException;
 import com.formforge.exception.ResourceNotFoundException;
 import com.formforge.exception.UnauthorizedException;
+import com.formforge.ingest.EavProjector;
 import com.formforge.repository.FormFieldRepository;
 import com.formforge.repository.FormRepository;
+import com.formforge.rollup.ResponseRollupAggregator;
+import com.formforge.sketch.FormSketchStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -27,6 +30,10 @@ public class FormFieldService {
 
     private final FormFieldRepository fieldRepository;
     private final FormRepository formRepository;
+    private final FormStatsService formStatsService;
+    private final EavProjector eavProjector;
+    private final ResponseRollupAggregator rollupAggregator;
+    private final FormSketchStore sketchStore;
 
     @Transactional(readOnly = true)
     public List<FieldResponse> getFields(Long formId, Long userId) {
@@ -66,6 +73,8 @@ public class FormFieldService {
                 .build();
 
         field = fieldRepository.save(field);
+        formStatsService.refreshFieldCount(formId);
+        invalidateFieldCaches(formId);
         log.info("Field created: {} for form {}", field.getFieldKey(), formId);
 
         return FieldResponse.from(field);
@@ -104,6 +113,7 @@ public class FormFieldService {
         }
 
         field = fieldRepository.save(field);
+        invalidateFieldCaches(formId);
         log.info("Field updated: {}", field.getFieldKey());
 
         return FieldResponse.from(field);
@@ -117,6 +127,8 @@ public class FormFieldService {
                 .orElseThrow(() -> new ResourceNotFoundException("Field", fieldId));
 
         fieldRepository.softDeleteById(fieldId);
+        formStatsService.refreshFieldCount(formId);
+        invalidateFieldCaches(formId);
         log.info("Field deleted: {}", field.getFieldKey());
     }
 
@@ -136,6 +148,15 @@ public class FormFieldService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Create / update / delete change how response keys map to fields.
+     */
+    private void invalidateFieldCaches(Long formId) {
+        eavProjector.invalidateFields(formId);
+        rollupAggregator.invalidateFields(formId);
+        sketchStore.invalidateFields(formId);
+    }
+
     private Form verifyFormOwnership(Long formId, Long userId) {
         Form form = formRepository.findByIdAndCreatorIdAndIsDeletedFalse(formId, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Form", formId));
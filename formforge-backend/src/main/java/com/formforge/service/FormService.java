@@ -1,5 +1,7 @@
 package com.formforge.service;
 
+import com.formforge.cache.PublicFormBodyCache;
+import com.formforge.cache.PublishedFormCache;
 import com.formforge.dto.request.CreateFormRequest;
 import com.formforge.dto.request.UpdateFormRequest;
 import com.formforge.dto.response.FormDetailResponse;
@@ -7,11 +9,11 @@ import com.formforge.dto.response.FormListResponse;
 import com.formforge.dto.response.PagedResponse;
 import com.formforge.entity.Form;
 import com.formforge.entity.FormField;
+import com.formforge.entity.FormStats;
 import com.formforge.entity.enums.FormStatus;
 import com.formforge.exception.ResourceNotFoundException;
 import com.formforge.exception.UnauthorizedException;
 import com.formforge.repository.FormRepository;
-import com.formforge.repository.FormResponseRepository;
 import com.formforge.repository.UserRepository;
 import com.formforge.util.SlugGenerator;
 import lombok.RequiredArgsConstructor;
@@ -32,27 +34,29 @@ import java.util.stream.Collectors;
 public class FormService {
 
     private final FormRepository formRepository;
-    private final FormResponseRepository responseRepository;
     private final UserRepository userRepository;
+    private final PublishedFormCache publishedFormCache;
+    private final PublicFormBodyCache publicFormBodyCache;
+    private final FormStatsService formStatsService;
 
     @Transactional(readOnly = true)
     public PagedResponse<FormListResponse> getMyForms(Long userId, FormStatus status, Pageable pageable) {
-        Page<Form> forms;
+        // One query for forms + maintained counters (was 1 + 2 per form)
+        Page<Object[]> rows;
         if (status != null) {
-            forms = formRepository.findByCreatorIdAndStatusAndIsDeletedFalse(userId, status, pageable);
+            rows = formRepository.findDashboardByCreatorIdAndStatus(userId, status, pageable);
         } else {
             // TODO: Ideally group by formGroupId and show latest, but for now show all
             // non-deleted
-            forms = formRepository.findByCreatorIdAndIsDeletedFalse(userId, pageable);
+            rows = formRepository.findDashboardByCreatorId(userId, pageable);
         }
 
-        return PagedResponse.from(forms, form -> {
-            // Count responses for the *Group* or just this version?
-            // User likely wants total responses for the form concept.
-            // But responses are linked to specific versions.
-            // Let's count for this version for now.
-            long responseCount = responseRepository.countByFormId(form.getId());
-            return FormListResponse.from(form, responseCount);
+        return PagedResponse.from(rows, row -> {
+            Form form = (Form) row[0];
+            // Counts are per version: responses are linked to specific versions
+            return FormListResponse.from(form, (FormStats) row[1],
+                    formStatsService.pendingResponses(form.getId()),
+                    formStatsService.pendingLastSubmittedAt(form.getId()));
         });
     }
 
@@ -135,6 +139,7 @@ public class FormService {
         }
 
         newDraft = formRepository.save(newDraft);
+        formStatsService.refreshFieldCount(newDraft.getId());
         log.info("Draft created: {} (v{}) from Form {}", newDraft.getSlug(), newDraft.getVersion(), formId);
 
         return FormDetailResponse.from(newDraft);
@@ -176,6 +181,7 @@ public class FormService {
         Form form = getFormAndVerifyOwnership(formId, userId);
         form.setIsDeleted(true);
         formRepository.save(form);
+        invalidatePublicCaches(form.getSlug());
         log.info("Form deleted: {}", form.getSlug());
     }
 
@@ -212,6 +218,7 @@ public class FormService {
         // Version is already set during creation
 
         draftForm = formRepository.save(draftForm);
+        invalidatePublicCaches(draftForm.getSlug());
         log.info("Form published: {} (v{})", draftForm.getSlug(), draftForm.getVersion());
 
         return FormDetailResponse.from(draftForm);
@@ -222,11 +229,20 @@ public class FormService {
         Form form = getFormAndVerifyOwnership(formId, userId);
         form.setStatus(FormStatus.ARCHIVED);
         form = formRepository.save(form);
+        invalidatePublicCaches(form.getSlug());
         log.info("Form archived: {}", form.getSlug());
 
         return FormDetailResponse.from(form);
     }
 
+    /**
+     * Publish / archive / delete change what the public slug serves.
+     */
+    private void invalidatePublicCaches(String slug) {
+        publishedFormCache.invalidate(slug);
+        publicFormBodyCache.invalidate(slug);
+    }
+
     private Form getFormAndVerifyOwnership(Long formId, Long userId) {
         Form form = formRepository.findByIdWithFields(formId)
                 .orElseThrow(() -> new ResourceNotFoundException("Form", formId));
@@ -0,0 +1,201 @@
+package com.formforge.service;
+
+import com.formforge.entity.FormStats;
+import com.formforge.repository.FormStatsRepository;
+import com.formforge.util.TransactionCallbacks;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintained per-form counters behind the "My Forms" dashboard (form_stats).
+ *
+ * WRITE PATH:
+ * - Submissions and deletes bump a striped LongAdder per form after commit;
+ * no row lock on form_stats is taken on the submit path
+ * - A background task flushes accumulated deltas every {@code flush-interval}
+ * (one upsert per active form)
+ * - Active field counts change rarely and are recounted in the field
+ * add/remove transaction
+ *
+ * READ PATH: deltas not yet flushed are added on read (pendingResponses).
+ *
+ * RECONCILE:
+ * - On startup (stats.reconcile-on-startup) and via the admin API, every
+ * counter is recomputed from form_responses and form_fields
+ * - Exact when idle; writes committed during the pass may be counted twice,
+ * the next reconcile corrects that
+ */
+@Slf4j
+@Service
+public class FormStatsService {
+
+    private final FormStatsRepository statsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, LongAdder> pendingDeltas = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> pendingLastSubmitted = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "form-stats-flusher"));
+    private final AtomicBoolean reconcileRunning = new AtomicBoolean(false);
+
+    @Value("${stats.flush-interval:5s}")
+    private Duration flushInterval;
+
+    @Value("${stats.reconcile-on-startup:true}")
+    private boolean reconcileOnStartup;
+
+    public FormStatsService(FormStatsRepository statsRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.statsRepository = statsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        Gauge.builder("formforge.stats.pending_forms", this, FormStatsService::pendingFormCount)
+                .description("Forms with response-count deltas not yet flushed")
+                .register(meterRegistry);
+        if (reconcileOnStartup) {
+            startReconcile();
+        }
+        executor.scheduleWithFixedDelay(this::flushSafely,
+                flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        // Final flush so a clean shutdown loses nothing
+        flushSafely();
+    }
+
+    /**
+     * Count {@code count} new responses once the current transaction commits.
+     */
+    public void recordSubmissions(Long formId, int count, LocalDateTime submittedAt) {
+        TransactionCallbacks.afterCommit(() -> {
+            pendingDeltas.computeIfAbsent(formId, k -> new LongAdder()).add(count);
+            pendingLastSubmitted.merge(formId, submittedAt, (a, b) -> a.isAfter(b) ? a : b);
+        });
+    }
+
+    /**
+     * Count a deleted response once the current transaction commits.
+     */
+    public void recordDeletion(Long formId) {
+        TransactionCallbacks.afterCommit(() -> pendingDeltas.computeIfAbsent(formId, k -> new LongAdder()).decrement());
+    }
+
+    /**
+     * Recount active fields; call inside the transaction that changed them.
+     */
+    public void refreshFieldCount(Long formId) {
+        statsRepository.refreshFieldCount(formId);
+    }
+
+    /**
+     * Response-count delta not yet flushed to form_stats.
+     */
+    public long pendingResponses(Long formId) {
+        LongAdder delta = pendingDeltas.get(formId);
+        return delta != null ? delta.sum() : 0;
+    }
+
+    /**
+     * Maintained response count of a form, including unflushed deltas.
+     * No COUNT(*): one primary-key read of form_stats.
+     */
+    public long responseCount(Long formId) {
+        long flushed = statsRepository.findById(formId).map(FormStats::getResponseCount).orElse(0L);
+        return Math.max(flushed + pendingResponses(formId), 0);
+    }
+
+    /**
+     * Latest submission time not yet flushed to form_stats, or null.
+     */
+    public LocalDateTime pendingLastSubmittedAt(Long formId) {
+        return pendingLastSubmitted.get(formId);
+    }
+
+    /**
+     * Recompute all counters in the background.
+     *
+     * @return false if a reconcile is already running
+     */
+    public boolean startReconcile() {
+        if (!reconcileRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                // Deltas recorded so far are committed and included in the recount
+                pendingDeltas.values().forEach(LongAdder::reset);
+                pendingLastSubmitted.clear();
+                Integer rows = transactionTemplate.execute(tx -> statsRepository.reconcileAll());
+                log.info("Form stats reconciled ({} rows written)", rows);
+            } catch (Exception e) {
+                log.error("Form stats reconcile failed", e);
+            } finally {
+                reconcileRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    private long pendingFormCount() {
+        return pendingDeltas.values().stream().filter(delta -> delta.sum() != 0).count();
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Form stats flush failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        for (Long formId : List.copyOf(pendingDeltas.keySet())) {
+            LongAdder adder = pendingDeltas.get(formId);
+            long delta = adder.sumThenReset();
+            LocalDateTime lastSubmitted = pendingLastSubmitted.remove(formId);
+            // Adders are kept (never removed) so concurrent increments cannot be lost
+            if (delta == 0 && lastSubmitted == null) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(
+                        tx -> statsRepository.addResponses(formId, delta, lastSubmitted));
+            } catch (RuntimeException e) {
+                // Put the delta back so it is retried on the next flush
+                adder.add(delta);
+                if (lastSubmitted != null) {
+                    pendingLastSubmitted.merge(formId, lastSubmitted, (a, b) -> a.isAfter(b) ? a : b);
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -1,43 +1,236 @@
 package com.formforge.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.formforge.dto.response.PagedResponse;
+import com.formforge.cache.FieldSummaryCache;
+import com.formforge.columnar.ColumnarCache;
+import com.formforge.columnar.ColumnarQuery;
+import com.formforge.dto.request.ColumnarQueryRequest;
+import com.formforge.dto.request.ResponseSearchRequest;
+import com.formforge.dto.response.ColumnarQueryResponse;
+import com.formforge.dto.response.CursorPage;
+import com.formforge.dto.response.FormSketchResponse;
+import com.formforge.dto.response.FormSummaryResponse;
+import com.formforge.dto.response.ResponseSearchResponse;
 import com.formforge.dto.response.SubmissionListResponse;
+import com.formforge.dto.response.TimeSeriesResponse;
 import com.formforge.entity.Form;
+import com.formforge.entity.FormField;
 import com.formforge.entity.FormResponse;
 import com.formforge.exception.ResourceNotFoundException;
 import com.formforge.exception.UnauthorizedException;
+import com.formforge.exception.ValidationException;
+import com.formforge.export.CsvExporter;
+import com.formforge.export.ParquetExporter;
+import com.formforge.ingest.EavProjector;
+import com.formforge.repository.FormFieldRepository;
 import com.formforge.repository.FormRepository;
+import com.formforge.query.ResponseQueryPlan;
+import com.formforge.query.ResponseQueryPlanner;
+import com.formforge.query.SearchCursor;
 import com.formforge.repository.FormResponseRepository;
+import com.formforge.repository.ResponseSearchRepository;
+import com.formforge.repository.ResponseSearchRepository.SearchHit;
+import com.formforge.rollup.ResponseRollupAggregator;
+import com.formforge.rollup.RollupBucket;
+import com.formforge.rollup.RollupSeriesReader;
+import com.formforge.sketch.FormSketchStore;
+import com.formforge.sketch.FormSketchStore.SketchSnapshot;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.storage.StoredPayload;
+import com.formforge.util.ResponseCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.io.StringWriter;
-import java.io.Writer;
-import java.util.*;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ResponseManagementService {
 
+    /**
+     * Largest time series served: 83 days of hours, 5 years of days.
+     */
+    private static final int MAX_SERIES_BUCKETS = 2000;
+
     private final FormRepository formRepository;
     private final FormResponseRepository responseRepository;
-    private final ObjectMapper objectMapper;
+    private final EavProjector eavProjector;
+    private final FormStatsService formStatsService;
+    private final CsvExporter csvExporter;
+    private final ParquetExporter parquetExporter;
+    private final ResponsePayloadCodec payloadCodec;
+    private final ResponseQueryPlanner queryPlanner;
+    private final ResponseSearchRepository searchRepository;
+    private final FieldSummaryCache fieldSummaryCache;
+    private final ResponseRollupAggregator rollupAggregator;
+    private final RollupSeriesReader rollupSeriesReader;
+    private final FormSketchStore sketchStore;
+    private final FormFieldRepository formFieldRepository;
+    private final ColumnarCache columnarCache;
+
+    /**
+     * Keyset page of a form's responses, newest first.
+     *
+     * Cost is one index range scan of size + 1 rows at any depth; the total
+     * is only read (from form_stats) when asked for.
+     *
+     * @param cursor nextCursor of the previous page, or null for the first page
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<SubmissionListResponse> getResponses(Long formId, Long userId, String cursor, int size,
+            boolean includeTotal) {
+        verifyFormOwnership(formId, userId);
+
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<FormResponse> rows;
+        if (cursor == null || cursor.isEmpty()) {
+            rows = responseRepository.findByFormIdOrderBySubmittedAtDescIdDesc(formId, limit);
+        } else {
+            ResponseCursor after = ResponseCursor.decode(cursor);
+            rows = responseRepository.findPageAfter(formId, after.submittedAt(), after.id(), limit);
+        }
+
+        Long total = includeTotal ? formStatsService.responseCount(formId) : null;
+        return CursorPage.from(rows, size, this::toSubmission,
+                row -> new ResponseCursor(row.getSubmittedAt(), row.getId()).encode(), total);
+    }
+
+    /**
+     * Filtered, sorted, keyset-paginated responses (see ResponseQueryPlanner).
+     * One search statement for the page's ids, then one primary-key fetch
+     * of those rows.
+     */
+    @Transactional(readOnly = true)
+    public ResponseSearchResponse search(Long formId, Long userId, ResponseSearchRequest request) {
+        verifyFormOwnership(formId, userId);
+
+        int size = request.getSize() != null ? request.getSize() : 20;
+        ResponseQueryPlan plan = queryPlanner.plan(formId, request, size + 1);
+        List<SearchHit> hits = searchRepository.search(plan);
+
+        boolean hasNext = hits.size() > size;
+        List<SearchHit> page = hasNext ? hits.subList(0, size) : hits;
+        Map<Long, FormResponse> rows = new HashMap<>();
+        for (FormResponse row : responseRepository.findAllById(page.stream().map(SearchHit::id).toList())) {
+            rows.put(row.getId(), row);
+        }
+
+        List<SubmissionListResponse> content = new ArrayList<>(page.size());
+        for (SearchHit hit : page) {
+            FormResponse row = rows.get(hit.id());
+            if (row != null) {
+                content.add(toSubmission(row));
+            }
+        }
+
+        SearchHit last = hasNext ? page.get(page.size() - 1) : null;
+        return ResponseSearchResponse.builder()
+                .content(content)
+                .size(size)
+                .hasNext(hasNext)
+                .nextCursor(last != null
+                        ? new SearchCursor(last.id(), plan.sort().fieldKey(), last.sortValue()).encode()
+                        : null)
+                .complete(eavProjector.status(formId).caughtUp())
+                .plan(plan.describe())
+                .build();
+    }
 
+    /**
+     * Per-field counts, null rates and distributions (see FieldSummaryCache).
+     * Served from memory once computed; new submissions are folded in
+     * incrementally rather than re-aggregated.
+     */
     @Transactional(readOnly = true)
-    public PagedResponse<SubmissionListResponse> getResponses(Long formId, Long userId, Pageable pageable) {
+    public FormSummaryResponse getSummary(Long formId, Long userId) {
         verifyFormOwnership(formId, userId);
+        return fieldSummaryCache.get(formId, eavProjector.status(formId).caughtUp());
+    }
 
-        Page<FormResponse> responses = responseRepository.findByFormIdOrderBySubmittedAtDesc(formId, pageable);
+    /**
+     * Submissions (and field aggregates) per hour or day, from the rollup
+     * tables. Defaults to the last 48 hours / 90 days; bounds are widened to
+     * whole buckets.
+     *
+     * @param from inclusive start, or null
+     * @param to   exclusive end, or null for now
+     */
+    @Transactional(readOnly = true)
+    public TimeSeriesResponse getTimeSeries(Long formId, Long userId, RollupBucket bucket,
+            LocalDateTime from, LocalDateTime to) {
+        verifyFormOwnership(formId, userId);
 
-        return PagedResponse.from(responses, SubmissionListResponse::from);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime alignedEnd = bucket.truncate(end).equals(end) ? end : bucket.next(bucket.truncate(end));
+        LocalDateTime start = from != null
+                ? bucket.truncate(from)
+                : bucket == RollupBucket.HOUR ? alignedEnd.minusHours(48) : alignedEnd.minusDays(90);
+        if (!start.isBefore(alignedEnd)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+        if (bucket.count(start, alignedEnd) > MAX_SERIES_BUCKETS) {
+            throw new ValidationException("Time range too long: at most " + MAX_SERIES_BUCKETS + " "
+                    + bucket.name().toLowerCase() + " buckets");
+        }
+        return rollupSeriesReader.read(formId, bucket, start, alignedEnd);
+    }
+
+    /**
+     * Approximate distinct counts, quantiles and top values from the
+     * maintained sketches; cost does not depend on the number of responses.
+     * Forms whose sketches disagree with the response count are rebuilt in the
+     * background.
+     *
+     * @param allVersions merge the sketches of every version in the form group
+     */
+    @Transactional(readOnly = true)
+    public FormSketchResponse getSketches(Long formId, Long userId, boolean allVersions, List<Double> quantiles,
+            int top) {
+        Form form = verifyFormOwnership(formId, userId);
+        for (Double q : quantiles) {
+            if (q == null || q < 0 || q > 1) {
+                throw new ValidationException("Quantiles must be between 0 and 1");
+            }
+        }
+        if (top < 1 || top > sketchStore.topCapacity()) {
+            throw new ValidationException("top must be between 1 and " + sketchStore.topCapacity());
+        }
+
+        List<Long> formIds = allVersions
+                ? formRepository.findExportableIdsInGroup(form.getFormGroupId(), userId)
+                : List.of(formId);
+        SketchSnapshot snapshot = sketchStore.snapshot(formIds);
+
+        boolean complete = true;
+        for (Long id : formIds) {
+            // Sketches cannot forget: deletions also show up as a count mismatch
+            if (snapshot.submissionsByForm().getOrDefault(id, 0L) != formStatsService.responseCount(id)) {
+                complete = false;
+                sketchStore.requestRebuild(id, false);
+            }
+        }
+        return FormSketchResponse.from(snapshot, formIds, complete, quantiles, top);
+    }
+
+    /**
+     * Ad-hoc filter / group-by / aggregate over the form's in-memory columns
+     * (see ColumnarCache); the first query of a form loads them.
+     */
+    @Transactional(readOnly = true)
+    public ColumnarQueryResponse analyze(Long formId, Long userId, ColumnarQueryRequest request) {
+        verifyFormOwnership(formId, userId);
+        List<FormField> fields = formFieldRepository.findByFormIdAndIsDeletedFalseOrderByDisplayOrderAsc(formId);
+        ColumnarQuery query = ColumnarQuery.compile(request, fields);
+        return columnarCache.query(formId, fields, query, formStatsService.responseCount(formId));
     }
 
     @Transactional(readOnly = true)
@@ -47,7 +240,21 @@ public class ResponseManagementService {
         FormResponse response = responseRepository.findByIdAndFormId(responseId, formId)
                 .orElseThrow(() -> new ResourceNotFoundException("Response", responseId));
 
-        return SubmissionListResponse.from(response);
+        return toSubmission(response);
+    }
+
+    private SubmissionListResponse toSubmission(FormResponse response) {
+        return SubmissionListResponse.from(response, payloadCodec.toJson(StoredPayload.of(response)));
+    }
+
+    /**
+     * Whether field_values (EAV) reads of this form see every response yet.
+     * Always caught up unless ingest.projection.async is on.
+     */
+    @Transactional(readOnly = true)
+    public EavProjector.ProjectionStatus getProjectionStatus(Long formId, Long userId) {
+        verifyFormOwnership(formId, userId);
+        return eavProjector.status(formId);
     }
 
     @Transactional
@@ -57,80 +264,64 @@ public class ResponseManagementService {
         FormResponse response = responseRepository.findByIdAndFormId(responseId, formId)
                 .orElseThrow(() -> new ResourceNotFoundException("Response", responseId));
 
+        rollupAggregator.recordDeletion(formId, responseId, response.getSubmittedAt(), StoredPayload.of(response));
         responseRepository.delete(response);
+        formStatsService.recordDeletion(formId);
+        fieldSummaryCache.invalidate(formId);
+        columnarCache.remove(formId, responseId);
         log.info("Response deleted: {} from form {}", responseId, formId);
     }
 
+    /**
+     * Ownership check for exports, run before any bytes are streamed so a
+     * failure can still be answered with a JSON error.
+     */
+    @Transactional(readOnly = true)
+    public void verifyExportAccess(Long formId, Long userId) {
+        verifyFormOwnership(formId, userId);
+    }
+
     /**
      * EXPORT TO CSV:
      * Uses hybrid storage's response_json for fast export (no JOINs needed).
      * This is 10-100x faster than reconstructing from EAV table.
+     *
+     * STREAMING: rows go from a JDBC cursor straight to {@code out}
+     * (see CsvExporter); heap use does not grow with the response count.
+     * The read-only transaction keeps header and rows on one snapshot.
      */
     @Transactional(readOnly = true)
-    public String exportToCsv(Long formId, Long userId) {
-        Form form = verifyFormOwnership(formId, userId);
-
-        List<FormResponse> responses = responseRepository.findAllByFormIdForExport(formId);
-
-        if (responses.isEmpty()) {
-            return "No responses";
-        }
-
-        try {
-            // Get all unique field keys from first response's schema snapshot
-            Set<String> allFieldKeys = new LinkedHashSet<>();
-            allFieldKeys.add("submittedAt");
-            allFieldKeys.add("submissionIp");
-
-            // Parse schema from first response to get field order
-            String schemaJson = responses.get(0).getFormSchemaSnapshot();
-            List<Map<String, Object>> schema = objectMapper.readValue(
-                    schemaJson, new TypeReference<List<Map<String, Object>>>() {
-                    });
-            for (Map<String, Object> field : schema) {
-                allFieldKeys.add((String) field.get("fieldKey"));
-            }
-
-            StringWriter writer = new StringWriter();
-
-            // Header row
-            writer.write(String.join(",", allFieldKeys));
-            writer.write("\n");
-
-            // Data rows
-            for (FormResponse response : responses) {
-                Map<String, String> values = objectMapper.readValue(
-                        response.getResponseJson(), new TypeReference<Map<String, String>>() {
-                        });
-
-                List<String> row = new ArrayList<>();
-                for (String key : allFieldKeys) {
-                    if ("submittedAt".equals(key)) {
-                        row.add(escapeCsv(response.getSubmittedAt().toString()));
-                    } else if ("submissionIp".equals(key)) {
-                        row.add(escapeCsv(response.getSubmissionIp()));
-                    } else {
-                        row.add(escapeCsv(values.getOrDefault(key, "")));
-                    }
-                }
-                writer.write(String.join(",", row));
-                writer.write("\n");
-            }
+    public void exportToCsv(Long formId, Long userId, OutputStream out) throws IOException {
+        verifyFormOwnership(formId, userId);
+        long rows = csvExporter.export(List.of(formId), out);
+        log.info("CSV export of form {}: {} responses", formId, rows);
+    }
 
-            return writer.toString();
-        } catch (IOException e) {
-            log.error("Failed to export CSV", e);
-            throw new RuntimeException("Failed to export responses");
-        }
+    /**
+     * CROSS-VERSION EXPORT:
+     * Responses of every (non-deleted) version in the form's group, in one
+     * streaming pass. Columns are the union of all versions' schemas, so
+     * fields added in later versions are no longer dropped.
+     */
+    @Transactional(readOnly = true)
+    public void exportGroupToCsv(Long formId, Long userId, OutputStream out) throws IOException {
+        Form form = verifyFormOwnership(formId, userId);
+        List<Long> versionIds = formRepository.findExportableIdsInGroup(form.getFormGroupId(), userId);
+        long rows = csvExporter.export(versionIds, out);
+        log.info("CSV export of form group {} ({} versions): {} responses",
+                form.getFormGroupId(), versionIds.size(), rows);
     }
 
-    private String escapeCsv(String value) {
-        if (value == null)
-            return "";
-        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-        return value;
+    /**
+     * EXPORT TO PARQUET:
+     * Same cursor as the CSV export, written as typed columns
+     * (see ParquetExporter) for analytics tools.
+     */
+    @Transactional(readOnly = true)
+    public void exportToParquet(Long formId, Long userId, OutputStream out) throws IOException {
+        verifyFormOwnership(formId, userId);
+        long rows = parquetExporter.export(List.of(formId), out);
+        log.info("Parquet export of form {}: {} responses", formId, rows);
     }
 
     private Form verifyFormOwnership(Long formId, Long userId) {
@@ -2,127 +2,263 @@ package com.formforge.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formforge.cache.CompiledForm;
+import com.formforge.cache.CompiledForm.CompiledField;
+import com.formforge.cache.IdempotencyKeyCache;
+import com.formforge.cache.PublishedFormCache;
+import com.formforge.dto.request.BulkSubmitRequest;
 import com.formforge.dto.request.SubmitResponseRequest;
-import com.formforge.dto.response.PublicFormResponse;
+import com.formforge.dto.response.BulkSubmitResponse;
 import com.formforge.dto.response.SubmissionSuccessResponse;
-import com.formforge.entity.FieldValue;
-import com.formforge.entity.Form;
-import com.formforge.entity.FormField;
-import com.formforge.entity.FormResponse;
-import com.formforge.entity.enums.FieldType;
-import com.formforge.entity.enums.FormStatus;
-import com.formforge.entity.enums.ResponseStatus;
-import com.formforge.exception.ResourceNotFoundException;
 import com.formforge.exception.ValidationException;
-import com.formforge.repository.FormRepository;
+import com.formforge.ingest.PreparedSubmission;
+import com.formforge.ingest.ResponseWriter;
+import com.formforge.ingest.SubmissionDecoder;
+import com.formforge.ingest.SubmissionJournal;
 import com.formforge.repository.FormResponseRepository;
+import com.formforge.security.FormLoadTokenProvider;
 import com.formforge.util.TypedValueMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ResponseService {
 
-    private final FormRepository formRepository;
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+
     private final FormResponseRepository responseRepository;
+    private final PublishedFormCache publishedFormCache;
+    private final SchemaSnapshotService schemaSnapshotService;
+    private final SubmissionDecoder submissionDecoder;
+    private final SubmissionJournal submissionJournal;
+    private final IdempotencyKeyCache idempotencyKeyCache;
+    private final ResponseWriter responseWriter;
+    private final FormLoadTokenProvider loadTokenProvider;
     private final ObjectMapper objectMapper;
 
+    @Value("${ingest.journal.append-timeout:5s}")
+    private Duration journalAppendTimeout;
+
+    @Value("${bulk-submit.chunk-size:100}")
+    private int bulkChunkSize;
+
+    @Value("${form-load-token.required:true}")
+    private boolean loadTokenRequired;
+
     /**
-     * Get form for public rendering.
+     * Issue a signed load token for a published form (bot timing check).
      */
-    @Transactional(readOnly = true)
-    public PublicFormResponse getPublicForm(String slug) {
-        Form form = formRepository.findBySlugAndStatusAndIsDeletedFalse(slug, FormStatus.PUBLISHED)
-                .orElseThrow(() -> new ResourceNotFoundException("Form", "slug", slug));
-
-        return PublicFormResponse.from(form);
+    public String issueLoadToken(String slug) {
+        CompiledForm form = publishedFormCache.get(slug);
+        return loadTokenProvider.issue(form.slug(), form.version());
     }
 
     /**
      * Submit response to a form.
      * 
-     * TRANSACTIONAL INTEGRITY:
-     * - Both response_json AND field_values are written in same transaction
-     * - If any insert fails, entire submission is rolled back
-     * - Spring @Transactional ensures atomicity
+     * INGESTION MODES:
+     * - Direct (default): ResponseWriter inserts response_json AND field_values
+     * in one transaction; if any insert fails the whole submission rolls back
+     * - Journal (ingest.journal.enabled): the validated submission is fsynced to
+     * the local SubmissionJournal and acknowledged at once; JournalFlusher
+     * writes it to MySQL in batches
+     * 
+     * IDEMPOTENCY (optional Idempotency-Key header):
+     * - A retry with the same key returns the original SubmissionSuccessResponse
+     * - Recent keys are answered from IdempotencyKeyCache without a DB read
+     * - uk_responses_form_idempotency catches what the cache no longer holds
+     * 
+     * Deliberately not @Transactional: journaled submissions must not hold a
+     * DB connection while waiting for the fsync.
      */
-    @Transactional
-    public SubmissionSuccessResponse submitResponse(String slug, SubmitResponseRequest request, String clientIp) {
-        // 1. Get and validate form
-        Form form = formRepository.findBySlugAndStatusAndIsDeletedFalse(slug, FormStatus.PUBLISHED)
-                .orElseThrow(() -> new ResourceNotFoundException("Form", "slug", slug));
-
-        // 2. Bot protection checks
-        validateBotProtection(request);
-
-        // 3. Server-side validation
-        List<FormField> activeFields = form.getFields().stream()
-                .filter(f -> !f.getIsDeleted())
-                .collect(Collectors.toList());
-
-        validateSubmission(activeFields, request.getValues());
-
-        // 4. Create form schema snapshot
-        String schemaSnapshot = createSchemaSnapshot(activeFields);
-
-        // 5. Create response JSON for hybrid storage
-        String responseJson = createResponseJson(request.getValues());
-
-        // 6. Create form response entity
-        FormResponse response = FormResponse.builder()
-                .form(form)
-                .submissionIp(clientIp)
-                .status(ResponseStatus.COMPLETED)
-                .formVersion(form.getVersion())
-                .responseJson(responseJson)
-                .formSchemaSnapshot(schemaSnapshot)
-                .build();
-
-        // 7. Create typed field values for EAV storage
-        Map<String, FormField> fieldMap = activeFields.stream()
-                .collect(Collectors.toMap(FormField::getFieldKey, f -> f));
-
-        for (Map.Entry<String, String> entry : request.getValues().entrySet()) {
-            FormField field = fieldMap.get(entry.getKey());
-            if (field != null) {
-                FieldValue fieldValue = createTypedFieldValue(field, entry.getValue());
-                response.addFieldValue(fieldValue);
+    public SubmissionSuccessResponse submitResponse(String slug, InputStream body, String clientIp,
+            String idempotencyKey) {
+        // 1. Resolve compiled form (cached, no DB round trip when hot)
+        CompiledForm form = publishedFormCache.get(slug);
+
+        if (idempotencyKey == null) {
+            return doSubmit(form, body, clientIp, null);
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+            throw new ValidationException(
+                    "Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+        }
+        return idempotencyKeyCache.execute(form.formId(), idempotencyKey,
+                () -> doSubmit(form, body, clientIp, idempotencyKey));
+    }
+
+    private SubmissionSuccessResponse doSubmit(CompiledForm form, InputStream body, String clientIp,
+            String idempotencyKey) {
+        // 2. Single pass over the body: validation, typed values and response JSON
+        SubmissionDecoder.DecodedSubmission decoded = submissionDecoder.decode(body, form);
+
+        // 3. Bot protection checks, then field errors
+        validateBotProtection(form, decoded.honeypot(), decoded.loadToken(), loadTokenRequired);
+        if (decoded.errors() != null) {
+            throw new ValidationException("Validation failed", decoded.errors());
+        }
+
+        // 4. Attach identity and schema snapshot reference
+        PreparedSubmission submission = new PreparedSubmission(
+                UUID.randomUUID().toString(),
+                idempotencyKey,
+                form.formId(),
+                form.version(),
+                schemaSnapshotService.resolveId(form.schemaHash(), form.schemaSnapshot()),
+                clientIp,
+                LocalDateTime.now(),
+                decoded.responseJson(),
+                decoded.values());
+
+        // 5a. Journal mode: durable on local disk, flushed to the DB later
+        if (submissionJournal.hasCapacity()) {
+            try {
+                submissionJournal.append(submission).get(journalAppendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                log.debug("Response journaled: {} for form {}", submission.submissionUid(), form.slug());
+                return SubmissionSuccessResponse.accepted(submission.submissionUid());
+            } catch (ExecutionException e) {
+                // Not written to the journal; safe to write directly instead
+                log.warn("Journal append failed for form {}, writing directly: {}", form.slug(), e.getMessage());
+            } catch (TimeoutException e) {
+                // May still be written later, so a direct write could duplicate it
+                throw new IllegalStateException("Timed out journaling submission " + submission.submissionUid());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while journaling submission");
             }
         }
 
-        // 8. Save (both response and field_values in same transaction)
-        response = responseRepository.save(response);
-        log.info("Response submitted: {} for form {}", response.getId(), slug);
+        // 5b. Direct mode: response and field_values in one transaction
+        Long responseId;
+        try {
+            responseId = responseWriter.write(submission);
+        } catch (DataIntegrityViolationException e) {
+            // Key evicted from the cache (or submitted via another node): the DB has it
+            if (idempotencyKey == null) {
+                throw e;
+            }
+            Long existingId = responseRepository.findIdByFormIdAndIdempotencyKey(form.formId(), idempotencyKey)
+                    .orElseThrow(() -> e);
+            idempotencyKeyCache.recordBackstop();
+            log.debug("Idempotent retry for form {} resolved to response {}", form.slug(), existingId);
+            return SubmissionSuccessResponse.success(existingId);
+        }
+        log.info("Response submitted: {} for form {}", responseId, form.slug());
 
-        return SubmissionSuccessResponse.success(response.getId());
+        return SubmissionSuccessResponse.success(responseId);
+    }
+
+    /**
+     * BULK SUBMISSION (offline kiosks, import clients):
+     * - The form is resolved once for the whole request
+     * - Every item is validated individually; invalid items are REJECTED
+     * - Load tokens are verified only when an item carries one: kiosks sync
+     * items collected long after max-age, and a reusable token copied onto
+     * every item would prove nothing; the bulk rate limit bounds abuse
+     * - Valid items are written in chunks, one batched transaction per chunk
+     * - A chunk that fails to write marks only its own items FAILED
+     */
+    public BulkSubmitResponse submitBulk(String slug, BulkSubmitRequest request, String clientIp) {
+        CompiledForm form = publishedFormCache.get(slug);
+        List<SubmitResponseRequest> items = request.getSubmissions();
+
+        BulkSubmitResponse.ItemResult[] results = new BulkSubmitResponse.ItemResult[items.size()];
+        List<PreparedSubmission> valid = new ArrayList<>(items.size());
+        List<Integer> validIndexes = new ArrayList<>(items.size());
+
+        for (int i = 0; i < items.size(); i++) {
+            SubmitResponseRequest item = items.get(i);
+            try {
+                if (item == null || item.getValues() == null || item.getValues().isEmpty()) {
+                    throw new ValidationException("At least one field value is required");
+                }
+                validateBotProtection(form, item.getHoneypot(), item.getLoadToken(), false);
+                validateSubmission(form.fields(), item.getValues());
+                valid.add(prepareSubmission(form, item.getValues(), clientIp));
+                validIndexes.add(i);
+            } catch (ValidationException e) {
+                results[i] = BulkSubmitResponse.ItemResult.builder()
+                        .index(i)
+                        .status(BulkSubmitResponse.ItemStatus.REJECTED)
+                        .message(e.getMessage())
+                        .errors(e.getErrors())
+                        .build();
+            }
+        }
+
+        for (int start = 0; start < valid.size(); start += bulkChunkSize) {
+            int end = Math.min(start + bulkChunkSize, valid.size());
+            List<PreparedSubmission> chunk = valid.subList(start, end);
+
+            Map<String, Long> ids = null;
+            try {
+                ids = responseWriter.writeBatch(chunk);
+            } catch (Exception e) {
+                log.error("Bulk chunk [{}, {}) failed for form {}", start, end, slug, e);
+            }
+
+            for (int j = start; j < end; j++) {
+                int index = validIndexes.get(j);
+                results[index] = ids != null
+                        ? BulkSubmitResponse.ItemResult.builder()
+                                .index(index)
+                                .status(BulkSubmitResponse.ItemStatus.CREATED)
+                                .responseId(ids.get(valid.get(j).submissionUid()))
+                                .build()
+                        : BulkSubmitResponse.ItemResult.builder()
+                                .index(index)
+                                .status(BulkSubmitResponse.ItemStatus.FAILED)
+                                .message("Failed to store submission")
+                                .build();
+            }
+        }
+
+        BulkSubmitResponse response = BulkSubmitResponse.of(Arrays.asList(results));
+        log.info("Bulk submission for form {}: {} created, {} rejected, {} failed",
+                slug, response.getCreated(), response.getRejected(), response.getFailed());
+        return response;
     }
 
     /**
      * BOT PROTECTION STRATEGIES:
      * 1. Honeypot field check (hidden field that should be empty)
-     * 2. Timing check (too fast = bot)
+     * 2. Timing check (too fast = bot) against a server-signed load token;
+     * the client can no longer pick its own load time
+     *
+     * @param required reject submissions without a token (single submit);
+     * bulk imports only verify a token when one is sent
      */
-    private void validateBotProtection(SubmitResponseRequest request) {
+    private void validateBotProtection(CompiledForm form, String honeypot, String loadToken, boolean required) {
         // Honeypot check
-        if (request.getHoneypot() != null && !request.getHoneypot().isEmpty()) {
+        if (honeypot != null && !honeypot.isEmpty()) {
             log.warn("Bot detected: honeypot field populated");
             throw new ValidationException("Invalid submission");
         }
 
-        // Timing check (minimum 2 seconds between load and submit)
-        if (request.getLoadTimestamp() != null) {
-            long elapsed = System.currentTimeMillis() - request.getLoadTimestamp();
-            if (elapsed < 2000) {
-                log.warn("Bot detected: submission too fast ({}ms)", elapsed);
+        // Timing check (signature, minimum fill time and maximum age)
+        if (loadToken != null || required) {
+            String problem = loadTokenProvider.verify(form.slug(), form.version(), loadToken);
+            if (problem != null) {
+                log.warn("Bot detected on {}: {}", form.slug(), problem);
                 throw new ValidationException("Invalid submission");
             }
         }
@@ -131,79 +267,28 @@ public class ResponseService {
     /**
      * SERVER-SIDE VALIDATION:
      * - Never trust frontend validation
-     * - Check required fields
-     * - Validate field types (TODO: pattern validation)
+     * - Runs the field validators compiled with the cached form
+     * (required, type, validationRules and option membership)
+     * - The error map is only allocated when a field fails
      */
-    private void validateSubmission(List<FormField> fields, Map<String, String> values) {
-        Map<String, String> errors = new HashMap<>();
-
-        for (FormField field : fields) {
-            String value = values.get(field.getFieldKey());
+    private void validateSubmission(List<CompiledField> fields, Map<String, String> values) {
+        Map<String, String> errors = null;
 
-            // Required check
-            if (field.getIsRequired() && (value == null || value.trim().isEmpty())) {
-                errors.put(field.getFieldKey(), field.getLabel() + " is required");
-            }
-
-            // Type-specific validation
-            if (value != null && !value.isEmpty()) {
-                switch (field.getFieldType()) {
-                    case EMAIL:
-                        if (!value.matches("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$")) {
-                            errors.put(field.getFieldKey(), "Invalid email format");
-                        }
-                        break;
-                    case NUMBER:
-                        try {
-                            Double.parseDouble(value);
-                        } catch (NumberFormatException e) {
-                            errors.put(field.getFieldKey(), "Must be a valid number");
-                        }
-                        break;
-                    default:
-                        // Additional validation based on validationRules JSON can be added here
-                        break;
+        for (CompiledField field : fields) {
+            String error = field.validator().validate(values.get(field.fieldKey()));
+            if (error != null) {
+                if (errors == null) {
+                    errors = new HashMap<>();
                 }
+                errors.put(field.fieldKey(), error);
             }
         }
 
-        if (!errors.isEmpty()) {
+        if (errors != null) {
             throw new ValidationException("Validation failed", errors);
         }
     }
 
-    /**
-     * SCHEMA SNAPSHOTTING:
-     * Captures form schema at submission time for historical accuracy.
-     * 
-     * Critical for:
-     * - Historical accuracy (fields as they existed at submit)
-     * - Data integrity (field deletion doesn't orphan data)
-     * - Audit trail (compliance requirements)
-     * - Analytics (compare across form versions)
-     */
-    private String createSchemaSnapshot(List<FormField> fields) {
-        try {
-            List<Map<String, Object>> snapshot = fields.stream()
-                    .map(f -> {
-                        Map<String, Object> fieldSnapshot = new HashMap<>();
-                        fieldSnapshot.put("fieldKey", f.getFieldKey());
-                        fieldSnapshot.put("fieldType", f.getFieldType().name());
-                        fieldSnapshot.put("label", f.getLabel());
-                        fieldSnapshot.put("isRequired", f.getIsRequired());
-                        fieldSnapshot.put("validationRules", f.getValidationRules());
-                        fieldSnapshot.put("fieldConfig", f.getFieldConfig());
-                        return fieldSnapshot;
-                    })
-                    .collect(Collectors.toList());
-
-            return objectMapper.writeValueAsString(snapshot);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to create schema snapshot", e);
-            return "[]";
-        }
-    }
-
     /**
      * HYBRID STORAGE: Create JSON representation for fast reads.
      */
@@ -217,27 +302,34 @@ public class ResponseService {
     }
 
     /**
-     * TYPED VALUE MAPPING:
-     * Maps string values to appropriate typed columns.
+     * Bulk path counterpart of SubmissionDecoder: only fields of the published
+     * schema are kept, both as typed values and in response_json (submission
+     * order); unknown client keys are dropped.
      */
-    private FieldValue createTypedFieldValue(FormField field, String value) {
-        FieldValue.FieldValueBuilder builder = FieldValue.builder()
-                .field(field);
-
-        TypedValueMapper.TypedValue typed = TypedValueMapper.mapValue(field.getFieldType(), value);
-
-        if (typed != null) {
-            if (typed.hasText()) {
-                builder.valueText(typed.text());
-            } else if (typed.hasNumber()) {
-                builder.valueNumber(typed.number());
-            } else if (typed.hasDate()) {
-                builder.valueDate(typed.date());
-            } else if (typed.hasBoolean()) {
-                builder.valueBoolean(typed.bool());
+    private PreparedSubmission prepareSubmission(CompiledForm form, Map<String, String> values, String clientIp) {
+        List<PreparedSubmission.Value> typedValues = new ArrayList<>(values.size());
+        Map<String, String> schemaValues = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            CompiledField field = form.field(entry.getKey());
+            if (field == null) {
+                continue;
+            }
+            schemaValues.put(entry.getKey(), entry.getValue());
+            TypedValueMapper.TypedValue typed = TypedValueMapper.mapValue(field.fieldType(), entry.getValue());
+            if (typed != null) {
+                typedValues.add(new PreparedSubmission.Value(field.id(), typed));
             }
         }
 
-        return builder.build();
+        return new PreparedSubmission(
+                UUID.randomUUID().toString(),
+                null,
+                form.formId(),
+                form.version(),
+                schemaSnapshotService.resolveId(form.schemaHash(), form.schemaSnapshot()),
+                clientIp,
+                LocalDateTime.now(),
+                createResponseJson(schemaValues),
+                typedValues);
     }
 }
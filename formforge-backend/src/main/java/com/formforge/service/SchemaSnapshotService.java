@@ -0,0 +1,193 @@
+package com.formforge.service;
+
+import com.formforge.entity.FormResponse;
+import com.formforge.entity.SchemaSnapshot;
+import com.formforge.exception.ResourceNotFoundException;
+import com.formforge.repository.FormResponseRepository;
+import com.formforge.repository.SchemaSnapshotRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Stores form schema snapshots once per distinct schema.
+ *
+ * WRITE PATH:
+ * - Hash is computed once when the published form is compiled
+ * - hash -> id is cached, so a hot form resolves its snapshot without touching the DB
+ * - First use of a new schema inserts it in its own transaction (REQUIRES_NEW),
+ * racing inserts are resolved by uk_schema_snapshot_hash
+ *
+ * READ PATH:
+ * - id -> JSON is cached for exports and other readers
+ * - Legacy rows fall back to their inline form_schema_snapshot
+ */
+@Slf4j
+@Service
+public class SchemaSnapshotService {
+
+    private final SchemaSnapshotRepository snapshotRepository;
+    private final FormResponseRepository responseRepository;
+    private final TransactionTemplate requiresNew;
+    private final Cache<String, Long> idsByHash;
+    private final Cache<Long, String> jsonById;
+    private final ExecutorService backfillExecutor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "schema-snapshot-backfill"));
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+
+    public SchemaSnapshotService(SchemaSnapshotRepository snapshotRepository,
+            FormResponseRepository responseRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${cache.schema-snapshots.max-size:5000}") long maxSize) {
+        this.snapshotRepository = snapshotRepository;
+        this.responseRepository = responseRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.idsByHash = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        this.jsonById = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByHash, "schema_snapshot_ids");
+        CaffeineCacheMetrics.monitor(meterRegistry, jsonById, "schema_snapshot_json");
+    }
+
+    /**
+     * Hex SHA-256 of the snapshot JSON (the content address).
+     */
+    public static String contentHash(String schemaJson) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(schemaJson.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Get or create the snapshot id for a schema.
+     */
+    public Long resolveId(String contentHash, String schemaJson) {
+        return idsByHash.get(contentHash, hash -> findOrCreate(hash, schemaJson));
+    }
+
+    /**
+     * Snapshot JSON for a response, whether it references a shared snapshot
+     * or still carries a legacy inline copy.
+     */
+    public String getSchemaJson(FormResponse response) {
+        return getSchemaJson(response.getSchemaSnapshotId(), response.getFormSchemaSnapshot());
+    }
+
+    /**
+     * Same resolution for callers that read the two columns directly.
+     */
+    public String getSchemaJson(Long snapshotId, String inlineSnapshot) {
+        if (snapshotId != null) {
+            return getSchemaJson(snapshotId);
+        }
+        return inlineSnapshot != null ? inlineSnapshot : "[]";
+    }
+
+    public String getSchemaJson(Long snapshotId) {
+        return jsonById.get(snapshotId, id -> snapshotRepository.findById(id)
+                .map(SchemaSnapshot::getSchemaJson)
+                .orElseThrow(() -> new ResourceNotFoundException("SchemaSnapshot", id)));
+    }
+
+    private Long findOrCreate(String hash, String schemaJson) {
+        return snapshotRepository.findByContentHash(hash)
+                .map(SchemaSnapshot::getId)
+                .orElseGet(() -> {
+                    try {
+                        Long id = requiresNew.execute(status -> snapshotRepository.save(SchemaSnapshot.builder()
+                                .contentHash(hash)
+                                .schemaJson(schemaJson)
+                                .build()).getId());
+                        log.info("Schema snapshot stored: {} ({})", id, hash);
+                        return id;
+                    } catch (DataIntegrityViolationException e) {
+                        // Another node/thread inserted the same schema first
+                        return snapshotRepository.findByContentHash(hash)
+                                .map(SchemaSnapshot::getId)
+                                .orElseThrow(() -> e);
+                    }
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfillExecutor.shutdownNow();
+    }
+
+    /**
+     * MIGRATION: Move legacy inline snapshots into schema_snapshots.
+     * Runs in the background in id-ordered batches, each in its own transaction,
+     * so it can be stopped and re-run safely at any point.
+     *
+     * @return false if a backfill is already running
+     */
+    public boolean startBackfill(int batchSize) {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        backfillExecutor.submit(() -> {
+            try {
+                long migrated = backfill(batchSize);
+                log.info("Schema snapshot backfill complete: {} responses migrated", migrated);
+            } catch (Exception e) {
+                log.error("Schema snapshot backfill failed", e);
+            } finally {
+                backfillRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    private long backfill(int batchSize) {
+        long afterId = 0;
+        long migrated = 0;
+
+        while (true) {
+            List<Object[]> rows = responseRepository.findLegacySnapshots(afterId, PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return migrated;
+            }
+
+            // Group the batch by snapshot so each distinct schema costs one UPDATE
+            Map<Long, List<Long>> idsBySnapshot = new LinkedHashMap<>();
+            for (Object[] row : rows) {
+                String schemaJson = (String) row[1];
+                Long snapshotId = resolveId(contentHash(schemaJson), schemaJson);
+                idsBySnapshot.computeIfAbsent(snapshotId, k -> new ArrayList<>()).add((Long) row[0]);
+            }
+
+            requiresNew.executeWithoutResult(status -> idsBySnapshot
+                    .forEach((snapshotId, ids) -> responseRepository.attachSnapshot(snapshotId, ids)));
+
+            migrated += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+            log.debug("Schema snapshot backfill: {} responses migrated (last id {})", migrated, afterId);
+        }
+    }
+}
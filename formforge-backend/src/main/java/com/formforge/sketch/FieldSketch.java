@@ -0,0 +1,180 @@
+package com.formforge.sketch;
+
+import com.formforge.entity.enums.FieldType;
+import com.formforge.util.TypedValueMapper.TypedValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * The sketches of one field (or of the submission IPs) of one form:
+ * - every field: answer count and HyperLogLog of distinct values
+ * - NUMBER: TDigest of the numeric values
+ * - TEXT / DROPDOWN / RADIO: SpaceSaving top values
+ *
+ * Not thread-safe; FormSketchStore guards each form's sketches.
+ */
+public final class FieldSketch {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private final FieldType fieldType;
+    private long count;
+    private final HyperLogLog distinct;
+    private final TDigest quantiles;
+    private final SpaceSaving topValues;
+
+    private FieldSketch(FieldType fieldType, long count, HyperLogLog distinct, TDigest quantiles,
+            SpaceSaving topValues) {
+        this.fieldType = fieldType;
+        this.count = count;
+        this.distinct = distinct;
+        this.quantiles = quantiles;
+        this.topValues = topValues;
+    }
+
+    /**
+     * @param fieldType null for the submission IP sketch (distinct count only)
+     */
+    public static FieldSketch create(FieldType fieldType, SketchSettings settings) {
+        return new FieldSketch(fieldType, 0,
+                new HyperLogLog(settings.hllPrecision()),
+                fieldType == FieldType.NUMBER ? new TDigest(settings.compression()) : null,
+                hasTopValues(fieldType) ? new SpaceSaving(settings.topCapacity()) : null);
+    }
+
+    private static boolean hasTopValues(FieldType fieldType) {
+        return fieldType == FieldType.TEXT || fieldType == FieldType.DROPDOWN || fieldType == FieldType.RADIO;
+    }
+
+    public void add(TypedValue value) {
+        String canonical = canonical(value);
+        count++;
+        distinct.add(canonical);
+        if (quantiles != null && value.hasNumber()) {
+            quantiles.add(value.number());
+        }
+        if (topValues != null) {
+            topValues.add(canonical);
+        }
+    }
+
+    /**
+     * Count one submission; {@code value} (its IP) may be null.
+     */
+    public void addSubmission(String value) {
+        count++;
+        if (value != null) {
+            distinct.add(value);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the sketches were built with other settings
+     */
+    public void merge(FieldSketch other) {
+        count += other.count;
+        distinct.merge(other.distinct);
+        if (quantiles != null && other.quantiles != null) {
+            quantiles.merge(other.quantiles);
+        }
+        if (topValues != null && other.topValues != null) {
+            topValues.merge(other.topValues);
+        }
+    }
+
+    public FieldSketch copy() {
+        return fromBytes(toBytes());
+    }
+
+    public FieldType fieldType() {
+        return fieldType;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public HyperLogLog distinct() {
+        return distinct;
+    }
+
+    /**
+     * @return null unless NUMBER
+     */
+    public TDigest quantiles() {
+        return quantiles;
+    }
+
+    /**
+     * @return null unless TEXT, DROPDOWN or RADIO
+     */
+    public SpaceSaving topValues() {
+        return topValues;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8192);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(fieldType != null ? fieldType.name() : "");
+            out.writeLong(count);
+            distinct.write(out);
+            out.writeBoolean(quantiles != null);
+            if (quantiles != null) {
+                quantiles.write(out);
+            }
+            out.writeBoolean(topValues != null);
+            if (topValues != null) {
+                topValues.write(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static FieldSketch fromBytes(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown field sketch format " + version);
+            }
+            String type = in.readUTF();
+            long count = in.readLong();
+            HyperLogLog distinct = HyperLogLog.read(in);
+            TDigest quantiles = in.readBoolean() ? TDigest.read(in) : null;
+            SpaceSaving topValues = in.readBoolean() ? SpaceSaving.read(in) : null;
+            return new FieldSketch(type.isEmpty() ? null : FieldType.valueOf(type), count, distinct, quantiles,
+                    topValues);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * One spelling per distinct value, whichever typed column it maps to.
+     */
+    private static String canonical(TypedValue value) {
+        if (value.hasNumber()) {
+            return value.number().toString();
+        }
+        if (value.hasDate()) {
+            return value.date().toString();
+        }
+        if (value.hasBoolean()) {
+            return value.bool().toString();
+        }
+        return value.text();
+    }
+
+    /**
+     * Sketch sizes and accuracy (sketches.* properties).
+     */
+    public record SketchSettings(int hllPrecision, double compression, int topCapacity) {
+    }
+}
@@ -0,0 +1,455 @@
+package com.formforge.sketch;
+
+import com.formforge.entity.FormField;
+import com.formforge.entity.enums.FieldType;
+import com.formforge.ingest.PreparedSubmission;
+import com.formforge.repository.FormFieldRepository;
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.SketchRow;
+import com.formforge.repository.FormSketchRepository;
+import com.formforge.sketch.FieldSketch.SketchSettings;
+import com.formforge.storage.ResponsePayloadCodec;
+import com.formforge.util.TransactionCallbacks;
+import com.formforge.util.TypedValueMapper;
+import com.formforge.util.TypedValueMapper.TypedValue;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-form, per-field probabilistic sketches (see FieldSketch) for
+ * approximate analytics on forms too large for exact aggregates.
+ *
+ * WRITE PATH:
+ * - ResponseWriter reports every submission; after commit its typed values
+ * and IP are added to the form's in-memory sketches (no DB work once the
+ * form is loaded)
+ * - Dirty forms are written to form_sketches every {@code persist-interval}
+ * and on shutdown; a crash loses at most that window
+ * - Forms idle for {@code idle-timeout} are dropped from memory once
+ * persisted and reloaded from form_sketches on next use
+ *
+ * READ PATH: sketches of one form, or merged across all versions of a
+ * form group, in time independent of the number of responses.
+ *
+ * REBUILD (admin API, or automatically when a form has fewer sketched
+ * submissions than form_stats counts, e.g. responses older than the
+ * sketches): the form's responses are replayed in id order into fresh
+ * sketches, which then replace the live ones atomically.
+ *
+ * Sketch sizes ({@code hll-precision}, {@code tdigest-compression},
+ * {@code top-capacity}) must not change without rebuilding: sketches of
+ * different sizes do not merge.
+ */
+@Slf4j
+@Component
+public class FormSketchStore {
+
+    /**
+     * Sketch key of the per-form submission count and distinct submitter IPs.
+     * Field keys always start with a letter, so it cannot collide.
+     */
+    public static final String SUBMISSIONS_KEY = "$submissionIp";
+
+    @Value("${sketches.enabled:true}")
+    private boolean enabled;
+
+    @Value("${sketches.persist-interval:60s}")
+    private Duration persistInterval;
+
+    @Value("${sketches.idle-timeout:30m}")
+    private Duration idleTimeout;
+
+    @Value("${sketches.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    @Value("${sketches.rebuild-cooldown:1h}")
+    private Duration rebuildCooldown;
+
+    private final FormSketchRepository sketchRepository;
+    private final FormFieldRepository formFieldRepository;
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final ResponsePayloadCodec payloadCodec;
+    private final MeterRegistry meterRegistry;
+    private final SketchSettings settings;
+
+    private final Map<Long, FormSketches> sketches = new ConcurrentHashMap<>();
+    private final Set<Long> rebuilding = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> lastRebuildAt = new ConcurrentHashMap<>();
+    /** Field lookups per form; FormFieldService invalidates them when fields change */
+    private final LoadingCache<Long, FormFields> fieldsByForm;
+    private final ScheduledExecutorService persister = Executors.newSingleThreadScheduledExecutor(
+            r -> new Thread(r, "form-sketch-persister"));
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "form-sketch-rebuild"));
+
+    public FormSketchStore(FormSketchRepository sketchRepository,
+            FormFieldRepository formFieldRepository,
+            FormResponseJdbcRepository jdbcRepository,
+            ResponsePayloadCodec payloadCodec,
+            MeterRegistry meterRegistry,
+            @Value("${sketches.hll-precision:12}") int hllPrecision,
+            @Value("${sketches.tdigest-compression:100}") double compression,
+            @Value("${sketches.top-capacity:64}") int topCapacity) {
+        this.sketchRepository = sketchRepository;
+        this.formFieldRepository = formFieldRepository;
+        this.jdbcRepository = jdbcRepository;
+        this.payloadCodec = payloadCodec;
+        this.meterRegistry = meterRegistry;
+        this.settings = new SketchSettings(hllPrecision, compression, topCapacity);
+        this.fieldsByForm = Caffeine.newBuilder()
+                .maximumSize(1_000)
+                // Bounds staleness after field edits made through another node
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .build(this::loadFields);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("formforge.sketches.forms", sketches, Map::size)
+                .description("Forms whose sketches are held in memory")
+                .register(meterRegistry);
+        persister.scheduleWithFixedDelay(this::persistSafely,
+                persistInterval.toMillis(), persistInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        rebuilder.shutdownNow();
+        persister.shutdown();
+        persister.awaitTermination(10, TimeUnit.SECONDS);
+        if (enabled) {
+            // Final persist so a clean shutdown loses nothing
+            persistSafely();
+        }
+    }
+
+    public int topCapacity() {
+        return settings.topCapacity();
+    }
+
+    /**
+     * Drop a form's cached field lookup now and again once the surrounding
+     * transaction commits.
+     */
+    public void invalidateFields(Long formId) {
+        fieldsByForm.invalidate(formId);
+        TransactionCallbacks.afterCommit(() -> fieldsByForm.invalidate(formId));
+    }
+
+    /**
+     * Add submissions to their form's sketches once the current transaction
+     * commits.
+     *
+     * @param byResponseId form_responses.id -> submission
+     */
+    public void record(Long formId, Map<Long, PreparedSubmission> byResponseId) {
+        if (!enabled || byResponseId.isEmpty()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            try {
+                FormFields fields = fieldsByForm.get(formId);
+                sketches.compute(formId, (id, existing) -> {
+                    FormSketches target = existing != null ? existing : load(id);
+                    byResponseId.forEach((responseId, submission) -> target.add(responseId,
+                            submission.submissionIp(), fields.values(submission.values())));
+                    return target;
+                });
+            } catch (RuntimeException e) {
+                // The responses are committed; a gap is healed by the next rebuild
+                log.warn("Could not sketch {} responses of form {}: {}", byResponseId.size(), formId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Copies of the sketches of some forms, merged field by field (fieldKey).
+     * Fields are ordered like the first form's fields.
+     */
+    public SketchSnapshot snapshot(List<Long> formIds) {
+        Map<String, FieldSketch> merged = new HashMap<>();
+        FieldSketch submissions = FieldSketch.create(null, settings);
+        Map<Long, Long> submissionsByForm = new LinkedHashMap<>();
+        for (Long formId : formIds) {
+            FormSketches form = sketches.computeIfAbsent(formId, this::load);
+            submissionsByForm.put(formId, form.mergeInto(merged, submissions));
+        }
+
+        Map<String, FieldSketch> ordered = new LinkedHashMap<>();
+        if (!formIds.isEmpty()) {
+            for (String key : fieldsByForm.get(formIds.get(0)).byKey().keySet()) {
+                FieldSketch sketch = merged.remove(key);
+                if (sketch != null) {
+                    ordered.put(key, sketch);
+                }
+            }
+        }
+        ordered.putAll(merged);
+        return new SketchSnapshot(ordered, submissions, submissionsByForm);
+    }
+
+    /**
+     * Rebuild one form's sketches from its responses in the background.
+     *
+     * @param force ignore {@code rebuild-cooldown} (admin request)
+     * @return false if disabled, already rebuilding or rebuilt too recently
+     */
+    public boolean requestRebuild(Long formId, boolean force) {
+        if (!enabled) {
+            return false;
+        }
+        Long last = lastRebuildAt.get(formId);
+        if (!force && last != null && System.currentTimeMillis() - last < rebuildCooldown.toMillis()) {
+            return false;
+        }
+        if (!rebuilding.add(formId)) {
+            return false;
+        }
+        lastRebuildAt.put(formId, System.currentTimeMillis());
+        rebuilder.execute(() -> {
+            try {
+                long replayed = rebuild(formId);
+                log.info("Sketches of form {} rebuilt from {} responses", formId, replayed);
+            } catch (Exception e) {
+                log.error("Sketch rebuild of form {} failed", formId, e);
+            } finally {
+                rebuilding.remove(formId);
+            }
+        });
+        return true;
+    }
+
+    private long rebuild(Long formId) {
+        FormFields fields = fieldsByForm.get(formId);
+        FormSketches fresh = new FormSketches(formId);
+        long[] lastId = { 0 };
+        long[] replayed = { 0 };
+        List<SketchRow> rows;
+        do {
+            rows = jdbcRepository.findForSketch(formId, lastId[0], rebuildBatchSize);
+            replay(fresh, rows, fields, lastId, replayed);
+        } while (rows.size() == rebuildBatchSize && !Thread.currentThread().isInterrupted());
+
+        // Tail read and swap in one step: live updates for this form wait, and
+        // afterwards skip the ids the replay already covered
+        sketches.compute(formId, (id, live) -> {
+            List<SketchRow> tail;
+            do {
+                tail = jdbcRepository.findForSketch(formId, lastId[0], rebuildBatchSize);
+                replay(fresh, tail, fields, lastId, replayed);
+            } while (tail.size() == rebuildBatchSize);
+            fresh.replayedThroughId = lastId[0];
+            return fresh;
+        });
+
+        // Drops sketches of fields that no longer exist; the persister may
+        // have written fresh already, so it is written again after the delete
+        sketchRepository.deleteByForm(formId);
+        fresh.markDirty();
+        persist(fresh);
+        return replayed[0];
+    }
+
+    private void replay(FormSketches target, List<SketchRow> rows, FormFields fields, long[] lastId,
+            long[] replayed) {
+        for (SketchRow row : rows) {
+            List<SketchValue> values = new ArrayList<>();
+            try {
+                payloadCodec.forEachValue(row.payload(), (key, value) -> {
+                    SketchField field = fields.byKey().get(key);
+                    if (field == null || value == null) {
+                        return;
+                    }
+                    TypedValue typed = TypedValueMapper.mapValue(field.fieldType(), value);
+                    if (typed != null) {
+                        values.add(new SketchValue(key, field.fieldType(), typed));
+                    }
+                });
+            } catch (IOException e) {
+                log.warn("Sketching response {} without field values: unreadable payload", row.id());
+            }
+            target.add(row.id(), row.submissionIp(), values);
+            lastId[0] = row.id();
+            replayed[0]++;
+        }
+    }
+
+    private void persistSafely() {
+        try {
+            for (FormSketches form : sketches.values()) {
+                persist(form);
+            }
+            evictIdle();
+        } catch (Exception e) {
+            log.warn("Sketch persist failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private void persist(FormSketches form) {
+        Map<String, byte[]> serialized = form.takeDirty();
+        if (serialized == null) {
+            return;
+        }
+        try {
+            sketchRepository.upsert(form.formId, serialized);
+        } catch (RuntimeException e) {
+            form.markDirty();
+            throw e;
+        }
+    }
+
+    private void evictIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeout.toMillis();
+        for (Long formId : List.copyOf(sketches.keySet())) {
+            sketches.computeIfPresent(formId, (id, form) -> form.isIdle(cutoff) ? null : form);
+        }
+    }
+
+    private FormSketches load(Long formId) {
+        FormSketches form = new FormSketches(formId);
+        sketchRepository.findByForm(formId, (key, bytes) -> {
+            FieldSketch sketch = FieldSketch.fromBytes(bytes);
+            if (SUBMISSIONS_KEY.equals(key)) {
+                form.submissions = sketch;
+            } else {
+                form.fields.put(key, sketch);
+            }
+        });
+        return form;
+    }
+
+    private FormFields loadFields(Long formId) {
+        Map<Long, SketchField> byId = new HashMap<>();
+        Map<String, SketchField> byKey = new LinkedHashMap<>();
+        for (FormField field : formFieldRepository.findByFormIdAndIsDeletedFalseOrderByDisplayOrderAsc(formId)) {
+            SketchField sketchField = new SketchField(field.getFieldKey(), field.getFieldType());
+            byId.put(field.getId(), sketchField);
+            byKey.put(field.getFieldKey(), sketchField);
+        }
+        return new FormFields(byId, byKey);
+    }
+
+    /**
+     * Sketches of one form; every access holds its monitor.
+     */
+    private final class FormSketches {
+
+        private final Long formId;
+        private final Map<String, FieldSketch> fields = new LinkedHashMap<>();
+        private FieldSketch submissions = FieldSketch.create(null, settings);
+        /** Set by a rebuild: responses up to this id are already replayed */
+        private long replayedThroughId;
+        private boolean dirty;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        private FormSketches(Long formId) {
+            this.formId = formId;
+        }
+
+        private synchronized void add(long responseId, String submissionIp, List<SketchValue> values) {
+            lastAccess = System.currentTimeMillis();
+            if (responseId <= replayedThroughId) {
+                return;
+            }
+            submissions.addSubmission(submissionIp);
+            for (SketchValue value : values) {
+                fields.computeIfAbsent(value.fieldKey(), k -> FieldSketch.create(value.fieldType(), settings))
+                        .add(value.typed());
+            }
+            dirty = true;
+        }
+
+        /**
+         * @return submissions sketched for this form
+         */
+        private synchronized long mergeInto(Map<String, FieldSketch> target, FieldSketch targetSubmissions) {
+            lastAccess = System.currentTimeMillis();
+            fields.forEach((key, sketch) -> {
+                FieldSketch existing = target.get(key);
+                if (existing == null) {
+                    target.put(key, sketch.copy());
+                } else if (existing.fieldType() == sketch.fieldType()) {
+                    existing.merge(sketch);
+                }
+            });
+            targetSubmissions.merge(submissions);
+            return submissions.count();
+        }
+
+        /**
+         * @return every sketch serialized if anything changed since the last
+         *         call, otherwise null
+         */
+        private synchronized Map<String, byte[]> takeDirty() {
+            if (!dirty) {
+                return null;
+            }
+            Map<String, byte[]> serialized = new LinkedHashMap<>();
+            serialized.put(SUBMISSIONS_KEY, submissions.toBytes());
+            fields.forEach((key, sketch) -> serialized.put(key, sketch.toBytes()));
+            dirty = false;
+            return serialized;
+        }
+
+        private synchronized void markDirty() {
+            dirty = true;
+        }
+
+        private synchronized boolean isIdle(long cutoff) {
+            return !dirty && lastAccess < cutoff;
+        }
+    }
+
+    private record SketchField(String fieldKey, FieldType fieldType) {
+    }
+
+    private record SketchValue(String fieldKey, FieldType fieldType, TypedValue typed) {
+    }
+
+    private record FormFields(Map<Long, SketchField> byId, Map<String, SketchField> byKey) {
+
+        private List<SketchValue> values(List<PreparedSubmission.Value> submitted) {
+            List<SketchValue> values = new ArrayList<>(submitted.size());
+            for (PreparedSubmission.Value value : submitted) {
+                SketchField field = byId.get(value.fieldId());
+                if (field != null && value.typed() != null) {
+                    values.add(new SketchValue(field.fieldKey(), field.fieldType(), value.typed()));
+                }
+            }
+            return values;
+        }
+    }
+
+    /**
+     * @param fields            merged field sketches by fieldKey
+     * @param submissions       merged submission count and distinct IPs
+     * @param submissionsByForm submissions sketched per form
+     */
+    public record SketchSnapshot(Map<String, FieldSketch> fields, FieldSketch submissions,
+            Map<Long, Long> submissionsByForm) {
+    }
+}
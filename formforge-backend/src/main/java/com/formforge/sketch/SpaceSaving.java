@@ -0,0 +1,138 @@
+package com.formforge.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Heavy-hitters sketch (Space-Saving) over at most {@code capacity} values.
+ *
+ * - A new value, once full, replaces the least counted one and inherits its
+ * count as error; a reported count overestimates by at most its error
+ * - Any value occurring more than n / capacity times is guaranteed to be kept
+ * - Mergeable (Agarwal et al.): values missing from one side are charged that
+ * side's minimum count, then the largest {@code capacity} are kept
+ */
+public final class SpaceSaving {
+
+    /**
+     * Longer values are truncated before counting.
+     */
+    static final int MAX_VALUE_LENGTH = 256;
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+
+    public SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void add(String value) {
+        String key = value.length() > MAX_VALUE_LENGTH ? value.substring(0, MAX_VALUE_LENGTH) : value;
+        Counter counter = counters.get(key);
+        if (counter != null) {
+            counter.count++;
+        } else if (counters.size() < capacity) {
+            counters.put(key, new Counter(1, 0));
+        } else {
+            // Capacity is small (tens): a scan is cheaper than a stream-summary structure
+            Map.Entry<String, Counter> smallest = null;
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                if (smallest == null || entry.getValue().count < smallest.getValue().count) {
+                    smallest = entry;
+                }
+            }
+            counters.remove(smallest.getKey());
+            long inherited = smallest.getValue().count;
+            counters.put(key, new Counter(inherited + 1, inherited));
+        }
+    }
+
+    /**
+     * @return up to {@code limit} values, most frequent first
+     */
+    public List<Item> top(int limit) {
+        return counters.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Counter> e) -> e.getValue().count).reversed()
+                        .thenComparing(Map.Entry::getKey))
+                .limit(limit)
+                .map(e -> new Item(e.getKey(), e.getValue().count, e.getValue().error))
+                .toList();
+    }
+
+    public void merge(SpaceSaving other) {
+        long thisMin = minCount();
+        long otherMin = other.minCount();
+        Set<String> keys = new HashSet<>(counters.keySet());
+        keys.addAll(other.counters.keySet());
+
+        List<Map.Entry<String, Counter>> merged = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            Counter a = counters.get(key);
+            Counter b = other.counters.get(key);
+            long count = (a != null ? a.count : thisMin) + (b != null ? b.count : otherMin);
+            long error = (a != null ? a.error : thisMin) + (b != null ? b.error : otherMin);
+            merged.add(Map.entry(key, new Counter(count, error)));
+        }
+        merged.sort(Comparator.comparingLong((Map.Entry<String, Counter> e) -> e.getValue().count).reversed());
+
+        counters.clear();
+        for (Map.Entry<String, Counter> entry : merged.subList(0, Math.min(capacity, merged.size()))) {
+            counters.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Count a value absent from a full sketch may have been evicted with.
+     */
+    private long minCount() {
+        if (counters.size() < capacity) {
+            return 0;
+        }
+        return counters.values().stream().mapToLong(c -> c.count).min().orElse(0);
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        out.writeInt(capacity);
+        out.writeInt(counters.size());
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeLong(entry.getValue().count);
+            out.writeLong(entry.getValue().error);
+        }
+    }
+
+    static SpaceSaving read(DataInputStream in) throws IOException {
+        SpaceSaving sketch = new SpaceSaving(in.readInt());
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            sketch.counters.put(in.readUTF(), new Counter(in.readLong(), in.readLong()));
+        }
+        return sketch;
+    }
+
+    /**
+     * @param count estimated occurrences (never an underestimate)
+     * @param error maximum overestimate: the true count is within [count - error, count]
+     */
+    public record Item(String value, long count, long error) {
+    }
+
+    private static final class Counter {
+        private long count;
+        private long error;
+
+        private Counter(long count, long error) {
+            this.count = count;
+            this.error = error;
+        }
+    }
+}
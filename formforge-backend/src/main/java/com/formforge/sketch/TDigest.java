@@ -0,0 +1,238 @@
+package com.formforge.sketch;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Quantile sketch (merging t-digest, k1 scale function).
+ *
+ * - Values are buffered and merged into at most ~compression centroids;
+ * centroids near the tails stay small, so extreme quantiles are the most
+ * accurate
+ * - Mergeable: another digest's centroids are added as weighted points
+ * - Size is bounded by the compression, not by the number of values
+ */
+public final class TDigest {
+
+    private final double compression;
+    private final double normalizer;
+
+    private double[] means = new double[0];
+    private double[] weights = new double[0];
+    private int centroids;
+
+    private final double[] bufferMeans;
+    private final double[] bufferWeights;
+    private int buffered;
+
+    private double totalWeight;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public TDigest(double compression) {
+        this.compression = compression;
+        this.normalizer = compression / (2 * Math.PI);
+        int bufferSize = (int) (5 * compression);
+        this.bufferMeans = new double[bufferSize];
+        this.bufferWeights = new double[bufferSize];
+    }
+
+    public void add(double value) {
+        add(value, 1);
+    }
+
+    private void add(double value, double weight) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        if (buffered == bufferMeans.length) {
+            compress();
+        }
+        bufferMeans[buffered] = value;
+        bufferWeights[buffered] = weight;
+        buffered++;
+        totalWeight += weight;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long count() {
+        return Math.round(totalWeight);
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * @param q in [0, 1]
+     * @return estimated value at that quantile, NaN when empty
+     */
+    public double quantile(double q) {
+        compress();
+        if (centroids == 0) {
+            return Double.NaN;
+        }
+        if (centroids == 1 || q <= 0) {
+            return q <= 0 ? min : means[0];
+        }
+        if (q >= 1) {
+            return max;
+        }
+
+        double index = q * totalWeight;
+        // Before the first centroid's center: between min and that center
+        if (index < weights[0] / 2) {
+            return min + (means[0] - min) * (index / (weights[0] / 2));
+        }
+        double cumulative = 0;
+        for (int i = 0; i < centroids - 1; i++) {
+            double center = cumulative + weights[i] / 2;
+            double nextCenter = cumulative + weights[i] + weights[i + 1] / 2;
+            if (index <= nextCenter) {
+                double fraction = (index - center) / (nextCenter - center);
+                return means[i] + (means[i + 1] - means[i]) * fraction;
+            }
+            cumulative += weights[i];
+        }
+        // Past the last centroid's center: between that center and max
+        int last = centroids - 1;
+        double lastCenter = totalWeight - weights[last] / 2;
+        double fraction = (index - lastCenter) / (weights[last] / 2);
+        return means[last] + (max - means[last]) * Math.min(fraction, 1);
+    }
+
+    /**
+     * Bound on the rank error of {@link #quantile(double)}: the share of
+     * values in the centroid that answers it (values inside a centroid are
+     * only known by their mean).
+     */
+    public double rankError(double q) {
+        compress();
+        if (centroids == 0) {
+            return 0;
+        }
+        double index = q * totalWeight;
+        double cumulative = 0;
+        for (int i = 0; i < centroids; i++) {
+            cumulative += weights[i];
+            if (index <= cumulative) {
+                return weights[i] / totalWeight;
+            }
+        }
+        return weights[centroids - 1] / totalWeight;
+    }
+
+    public void merge(TDigest other) {
+        other.compress();
+        for (int i = 0; i < other.centroids; i++) {
+            add(other.means[i], other.weights[i]);
+        }
+        if (other.centroids > 0) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+    }
+
+    /**
+     * Merge the buffer into the centroids: sort every point by mean, then
+     * greedily combine neighbours while the combined centroid stays within
+     * one unit of the scale function k(q) = compression / 2pi * asin(2q - 1).
+     */
+    private void compress() {
+        if (buffered == 0) {
+            return;
+        }
+        int n = centroids + buffered;
+        double[] allMeans = Arrays.copyOf(means, n);
+        double[] allWeights = Arrays.copyOf(weights, n);
+        System.arraycopy(bufferMeans, 0, allMeans, centroids, buffered);
+        System.arraycopy(bufferWeights, 0, allWeights, centroids, buffered);
+        buffered = 0;
+
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(allMeans[a], allMeans[b]));
+
+        double[] mergedMeans = new double[n];
+        double[] mergedWeights = new double[n];
+        int merged = 0;
+        double soFar = 0;
+        double mean = allMeans[order[0]];
+        double weight = allWeights[order[0]];
+        double qLimit = quantileOf(k(0) + 1);
+
+        for (int i = 1; i < n; i++) {
+            double nextMean = allMeans[order[i]];
+            double nextWeight = allWeights[order[i]];
+            if ((soFar + weight + nextWeight) / totalWeight <= qLimit) {
+                weight += nextWeight;
+                mean += (nextMean - mean) * nextWeight / weight;
+            } else {
+                mergedMeans[merged] = mean;
+                mergedWeights[merged] = weight;
+                merged++;
+                soFar += weight;
+                qLimit = quantileOf(k(soFar / totalWeight) + 1);
+                mean = nextMean;
+                weight = nextWeight;
+            }
+        }
+        mergedMeans[merged] = mean;
+        mergedWeights[merged] = weight;
+        merged++;
+
+        means = Arrays.copyOf(mergedMeans, merged);
+        weights = Arrays.copyOf(mergedWeights, merged);
+        centroids = merged;
+    }
+
+    private double k(double q) {
+        return normalizer * Math.asin(2 * q - 1);
+    }
+
+    private double quantileOf(double k) {
+        if (k >= normalizer * Math.PI / 2) {
+            return 1;
+        }
+        return (Math.sin(k / normalizer) + 1) / 2;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+        compress();
+        out.writeDouble(compression);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        out.writeInt(centroids);
+        for (int i = 0; i < centroids; i++) {
+            out.writeDouble(means[i]);
+            out.writeDouble(weights[i]);
+        }
+    }
+
+    static TDigest read(DataInputStream in) throws IOException {
+        TDigest digest = new TDigest(in.readDouble());
+        double min = in.readDouble();
+        double max = in.readDouble();
+        int centroids = in.readInt();
+        digest.means = new double[centroids];
+        digest.weights = new double[centroids];
+        for (int i = 0; i < centroids; i++) {
+            digest.means[i] = in.readDouble();
+            digest.weights[i] = in.readDouble();
+            digest.totalWeight += digest.weights[i];
+        }
+        digest.centroids = centroids;
+        digest.min = min;
+        digest.max = max;
+        return digest;
+    }
+}
@@ -0,0 +1,41 @@
+package com.formforge.storage;
+
+/**
+ * How a form_responses row stores its payload (payload_format column).
+ */
+public enum PayloadFormat {
+
+    /**
+     * response_json as JSON text, keyed by fieldKey (every row before the codec).
+     */
+    JSON(0),
+
+    /**
+     * response_payload as a Smile array, positional to the row's schema snapshot.
+     */
+    SMILE(1),
+
+    /**
+     * SMILE, then raw-deflated.
+     */
+    SMILE_DEFLATE(2);
+
+    private final int code;
+
+    PayloadFormat(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+
+    public static PayloadFormat fromCode(int code) {
+        for (PayloadFormat format : values()) {
+            if (format.code == code) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown payload format " + code);
+    }
+}
@@ -0,0 +1,321 @@
+package com.formforge.storage;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileParser;
+import com.formforge.service.SchemaSnapshotService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage codec for response payloads (storage.response-codec).
+ *
+ * WHY: response_json repeats every fieldKey on every row, and the keys are
+ * often longer than the values. The schema snapshot a row references
+ * already fixes the key order, so the keys need not be stored at all.
+ *
+ * POSITIONAL SMILE (storage.response-codec.binary):
+ * - Values are written as a Smile array in snapshot field order, header-less
+ * - A field absent from the submission is written as false (values are
+ * always strings or null); trailing absent fields are dropped
+ * - Payloads of {@code compress-min-bytes} or more are deflated when that
+ * makes them smaller
+ * - Safe because a snapshot id never changes its content (content-addressed)
+ *
+ * FALLBACK: rows without a snapshot id, with keys outside the snapshot or
+ * with non-string values (legacy rows) stay JSON.
+ *
+ * READS: payload_format marks each row, so old and new rows mix freely and
+ * every reader decodes both, whether or not encoding is enabled.
+ */
+@Slf4j
+@Component
+public class ResponsePayloadCodec {
+
+    private static final int NOT_IN_LAYOUT = -1;
+
+    private final SchemaSnapshotService schemaSnapshotService;
+    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+    private final SmileFactory smileFactory;
+    private final Cache<Long, Layout> layoutsBySnapshotId;
+    private final boolean binary;
+    private final int compressMinBytes;
+
+    public ResponsePayloadCodec(SchemaSnapshotService schemaSnapshotService,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${storage.response-codec.binary:false}") boolean binary,
+            @Value("${storage.response-codec.compress-min-bytes:256}") int compressMinBytes,
+            @Value("${cache.schema-snapshots.max-size:5000}") long maxSize) {
+        this.schemaSnapshotService = schemaSnapshotService;
+        this.objectMapper = objectMapper;
+        this.jsonFactory = objectMapper.getFactory();
+        this.smileFactory = SmileFactory.builder()
+                .disable(SmileGenerator.Feature.WRITE_HEADER)
+                .disable(SmileParser.Feature.REQUIRE_HEADER)
+                .build();
+        this.layoutsBySnapshotId = Caffeine.newBuilder().maximumSize(maxSize).recordStats().build();
+        CaffeineCacheMetrics.monitor(meterRegistry, layoutsBySnapshotId, "response_codec_layouts");
+        this.binary = binary;
+        this.compressMinBytes = compressMinBytes;
+    }
+
+    public boolean isBinaryEnabled() {
+        return binary;
+    }
+
+    /**
+     * Storage form of a canonical response_json.
+     */
+    public StoredPayload encode(Long snapshotId, String responseJson) {
+        if (!binary) {
+            return StoredPayload.json(responseJson, snapshotId);
+        }
+        return encodeBinary(snapshotId, responseJson);
+    }
+
+    /**
+     * Positional encoding regardless of the binary switch (re-encoding job).
+     * Returns the JSON form when the row cannot be encoded.
+     */
+    public StoredPayload encodeBinary(Long snapshotId, String responseJson) {
+        if (snapshotId == null || responseJson == null) {
+            return StoredPayload.json(responseJson, snapshotId);
+        }
+        try {
+            byte[] smile = toPositional(layout(snapshotId), responseJson);
+            if (smile == null) {
+                return StoredPayload.json(responseJson, snapshotId);
+            }
+            if (smile.length >= compressMinBytes) {
+                byte[] deflated = deflate(smile);
+                if (deflated.length < smile.length) {
+                    return new StoredPayload(PayloadFormat.SMILE_DEFLATE, null, deflated, snapshotId);
+                }
+            }
+            return new StoredPayload(PayloadFormat.SMILE, null, smile, snapshotId);
+        } catch (IOException e) {
+            // Unparseable legacy JSON: store it as it came
+            log.debug("Keeping response payload as JSON: {}", e.getMessage());
+            return StoredPayload.json(responseJson, snapshotId);
+        }
+    }
+
+    /**
+     * The payload as canonical response_json (fields in snapshot order for
+     * positional rows).
+     */
+    public String toJson(StoredPayload payload) {
+        if (payload.format() == PayloadFormat.JSON) {
+            return payload.json();
+        }
+        StringWriter json = new StringWriter(256);
+        try (JsonGenerator generator = jsonFactory.createGenerator(json)) {
+            generator.writeStartObject();
+            forEachValue(payload, (key, value) -> {
+                try {
+                    generator.writeStringField(key, value);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toString();
+    }
+
+    /**
+     * Stream (fieldKey, value) pairs out of a payload without building a
+     * tree. Values are scalars as text, or null; nested JSON values (legacy
+     * rows) are skipped.
+     */
+    public void forEachValue(StoredPayload payload, BiConsumer<String, String> consumer) throws IOException {
+        switch (payload.format()) {
+            case JSON -> readJson(payload.json(), consumer);
+            case SMILE -> readPositional(layout(payload.snapshotId()), payload.binary(), consumer);
+            case SMILE_DEFLATE -> readPositional(layout(payload.snapshotId()), inflate(payload.binary()), consumer);
+        }
+    }
+
+    private void readJson(String json, BiConsumer<String, String> consumer) throws IOException {
+        if (json == null) {
+            return;
+        }
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String key = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if (token.isScalarValue()) {
+                    consumer.accept(key, parser.getValueAsString());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void readPositional(Layout layout, byte[] smile, BiConsumer<String, String> consumer) throws IOException {
+        try (JsonParser parser = smileFactory.createParser(smile)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Positional payload is not an array");
+            }
+            int position = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (position < layout.keys.length && token != JsonToken.VALUE_FALSE) {
+                    consumer.accept(layout.keys[position], token == JsonToken.VALUE_NULL ? null : parser.getText());
+                }
+                position++;
+            }
+        }
+    }
+
+    /**
+     * @return Smile bytes, or null if the row does not fit the layout
+     */
+    private byte[] toPositional(Layout layout, String responseJson) throws IOException {
+        String[] values = new String[layout.keys.length];
+        boolean[] present = new boolean[layout.keys.length];
+        int last = -1;
+
+        try (JsonParser parser = jsonFactory.createParser(responseJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                int position = layout.indexByKey.getOrDefault(parser.currentName(), NOT_IN_LAYOUT);
+                JsonToken token = parser.nextToken();
+                if (position == NOT_IN_LAYOUT || present[position]
+                        || (token != JsonToken.VALUE_STRING && token != JsonToken.VALUE_NULL)) {
+                    return null;
+                }
+                present[position] = true;
+                values[position] = token == JsonToken.VALUE_NULL ? null : parser.getText();
+                last = Math.max(last, position);
+            }
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(responseJson.length() / 2 + 16);
+        try (JsonGenerator generator = smileFactory.createGenerator(out)) {
+            generator.writeStartArray();
+            for (int i = 0; i <= last; i++) {
+                if (!present[i]) {
+                    generator.writeBoolean(false);
+                } else if (values[i] == null) {
+                    generator.writeNull();
+                } else {
+                    generator.writeString(values[i]);
+                }
+            }
+            generator.writeEndArray();
+        }
+        return out.toByteArray();
+    }
+
+    private Layout layout(Long snapshotId) throws IOException {
+        if (snapshotId == null) {
+            throw new IOException("Positional payload without a schema snapshot");
+        }
+        try {
+            return layoutsBySnapshotId.get(snapshotId, id -> {
+                try {
+                    return Layout.of(objectMapper.readTree(schemaSnapshotService.getSchemaJson(id)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static byte[] deflate(byte[] bytes) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            byte[] buffer = new byte[bytes.length + 64];
+            int length = 0;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] bytes) throws IOException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(bytes);
+            byte[] buffer = new byte[Math.max(64, bytes.length * 4)];
+            int length = 0;
+            while (!inflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                int n = inflater.inflate(buffer, length, buffer.length - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated response payload");
+                }
+                length += n;
+            }
+            return Arrays.copyOf(buffer, length);
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt response payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Field keys of one snapshot, in order.
+     */
+    private record Layout(String[] keys, Map<String, Integer> indexByKey) {
+
+        private static Layout of(JsonNode snapshot) {
+            String[] keys = new String[snapshot.size()];
+            Map<String, Integer> indexByKey = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = snapshot.get(i).path("fieldKey").asText(null);
+                if (keys[i] != null) {
+                    indexByKey.putIfAbsent(keys[i], i);
+                }
+            }
+            return new Layout(keys, indexByKey);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.formforge.storage;
+
+import com.formforge.repository.FormResponseJdbcRepository;
+import com.formforge.repository.FormResponseJdbcRepository.JsonPayloadRow;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * MIGRATION: Re-encode existing JSON payloads with ResponsePayloadCodec.
+ *
+ * Runs in the background in id-ordered batches, each in its own
+ * transaction, so it can be stopped and re-run safely at any point. Each
+ * UPDATE only applies while the row is still JSON. Rows the codec cannot
+ * encode positionally stay JSON and are skipped.
+ */
+@Slf4j
+@Component
+public class ResponsePayloadReencoder {
+
+    private final FormResponseJdbcRepository jdbcRepository;
+    private final ResponsePayloadCodec payloadCodec;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            r -> new Thread(r, "response-payload-reencode"));
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    public ResponsePayloadReencoder(FormResponseJdbcRepository jdbcRepository,
+            ResponsePayloadCodec payloadCodec,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcRepository = jdbcRepository;
+        this.payloadCodec = payloadCodec;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return false if a re-encoding run is already in progress
+     */
+    public boolean start(int batchSize) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.submit(() -> {
+            try {
+                long encoded = reencode(batchSize);
+                log.info("Response payload re-encoding complete: {} responses encoded", encoded);
+            } catch (Exception e) {
+                log.error("Response payload re-encoding failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    private long reencode(int batchSize) {
+        long afterId = 0;
+        long encoded = 0;
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<JsonPayloadRow> rows = jdbcRepository.findJsonPayloads(afterId, batchSize);
+            if (rows.isEmpty()) {
+                return encoded;
+            }
+
+            Map<Long, StoredPayload> payloads = new LinkedHashMap<>();
+            for (JsonPayloadRow row : rows) {
+                StoredPayload payload = payloadCodec.encodeBinary(row.snapshotId(), row.responseJson());
+                if (payload.format() != PayloadFormat.JSON) {
+                    payloads.put(row.id(), payload);
+                }
+            }
+            if (!payloads.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcRepository.updatePayloads(payloads));
+            }
+
+            encoded += payloads.size();
+            afterId = rows.get(rows.size() - 1).id();
+            log.debug("Response payload re-encoding: {} responses encoded (last id {})", encoded, afterId);
+        }
+        return encoded;
+    }
+}
@@ -0,0 +1,24 @@
+package com.formforge.storage;
+
+import com.formforge.entity.FormResponse;
+
+/**
+ * A response payload as stored: the columns ResponsePayloadCodec needs to
+ * read it back.
+ *
+ * @param format     payload_format
+ * @param json       response_json (JSON rows only)
+ * @param binary     response_payload (binary rows only)
+ * @param snapshotId schema_snapshot_id, the key order of positional rows
+ */
+public record StoredPayload(PayloadFormat format, String json, byte[] binary, Long snapshotId) {
+
+    public static StoredPayload json(String json, Long snapshotId) {
+        return new StoredPayload(PayloadFormat.JSON, json, null, snapshotId);
+    }
+
+    public static StoredPayload of(FormResponse response) {
+        return new StoredPayload(PayloadFormat.fromCode(response.getPayloadFormat()),
+                response.getResponseJson(), response.getResponsePayload(), response.getSchemaSnapshotId());
+    }
+}
@@ -0,0 +1,39 @@
+package com.formforge.util;
+
+import com.formforge.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Keyset position in a response listing ordered by (submittedAt DESC, id DESC).
+ *
+ * Encoded as base64url("{submittedAt ISO}|{id}"). Clients treat it as
+ * opaque; the id breaks ties between responses submitted in the same instant.
+ */
+public record ResponseCursor(LocalDateTime submittedAt, long id) {
+
+    public String encode() {
+        String raw = submittedAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws ValidationException if the cursor was not produced by {@link #encode()}
+     */
+    public static ResponseCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator <= 0) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new ResponseCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+}
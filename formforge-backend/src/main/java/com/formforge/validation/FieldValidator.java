@@ -0,0 +1,198 @@
+package com.formforge.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formforge.entity.enums.FieldType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Pre-compiled validator for a single form field.
+ *
+ * COMPILE ONCE, RUN MANY:
+ * - validationRules / fieldConfig JSON is parsed when the published form is
+ * compiled, never on the submit path
+ * - Regex patterns are compiled once (String.matches recompiles every call)
+ * - Allowed DROPDOWN/RADIO options are held in a HashSet for O(1) lookups
+ * - validate() allocates nothing on the success path
+ *
+ * Supported rules (FormField.validationRules):
+ * {"minLength": 3, "maxLength": 100, "pattern": "^[a-zA-Z]+$", "min": 0, "max": 100}
+ */
+@Slf4j
+public final class FieldValidator {
+
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[\\w-\\.]+@([\\w-]+\\.)+[\\w-]{2,4}$");
+
+    private final FieldType fieldType;
+    private final boolean required;
+    private final String requiredMessage;
+    private final int minLength;
+    private final int maxLength;
+    private final Pattern pattern;
+    private final double min;
+    private final double max;
+    private final Set<String> allowedOptions;
+
+    private FieldValidator(FieldType fieldType, boolean required, String requiredMessage,
+            int minLength, int maxLength, Pattern pattern,
+            double min, double max, Set<String> allowedOptions) {
+        this.fieldType = fieldType;
+        this.required = required;
+        this.requiredMessage = requiredMessage;
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+        this.pattern = pattern;
+        this.min = min;
+        this.max = max;
+        this.allowedOptions = allowedOptions;
+    }
+
+    /**
+     * Validate a submitted value.
+     *
+     * @return error message, or null when the value is valid
+     */
+    public String validate(String value) {
+        if (value == null || value.isBlank()) {
+            return required ? requiredMessage : null;
+        }
+
+        switch (fieldType) {
+            case EMAIL:
+                if (!EMAIL_PATTERN.matcher(value).matches()) {
+                    return "Invalid email format";
+                }
+                break;
+            case NUMBER:
+                double number;
+                try {
+                    number = Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    return "Must be a valid number";
+                }
+                if (!Double.isFinite(number)) {
+                    return "Must be a valid number";
+                }
+                if (number < min) {
+                    return "Must be at least " + formatBound(min);
+                }
+                if (number > max) {
+                    return "Must be at most " + formatBound(max);
+                }
+                return null;
+            case DROPDOWN:
+            case RADIO:
+                if (allowedOptions != null && !allowedOptions.contains(value)) {
+                    return "Invalid option";
+                }
+                break;
+            default:
+                break;
+        }
+
+        if (minLength > 0 && value.length() < minLength) {
+            return "Must be at least " + minLength + " characters";
+        }
+        if (maxLength >= 0 && value.length() > maxLength) {
+            return "Must be at most " + maxLength + " characters";
+        }
+        if (pattern != null && !pattern.matcher(value).matches()) {
+            return "Invalid format";
+        }
+        return null;
+    }
+
+    /**
+     * Compile validationRules and fieldConfig JSON into a reusable validator.
+     * Malformed rules are logged and ignored rather than rejecting every submission.
+     */
+    public static FieldValidator compile(String fieldKey, String label, FieldType fieldType, boolean required,
+            String validationRules, String fieldConfig, ObjectMapper objectMapper) {
+        int minLength = 0;
+        int maxLength = -1;
+        Pattern pattern = null;
+        double min = Double.NEGATIVE_INFINITY;
+        double max = Double.POSITIVE_INFINITY;
+
+        JsonNode rules = readJson(fieldKey, validationRules, objectMapper);
+        if (rules != null) {
+            if (rules.path("minLength").canConvertToInt()) {
+                minLength = rules.get("minLength").asInt();
+            }
+            if (rules.path("maxLength").canConvertToInt()) {
+                maxLength = rules.get("maxLength").asInt();
+            }
+            if (rules.path("min").isNumber()) {
+                min = rules.get("min").asDouble();
+            }
+            if (rules.path("max").isNumber()) {
+                max = rules.get("max").asDouble();
+            }
+            if (rules.path("pattern").isTextual() && !rules.get("pattern").asText().isEmpty()) {
+                try {
+                    pattern = Pattern.compile(rules.get("pattern").asText());
+                } catch (PatternSyntaxException e) {
+                    log.warn("Ignoring invalid pattern for field {}: {}", fieldKey, e.getDescription());
+                }
+            }
+        }
+
+        Set<String> allowedOptions = null;
+        if (fieldType == FieldType.DROPDOWN || fieldType == FieldType.RADIO) {
+            allowedOptions = compileOptions(readJson(fieldKey, fieldConfig, objectMapper));
+        }
+
+        return new FieldValidator(fieldType, required, label + " is required",
+                minLength, maxLength, pattern, min, max, allowedOptions);
+    }
+
+    /**
+     * Options may be plain strings ["a", "b"] or objects [{"value": "a", "label": "A"}].
+     * Returns null (no restriction) when the config declares no options.
+     */
+    private static Set<String> compileOptions(JsonNode config) {
+        if (config == null || !config.path("options").isArray() || config.get("options").isEmpty()) {
+            return null;
+        }
+        Set<String> options = new HashSet<>();
+        for (JsonNode option : config.get("options")) {
+            if (option.isObject()) {
+                JsonNode value = option.get("value");
+                if (value != null && !value.isNull()) {
+                    options.add(value.asText());
+                }
+            } else if (!option.isNull()) {
+                options.add(option.asText());
+            }
+        }
+        return Collections.unmodifiableSet(options);
+    }
+
+    private static JsonNode readJson(String fieldKey, String json, ObjectMapper objectMapper) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            // JSON columns may hold a double-encoded string
+            if (node.isTextual()) {
+                node = objectMapper.readTree(node.asText());
+            }
+            return node.isObject() ? node : null;
+        } catch (IOException e) {
+            log.warn("Ignoring malformed JSON config for field {}", fieldKey);
+            return null;
+        }
+    }
+
+    private static String formatBound(double bound) {
+        return bound == Math.rint(bound) ? String.valueOf((long) bound) : String.valueOf(bound);
+    }
+}
@@ -0,0 +1,20 @@
+-- Content-addressed schema snapshots (one row per distinct form schema).
+--
+-- Apply to every existing database before deploying: ddl-auto=update adds
+-- the new table and column but never relaxes the NOT NULL on
+-- form_schema_snapshot. Then run POST /api/admin/schema-snapshots/backfill
+-- to move existing inline snapshots out of form_responses.
+
+CREATE TABLE IF NOT EXISTS schema_snapshots (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    content_hash VARCHAR(64) NOT NULL,
+    schema_json JSON NOT NULL,
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_schema_snapshot_hash UNIQUE (content_hash)
+);
+
+ALTER TABLE form_responses
+    ADD COLUMN schema_snapshot_id BIGINT NULL,
+    MODIFY COLUMN form_schema_snapshot JSON NULL,
+    ADD INDEX idx_responses_schema_snapshot (schema_snapshot_id);
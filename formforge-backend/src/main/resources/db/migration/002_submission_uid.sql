@@ -0,0 +1,6 @@
+-- Server-generated submission id, used to make journal replay idempotent.
+-- Existing rows keep NULL (allowed multiple times by the unique index).
+
+ALTER TABLE form_responses
+    ADD COLUMN submission_uid VARCHAR(36) NULL,
+    ADD CONSTRAINT uk_responses_submission_uid UNIQUE (submission_uid);
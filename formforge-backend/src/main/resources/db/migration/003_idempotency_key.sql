@@ -0,0 +1,6 @@
+-- Client-supplied Idempotency-Key for public submissions.
+-- Unique per form; rows without a key keep NULL (allowed multiple times).
+
+ALTER TABLE form_responses
+    ADD COLUMN idempotency_key VARCHAR(100) NULL,
+    ADD CONSTRAINT uk_responses_form_idempotency UNIQUE (form_id, idempotency_key);
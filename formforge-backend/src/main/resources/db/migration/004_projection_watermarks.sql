@@ -0,0 +1,13 @@
+-- Per-form high-water mark of the asynchronous EAV projector
+-- (ingest.projection.async). Unused in the default synchronous mode.
+
+CREATE TABLE IF NOT EXISTS projection_watermarks (
+    form_id BIGINT NOT NULL,
+    last_response_id BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (form_id)
+);
+
+-- Projector reads: responses of one form after the watermark, in id order.
+ALTER TABLE form_responses
+    ADD INDEX idx_responses_form_id (form_id, id);
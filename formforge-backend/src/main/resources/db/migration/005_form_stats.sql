@@ -0,0 +1,11 @@
+-- Maintained per-form dashboard counters (see FormStatsService).
+-- Filled on application startup by the reconcile pass.
+
+CREATE TABLE IF NOT EXISTS form_stats (
+    form_id BIGINT NOT NULL,
+    response_count BIGINT NOT NULL,
+    active_field_count INT NOT NULL,
+    last_submitted_at DATETIME(6),
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (form_id)
+);
@@ -0,0 +1,4 @@
+-- Export header: distinct schema snapshots across the versions of a form
+-- group, read with a loose index scan (see ExportSchemaResolver).
+ALTER TABLE form_responses
+    ADD INDEX idx_responses_form_snapshot (form_id, schema_snapshot_id);
@@ -0,0 +1,12 @@
+-- Binary response payloads (storage.response-codec, ResponsePayloadCodec).
+--
+-- Apply before enabling storage.response-codec.binary: ddl-auto=update adds
+-- the columns but never relaxes the NOT NULL on response_json. Relaxing it
+-- rebuilds the table (online, ALGORITHM=INPLACE).
+-- Existing rows keep payload_format 0 (JSON) and stay readable; run
+-- POST /api/admin/responses/reencode to convert them.
+
+ALTER TABLE form_responses
+    MODIFY COLUMN response_json JSON NULL,
+    ADD COLUMN payload_format TINYINT NOT NULL DEFAULT 0,
+    ADD COLUMN response_payload MEDIUMBLOB NULL;
@@ -0,0 +1,34 @@
+-- Time-bucketed response rollups behind dashboard time series
+-- (ResponseRollupAggregator). bucket_size is a RollupBucket code:
+-- 0 = HOUR, 1 = DAY; bucket_start is the local wall-clock start.
+
+CREATE TABLE IF NOT EXISTS response_rollups (
+    form_id BIGINT NOT NULL,
+    bucket_size TINYINT NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    submission_count BIGINT NOT NULL,
+    PRIMARY KEY (form_id, bucket_size, bucket_start)
+);
+
+-- Per aggregatable field and bucket: option counts (DROPDOWN / RADIO /
+-- CHECKBOX, one row per value) or count and sum (NUMBER, value_key '').
+CREATE TABLE IF NOT EXISTS response_rollup_values (
+    form_id BIGINT NOT NULL,
+    bucket_size TINYINT NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    field_id BIGINT NOT NULL,
+    value_key VARCHAR(191) NOT NULL,
+    value_count BIGINT NOT NULL,
+    value_sum DOUBLE NOT NULL,
+    PRIMARY KEY (form_id, bucket_size, bucket_start, field_id, value_key)
+);
+
+-- Single row: every response with id <= last_response_id is aggregated.
+CREATE TABLE IF NOT EXISTS rollup_progress (
+    id TINYINT NOT NULL,
+    last_response_id BIGINT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT IGNORE INTO rollup_progress (id, last_response_id, updated_at) VALUES (1, 0, NOW(6));
@@ -0,0 +1,11 @@
+-- Persisted probabilistic sketches per form and field (FormSketchStore).
+-- sketch_key is the fieldKey, or '$submissionIp' for the per-form
+-- submission sketch (field keys always start with a letter).
+
+CREATE TABLE IF NOT EXISTS form_sketches (
+    form_id BIGINT NOT NULL,
+    sketch_key VARCHAR(100) NOT NULL,
+    sketch MEDIUMBLOB NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (form_id, sketch_key)
+);
@@ -11,7 +11,13 @@ const publicApi = axios.create({
 export const responseApi = {
     getPublicForm: (slug) => publicApi.get(`/forms/${slug}`),
 
-    submitResponse: (slug, data) => publicApi.post(`/forms/${slug}/submit`, data),
+    // Signed proof of when the form was loaded, echoed back on submit
+    getLoadToken: (slug) => publicApi.get(`/forms/${slug}/load-token`),
+
+    // Same key on every retry of one submission, so the server stores it once
+    submitResponse: (slug, data, idempotencyKey) => publicApi.post(`/forms/${slug}/submit`, data, {
+        headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : {},
+    }),
 };
 
 export default responseApi;
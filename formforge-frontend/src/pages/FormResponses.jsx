@@ -3,12 +3,15 @@ import { useParams, Link } from 'react-router-dom';
 import formApi from '../api/formApi';
 import './FormResponses.css';
 
+const PAGE_SIZE = 20;
+
 function FormResponses() {
     const { id } = useParams();
     const [form, setForm] = useState(null);
     const [responses, setResponses] = useState([]);
     const [loading, setLoading] = useState(true);
-    const [pagination, setPagination] = useState({ page: 0, totalPages: 0 });
+    // cursors[i] addresses page i (null = first page); kept for "Previous"
+    const [pagination, setPagination] = useState({ cursors: [null], page: 0, hasNext: false, total: null });
     const [exporting, setExporting] = useState(false);
 
     useEffect(() => {
@@ -17,16 +20,29 @@ function FormResponses() {
 
     const loadData = async () => {
         try {
+            const cursor = pagination.cursors[pagination.page];
             const [formRes, responsesRes] = await Promise.all([
                 formApi.getForm(id),
-                formApi.getResponses(id, { page: pagination.page, size: 20 }),
+                formApi.getResponses(id, {
+                    size: PAGE_SIZE,
+                    ...(cursor ? { cursor } : {}),
+                    includeTotal: pagination.page === 0,
+                }),
             ]);
             setForm(formRes.data);
             setResponses(responsesRes.data.content);
-            setPagination(prev => ({
-                ...prev,
-                totalPages: responsesRes.data.totalPages,
-            }));
+            setPagination(prev => {
+                const cursors = prev.cursors.slice(0, prev.page + 1);
+                if (responsesRes.data.hasNext) {
+                    cursors.push(responsesRes.data.nextCursor);
+                }
+                return {
+                    ...prev,
+                    cursors,
+                    hasNext: responsesRes.data.hasNext,
+                    total: responsesRes.data.totalElements ?? prev.total,
+                };
+            });
         } catch (error) {
             console.error('Failed to load data:', error);
         } finally {
@@ -78,7 +94,7 @@ function FormResponses() {
                 <div>
                     <Link to="/" className="btn btn-ghost btn-sm">← Back</Link>
                     <h1>{form?.title} - Responses</h1>
-                    <p className="text-muted">{responses.length} total submissions</p>
+                    <p className="text-muted">{pagination.total ?? responses.length} total submissions</p>
                 </div>
                 <div className="header-actions">
                     <button
@@ -124,7 +140,7 @@ function FormResponses() {
                             <tbody>
                                 {responses.map((response, index) => (
                                     <tr key={response.id}>
-                                        <td>{pagination.page * 20 + index + 1}</td>
+                                        <td>{pagination.page * PAGE_SIZE + index + 1}</td>
                                         <td>{formatDate(response.submittedAt)}</td>
                                         <td><code>{response.submissionIp}</code></td>
                                         <td>
@@ -145,7 +161,7 @@ function FormResponses() {
                     </div>
 
                     {/* Pagination */}
-                    {pagination.totalPages > 1 && (
+                    {(pagination.page > 0 || pagination.hasNext) && (
                         <div className="pagination">
                             <button
                                 className="pagination-btn"
@@ -155,12 +171,12 @@ function FormResponses() {
                                 Previous
                             </button>
                             <span className="pagination-info">
-                                Page {pagination.page + 1} of {pagination.totalPages}
+                                Page {pagination.page + 1}
                             </span>
                             <button
                                 className="pagination-btn"
                                 onClick={() => setPagination(p => ({ ...p, page: p.page + 1 }))}
-                                disabled={pagination.page >= pagination.totalPages - 1}
+                                disabled={!pagination.hasNext}
                             >
                                 Next
                             </button>
@@ -11,7 +11,8 @@ function PublicForm() {
     const [formValues, setFormValues] = useState({});
     const [submitting, setSubmitting] = useState(false);
     const [errors, setErrors] = useState({});
-    const [loadTimestamp] = useState(Date.now());
+    const [loadToken, setLoadToken] = useState(null);
+    const [idempotencyKey] = useState(() => crypto.randomUUID());
 
     useEffect(() => {
         loadForm();
@@ -19,8 +20,12 @@ function PublicForm() {
 
     const loadForm = async () => {
         try {
-            const response = await responseApi.getPublicForm(slug);
+            const [response, tokenResponse] = await Promise.all([
+                responseApi.getPublicForm(slug),
+                responseApi.getLoadToken(slug),
+            ]);
             setForm(response.data);
+            setLoadToken(tokenResponse.data.loadToken);
 
             // Initialize default values
             const defaults = {};
@@ -72,9 +77,9 @@ function PublicForm() {
         try {
             await responseApi.submitResponse(slug, {
                 values: formValues,
-                loadTimestamp,
+                loadToken,
                 honeypot: '', // Bot trap - should be empty
-            });
+            }, idempotencyKey);
             navigate('/submitted');
         } catch (error) {
             const message = error.response?.data?.message || 'Failed to submit. Please try again.';